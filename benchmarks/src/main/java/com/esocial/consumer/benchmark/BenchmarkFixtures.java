@@ -0,0 +1,105 @@
+package com.esocial.consumer.benchmark;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.repository.EmployeeRepository;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Eventos e stubs compartilhados pelos benchmarks do consumer.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Evento S-2300 com todos os campos preenchidos e válidos (passa por todas as camadas).
+     */
+    public static EmployeeEventDTO validEvent() {
+        return EmployeeEventDTO.builder()
+                .eventId("evt-bench-0001")
+                .eventType("S-2300")
+                .eventTimestamp(LocalDateTime.of(2025, 1, 10, 9, 30))
+                .correlationId(UUID.fromString("7c9e6679-7425-40de-944b-e07fc1f90ae7"))
+                .sourceId("EMP-BENCH-0001")
+                .cpf("12345678909")
+                .pis("17033259504")
+                .ctps("12345670001")
+                .matricula("MAT-0001")
+                .fullName("João da Silva Santos")
+                .birthDate(LocalDate.of(1985, 3, 15))
+                .sex("M")
+                .nationality("B")
+                .maritalStatus("1")
+                .race("01")
+                .educationLevel("08")
+                .disability("01")
+                .email("joao.silva@empresa.com.br")
+                .phone("(11) 98765-4321")
+                .zipCode("13500-111")
+                .uf("SP")
+                .admissionDate(LocalDate.of(2020, 1, 10))
+                .jobTitle("Analista de Sistemas")
+                .department("TI")
+                .category("101")
+                .contractType("123")
+                .cbo("212205")
+                .salary(new BigDecimal("5500.00"))
+                .status("ACTIVE")
+                .kafkaTopic("employee-create")
+                .kafkaPartition(0)
+                .kafkaOffset(100L)
+                .build();
+    }
+
+    /**
+     * Evento com erros estruturais (CPF e nome), rejeitado já na primeira camada.
+     */
+    public static EmployeeEventDTO invalidEvent() {
+        EmployeeEventDTO event = validEvent();
+        event.setEventId("evt-bench-0002");
+        event.setCpf("12345678901");
+        event.setFullName(" ");
+        return event;
+    }
+
+    /**
+     * Repositório sem banco: contagens retornam 0, buscas retornam vazio.
+     * Isola o custo de CPU das regras VI-* do custo de I/O.
+     */
+    public static EmployeeRepository stubEmployeeRepository() {
+        return (EmployeeRepository) Proxy.newProxyInstance(
+                EmployeeRepository.class.getClassLoader(),
+                new Class<?>[]{EmployeeRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "equals" -> proxy == args[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            default -> "EmployeeRepositoryStub";
+                        };
+                    }
+                    Class<?> type = method.getReturnType();
+                    if (type == long.class) {
+                        return 0L;
+                    }
+                    if (type == boolean.class) {
+                        return false;
+                    }
+                    if (type == Optional.class) {
+                        return Optional.empty();
+                    }
+                    if (type == List.class) {
+                        return List.of();
+                    }
+                    return null;
+                });
+    }
+}
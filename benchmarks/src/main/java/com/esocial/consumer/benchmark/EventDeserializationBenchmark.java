@@ -0,0 +1,63 @@
+package com.esocial.consumer.benchmark;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desserialização do EmployeeEventDTO a partir do payload Kafka, com o
+ * JsonDeserializer configurado como em KafkaConfig (tipo padrão, sem headers de tipo).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDeserializationBenchmark {
+
+    private static final String TOPIC = "employee-create";
+
+    private JsonDeserializer<EmployeeEventDTO> deserializer;
+    private ObjectMapper objectMapper;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = JacksonUtils.enhancedObjectMapper();
+        payload = objectMapper.writeValueAsBytes(BenchmarkFixtures.validEvent());
+
+        deserializer = new JsonDeserializer<>(EmployeeEventDTO.class, false);
+        deserializer.addTrustedPackages("*");
+    }
+
+    @TearDown
+    public void tearDown() {
+        deserializer.close();
+    }
+
+    @Benchmark
+    public EmployeeEventDTO kafkaJsonDeserializer() {
+        return deserializer.deserialize(TOPIC, payload);
+    }
+
+    @Benchmark
+    public EmployeeEventDTO objectMapperReadValue() throws IOException {
+        return objectMapper.readValue(payload, EmployeeEventDTO.class);
+    }
+}
@@ -0,0 +1,93 @@
+package com.esocial.consumer.benchmark;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.validation.ValidationResult;
+import com.esocial.consumer.validation.ValidationRule;
+import com.esocial.consumer.validation.format.DocumentFormats;
+import com.esocial.consumer.validation.rules.conformance.CboValidationRule;
+import com.esocial.consumer.validation.rules.structural.CpfValidationRule;
+import com.esocial.consumer.validation.rules.structural.CtpsValidationRule;
+import com.esocial.consumer.validation.rules.structural.EmailValidationRule;
+import com.esocial.consumer.validation.rules.structural.FullNameValidationRule;
+import com.esocial.consumer.validation.rules.structural.PhoneValidationRule;
+import com.esocial.consumer.validation.rules.structural.PisValidationRule;
+import com.esocial.consumer.validation.rules.structural.ZipCodeValidationRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o custo por evento das verificações estruturais com String.matches
+ * (implementação anterior) e com {@link DocumentFormats}.
+ *
+ * Rodar com {@code -prof gc} para conferir a alocação por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StructuralValidationBenchmark {
+
+    private static final String LEGACY_EMAIL_PATTERN = "^[A-Za-z0-9+_.-]+@(.+)$";
+
+    private EmployeeEventDTO event;
+    private List<ValidationRule> structuralRules;
+
+    @Setup
+    public void setUp() {
+        event = BenchmarkFixtures.validEvent();
+
+        structuralRules = List.of(
+                new CpfValidationRule(),
+                new PisValidationRule(),
+                new CtpsValidationRule(),
+                new FullNameValidationRule(),
+                new EmailValidationRule(),
+                new PhoneValidationRule(),
+                new ZipCodeValidationRule(),
+                new CboValidationRule());
+    }
+
+    @Benchmark
+    public void legacyRegexChecks(Blackhole bh) {
+        String cpf = event.getCpf();
+        bh.consume(cpf.matches("\\d{11}") && !cpf.matches("(\\d)\\1{10}"));
+        bh.consume(event.getPis().matches("\\d{11}"));
+        bh.consume(event.getEmail().matches(LEGACY_EMAIL_PATTERN));
+        bh.consume(event.getPhone().replaceAll("\\D", "").length());
+        bh.consume(event.getCbo().matches("\\d{6}"));
+    }
+
+    @Benchmark
+    public void charLoopChecks(Blackhole bh) {
+        bh.consume(DocumentFormats.isValidCpf(event.getCpf()));
+        bh.consume(DocumentFormats.isValidPis(event.getPis()));
+        bh.consume(DocumentFormats.isValidEmail(event.getEmail()));
+        bh.consume(DocumentFormats.isValidPhone(event.getPhone()));
+        bh.consume(DocumentFormats.isValidCbo(event.getCbo()));
+        bh.consume(DocumentFormats.isValidCtps(event.getCtps()));
+        bh.consume(DocumentFormats.isValidCep(event.getZipCode()));
+    }
+
+    @Benchmark
+    public ValidationResult structuralRules() {
+        ValidationResult result = new ValidationResult();
+        for (ValidationRule rule : structuralRules) {
+            rule.validate(event, result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package com.esocial.consumer.benchmark;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.repository.EmployeeRepository;
+import com.esocial.consumer.validation.ValidationEngine;
+import com.esocial.consumer.validation.ValidationResult;
+import com.esocial.consumer.validation.index.DocumentUniquenessIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValidationEngine.validate com o mesmo conjunto de regras registrado pelo Spring
+ * (component scan de validation.rules). O repositório é um stub sem banco, então
+ * as regras VI-* medem apenas CPU.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationEngineBenchmark {
+
+    @Param({"valid", "invalid"})
+    public String payload;
+
+    private AnnotationConfigApplicationContext context;
+    private ValidationEngine engine;
+    private EmployeeEventDTO event;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(EmployeeRepository.class, BenchmarkFixtures::stubEmployeeRepository);
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        // O índice de unicidade só consulta o banco no ApplicationReadyEvent, que não é publicado aqui
+        context.registerBean(JdbcTemplate.class, () -> new JdbcTemplate(new SimpleDriverDataSource(), true));
+        context.register(DocumentUniquenessIndex.class, ValidationEngine.class);
+        context.scan("com.esocial.consumer.validation.rules");
+        context.refresh();
+
+        engine = context.getBean(ValidationEngine.class);
+        event = "valid".equals(payload) ? BenchmarkFixtures.validEvent() : BenchmarkFixtures.invalidEvent();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ValidationResult validate() {
+        return engine.validate(event);
+    }
+}
@@ -0,0 +1,57 @@
+package com.esocial.consumer.benchmark;
+
+import com.esocial.consumer.validation.ValidationResult;
+import com.esocial.consumer.validation.ValidationSeverity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acúmulo de erros e warnings em ValidationResult, diretamente e via merge
+ * (caminho das regras executadas em paralelo).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationResultBenchmark {
+
+    @Param({"0", "4", "32"})
+    public int findings;
+
+    @Benchmark
+    public ValidationResult accumulate() {
+        ValidationResult result = new ValidationResult();
+        addFindings(result, findings);
+        return result;
+    }
+
+    @Benchmark
+    public ValidationResult merge() {
+        ValidationResult result = new ValidationResult();
+        for (int i = 0; i < findings; i++) {
+            ValidationResult partial = new ValidationResult();
+            addFindings(partial, 1);
+            result.merge(partial);
+        }
+        return result;
+    }
+
+    private static void addFindings(ValidationResult result, int count) {
+        for (int i = 0; i < count; i++) {
+            ValidationSeverity severity = (i & 1) == 0 ? ValidationSeverity.ERROR : ValidationSeverity.WARNING;
+            result.addError("VE-001", severity, "CPF com dígito verificador inválido", "cpf", "12345678901");
+        }
+    }
+}
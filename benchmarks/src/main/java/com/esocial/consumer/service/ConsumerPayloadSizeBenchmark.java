@@ -0,0 +1,52 @@
+package com.esocial.consumer.service;
+
+import com.esocial.consumer.benchmark.BenchmarkFixtures;
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimativa de tamanho de payload do consumer (métrica por mensagem), comparada
+ * ao custo de serializar o evento para obter o tamanho real.
+ * Fica no pacote do serviço porque o helper é package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsumerPayloadSizeBenchmark {
+
+    private EmployeeEventDTO event;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        event = BenchmarkFixtures.validEvent();
+        objectMapper = JacksonUtils.enhancedObjectMapper();
+    }
+
+    @Benchmark
+    public int estimatePayloadSize() {
+        return KafkaConsumerService.estimatePayloadSize(event);
+    }
+
+    @Benchmark
+    public int serializedPayloadSize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(event).length;
+    }
+}
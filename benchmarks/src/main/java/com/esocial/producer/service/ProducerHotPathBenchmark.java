@@ -0,0 +1,89 @@
+package com.esocial.producer.service;
+
+import com.esocial.producer.model.dto.EmployeeEventDTO;
+import com.esocial.producer.model.dto.EventType;
+import com.esocial.producer.model.entity.Employee;
+import com.esocial.producer.serialization.EventSchemaRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho por registro do producer: conversão Employee → DTO e serialização do payload.
+ * doubleSerialization reproduz o caminho antigo (String para medir o tamanho + JsonSerializer);
+ * singleSerialization e avroSerialization são os caminhos atuais (app.kafka.payload-format).
+ * Fica no pacote do serviço porque os helpers são package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProducerHotPathBenchmark {
+
+    private Employee employee;
+    private EmployeeEventDTO event;
+    private ObjectMapper objectMapper;
+    private EventPayloadSerializer payloadSerializer;
+    private EventPayloadSerializer avroSerializer;
+
+    @Setup
+    public void setUp() {
+        employee = Employee.builder()
+                .employeeId("EMP001")
+                .cpf("12345678909")
+                .pis("17033259504")
+                .fullName("João da Silva Santos")
+                .birthDate(LocalDate.of(1985, 3, 15))
+                .admissionDate(LocalDate.of(2020, 1, 10))
+                .jobTitle("Analista de Sistemas")
+                .department("TI")
+                .salary(new BigDecimal("5500.00"))
+                .status("ACTIVE")
+                .createdAt(LocalDateTime.of(2020, 1, 10, 8, 0))
+                .updatedAt(LocalDateTime.of(2025, 1, 10, 9, 30))
+                .build();
+        event = ChangeDataCaptureService.convertToDTO(employee, EventType.UPDATE);
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        payloadSerializer = new EventPayloadSerializer(objectMapper);
+        avroSerializer = new EventPayloadSerializer(objectMapper, "avro", new EventSchemaRegistry("schemas/employee-event"));
+    }
+
+    @Benchmark
+    public EmployeeEventDTO convertToDTO() {
+        return ChangeDataCaptureService.convertToDTO(employee, EventType.UPDATE);
+    }
+
+    @Benchmark
+    public byte[] doubleSerialization() throws JsonProcessingException {
+        int size = objectMapper.writeValueAsString(event).getBytes().length;
+        byte[] payload = objectMapper.writeValueAsBytes(event);
+        return size > 0 ? payload : null;
+    }
+
+    @Benchmark
+    public byte[] singleSerialization() {
+        return payloadSerializer.serialize(event);
+    }
+
+    @Benchmark
+    public byte[] avroSerialization() {
+        return avroSerializer.serialize(event);
+    }
+}
@@ -1,6 +1,10 @@
 package com.esocial.consumer.config;
 
 import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.serialization.EmployeeEventDeserializer;
+import com.esocial.consumer.serialization.EventSchemaRegistry;
+import com.esocial.consumer.service.ExactlyOnceEventConsumer;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,10 +12,12 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -26,20 +32,31 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${app.kafka.topics.dlq}")
+    private String dlqTopic;
+
+    private final EventSchemaRegistry schemaRegistry;
+
+    public KafkaConfig(EventSchemaRegistry schemaRegistry) {
+        this.schemaRegistry = schemaRegistry;
+    }
+
+    /**
+     * O valor é desserializado pelo EmployeeEventDeserializer, que escolhe JSON ou Avro
+     * pelo header X-Payload-Format de cada mensagem.
+     */
     @Bean
     public ConsumerFactory<String, EmployeeEventDTO> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100);
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, EmployeeEventDTO.class.getName());
-        
-        return new DefaultKafkaConsumerFactory<>(props);
+
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new EmployeeEventDeserializer(schemaRegistry));
     }
 
     @Bean
@@ -51,4 +68,96 @@ public class KafkaConfig {
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         return factory;
     }
+
+    /**
+     * Factory para o modo batch: o listener recebe o poll inteiro (até max.poll.records)
+     * e confirma o offset uma única vez por lote.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EmployeeEventDTO> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, EmployeeEventDTO> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(3);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Factory para o modo paralelo: o listener repassa cada registro ao KeyOrderedExecutor
+     * e o ack vem da thread worker. Com asyncAcks o container aceita acks fora de ordem e só
+     * comita, por partição, até o menor offset contíguo já concluído; enquanto houver lacunas
+     * o consumer fica pausado, limitando os registros em voo ao último poll.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EmployeeEventDTO> parallelKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, EmployeeEventDTO> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(3);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
+
+    /**
+     * Factory do modo exactly-once: lote inteiro em uma transação do banco junto com os offsets.
+     * Registros com falha já vão para a DLQ dentro da transação; uma exceção que chega ao
+     * container é de infraestrutura (banco ou broker) e o poll é reentregue com backoff
+     * exponencial. Esgotadas as tentativas, o ExactlyOnceEventConsumer envia cada registro à
+     * DLQ e avança o offset gravado no banco, para que um lote envenenado não trave a partição.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EmployeeEventDTO> exactlyOnceKafkaListenerContainerFactory(
+            ExactlyOnceEventConsumer exactlyOnceEventConsumer,
+            @Value("${app.kafka.listener.exactly-once.retry.max-retries:10}") int maxRetries,
+            @Value("${app.kafka.listener.exactly-once.retry.initial-interval:1000}") long initialInterval,
+            @Value("${app.kafka.listener.exactly-once.retry.max-interval:60000}") long maxInterval) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(maxRetries);
+        backOff.setInitialInterval(initialInterval);
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(maxInterval);
+
+        ConcurrentKafkaListenerContainerFactory<String, EmployeeEventDTO> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(3);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(exactlyOnceEventConsumer::recover, backOff));
+        return factory;
+    }
+
+    /**
+     * Factory do DlqEventWriter: lê o tópico de DLQ como String em lote,
+     * com um único container (volume baixo, gravação em lote no banco).
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> dlqKafkaListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        // Mensagens de transações abortadas no modo exactly-once não chegam ao banco
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new StringDeserializer()));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    @Bean
+    public NewTopic dlqTopic() {
+        return TopicBuilder.name(dlqTopic)
+                .partitions(3)
+                .replicas(3)
+                .config("min.insync.replicas", "2")
+                .build();
+    }
 }
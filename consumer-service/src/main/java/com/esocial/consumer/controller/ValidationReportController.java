@@ -2,117 +2,233 @@ package com.esocial.consumer.controller;
 
 import com.esocial.consumer.model.entity.DlqEvent;
 import com.esocial.consumer.model.entity.ValidationError;
-import com.esocial.consumer.repository.DlqEventRepository;
 import com.esocial.consumer.repository.ValidationErrorRepository;
+import com.esocial.consumer.repository.ValidationReportRepository;
+import com.esocial.consumer.repository.ValidationReportRepository.DlqFilter;
+import com.esocial.consumer.repository.ValidationReportRepository.ErrorFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+/**
+ * Relatórios de validação e DLQ.
+ *
+ * As listagens são paginadas por chave: o corpo continua sendo um array e o header
+ * X-Next-Cursor traz o afterId da próxima página (ausente na última). Os endpoints
+ * /stream exportam o resultado filtrado em NDJSON sem carregá-lo em memória.
+ */
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/validation")
 public class ValidationReportController {
-    
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final ValidationErrorRepository validationErrorRepository;
-    private final DlqEventRepository dlqEventRepository;
-    
+    private final ValidationReportRepository reportRepository;
+    private final ObjectMapper objectMapper;
+
     public ValidationReportController(
             ValidationErrorRepository validationErrorRepository,
-            DlqEventRepository dlqEventRepository) {
+            ValidationReportRepository reportRepository,
+            ObjectMapper objectMapper) {
         this.validationErrorRepository = validationErrorRepository;
-        this.dlqEventRepository = dlqEventRepository;
+        this.reportRepository = reportRepository;
+        this.objectMapper = objectMapper;
     }
-    
+
     /**
-     * Lista todos os erros de validação
+     * Lista erros de validação (paginado, filtros por período, regra e severidade)
      */
     @GetMapping("/errors")
-    public ResponseEntity<List<ValidationError>> getAllErrors() {
-        return ResponseEntity.ok(validationErrorRepository.findAll());
+    public ResponseEntity<List<ValidationError>> getAllErrors(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String rule,
+            @RequestParam(required = false) String severity,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        ErrorFilter filter = new ErrorFilter(from, to, rule, severity);
+        return errorsPage(filter, afterId, limit);
     }
-    
+
+    /**
+     * Exporta erros de validação em NDJSON (um objeto JSON por linha)
+     */
+    @GetMapping(value = "/errors/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamErrors(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String rule,
+            @RequestParam(required = false) String severity) {
+        ErrorFilter filter = new ErrorFilter(from, to, rule, severity);
+        return ndjson(sink -> reportRepository.streamErrors(filter, sink));
+    }
+
     /**
      * Lista erros recentes (últimas 24 horas)
      */
     @GetMapping("/errors/recent")
     public ResponseEntity<List<ValidationError>> getRecentErrors(
-            @RequestParam(defaultValue = "24") int hours) {
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
-        return ResponseEntity.ok(validationErrorRepository.findRecentErrors(since));
+        return errorsPage(new ErrorFilter(since, null, null, null), afterId, limit);
     }
-    
+
     /**
      * Lista erros por severidade
      */
     @GetMapping("/errors/severity/{severity}")
     public ResponseEntity<List<ValidationError>> getErrorsBySeverity(
-            @PathVariable String severity) {
-        return ResponseEntity.ok(validationErrorRepository.findBySeverity(severity));
+            @PathVariable String severity,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        return errorsPage(new ErrorFilter(null, null, null, severity), afterId, limit);
     }
-    
+
     /**
      * Estatísticas de erros por regra
      */
     @GetMapping("/errors/stats")
     public ResponseEntity<Map<String, Object>> getErrorStats() {
         List<Object[]> stats = validationErrorRepository.countErrorsByRule();
-        
+
         Map<String, Object> result = new HashMap<>();
         result.put("totalErrors", validationErrorRepository.count());
         result.put("errorsByRule", stats);
-        
+
         return ResponseEntity.ok(result);
     }
-    
+
     /**
-     * Lista eventos na DLQ
+     * Lista eventos na DLQ (paginado, filtros por período e status)
      */
     @GetMapping("/dlq")
-    public ResponseEntity<List<DlqEvent>> getDlqEvents() {
-        return ResponseEntity.ok(dlqEventRepository.findAll());
+    public ResponseEntity<List<DlqEvent>> getDlqEvents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        return dlqPage(new DlqFilter(from, to, status), afterId, limit);
     }
-    
+
+    /**
+     * Exporta eventos da DLQ em NDJSON (um objeto JSON por linha)
+     */
+    @GetMapping(value = "/dlq/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamDlqEvents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String status) {
+        DlqFilter filter = new DlqFilter(from, to, status);
+        return ndjson(sink -> reportRepository.streamDlqEvents(filter, sink));
+    }
+
     /**
      * Lista eventos DLQ por status
      */
     @GetMapping("/dlq/status/{status}")
     public ResponseEntity<List<DlqEvent>> getDlqEventsByStatus(
-            @PathVariable String status) {
-        return ResponseEntity.ok(dlqEventRepository.findByStatus(status));
+            @PathVariable String status,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        return dlqPage(new DlqFilter(null, null, status), afterId, limit);
     }
-    
+
     /**
-     * Dashboard com estatísticas gerais
+     * Dashboard com estatísticas gerais (contagens agregadas no banco)
      */
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getDashboard() {
         Map<String, Object> dashboard = new HashMap<>();
-        
+
         // Erros de validação
-        long totalErrors = validationErrorRepository.count();
-        long errorSeverity = validationErrorRepository.findBySeverity("ERROR").size();
-        long warningSeverity = validationErrorRepository.findBySeverity("WARNING").size();
-        
+        Map<String, Long> errorsBySeverity = reportRepository.countErrorsBySeverity();
+        long totalErrors = sum(errorsBySeverity);
+
         // DLQ
-        long totalDlq = dlqEventRepository.count();
-        long pendingDlq = dlqEventRepository.findByStatus("PENDING").size();
-        
+        Map<String, Long> dlqByStatus = reportRepository.countDlqEventsByStatus();
+        long totalDlq = sum(dlqByStatus);
+
         dashboard.put("validation", Map.of(
                 "totalErrors", totalErrors,
-                "errors", errorSeverity,
-                "warnings", warningSeverity
+                "errors", errorsBySeverity.getOrDefault("ERROR", 0L),
+                "warnings", errorsBySeverity.getOrDefault("WARNING", 0L)
         ));
-        
+
         dashboard.put("dlq", Map.of(
                 "total", totalDlq,
-                "pending", pendingDlq
+                "pending", dlqByStatus.getOrDefault("PENDING", 0L),
+                "byStatus", dlqByStatus
         ));
-        
+
         return ResponseEntity.ok(dashboard);
     }
+
+    private ResponseEntity<List<ValidationError>> errorsPage(ErrorFilter filter, Long afterId, int limit) {
+        int pageSize = pageSize(limit);
+        return page(reportRepository.findErrors(filter, afterId, pageSize), pageSize, ValidationError::getId);
+    }
+
+    private ResponseEntity<List<DlqEvent>> dlqPage(DlqFilter filter, Long afterId, int limit) {
+        int pageSize = pageSize(limit);
+        return page(reportRepository.findDlqEvents(filter, afterId, pageSize), pageSize, DlqEvent::getId);
+    }
+
+    private static <T> ResponseEntity<List<T>> page(List<T> rows, int pageSize, Function<T, Long> id) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (rows.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(id.apply(rows.get(rows.size() - 1))));
+        }
+        return response.body(rows);
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static long sum(Map<String, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<Object>> query) {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            query.accept(row -> writeLine(out, row));
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object row) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(row));
+            out.write('\n');
+        } catch (IOException e) {
+            // Cliente desconectou: interrompe o cursor
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -1,6 +1,5 @@
 package com.esocial.consumer.metrics;
 
-import com.esocial.consumer.repository.DlqEventRepository;
 import io.micrometer.core.instrument.*;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -14,11 +13,16 @@ import org.springframework.stereotype.Component;
 public class ConsumerMetrics {
 
     private final MeterRegistry registry;
-    private final DlqEventRepository dlqRepository;
     
     private Timer validationTimer;
     private Timer persistenceTimer;
     private DistributionSummary payloadSizeDistribution;
+    private DistributionSummary batchSizeDistribution;
+
+    // Counters com tags dinâmicas, resolvidos uma vez por combinação
+    private CounterCache consumedEventsCounters;
+    private CounterCache validationSuccessCounters;
+    private CounterCache validationFailureCounters;
 
     @PostConstruct
     public void configureMetrics() {
@@ -43,21 +47,21 @@ public class ConsumerMetrics {
                 .baseUnit("bytes")
                 .register(registry);
         
-        // Gauge: Eventos pendentes na DLQ
-        Gauge.builder("dlq.events.pending", dlqRepository,
-                repo -> {
-                    try {
-                        return repo.countByStatus("PENDING");
-                    } catch (Exception e) {
-                        log.error("Erro ao coletar métrica de DLQ: {}", e.getMessage());
-                        return 0;
-                    }
-                })
-                .description("Número de eventos pendentes na Dead Letter Queue")
+        // Histogram: Tamanho dos lotes no modo batch
+        batchSizeDistribution = DistributionSummary.builder("events.batch.size")
+                .description("Quantidade de registros por lote consumido")
                 .tag("service", "consumer")
-                .tag("severity", "high")
                 .register(registry);
         
+        consumedEventsCounters = new CounterCache(registry, "events.consumed.total",
+                "Total de eventos consumidos do Kafka", "consumer", "event_type", "topic");
+        validationSuccessCounters = new CounterCache(registry, "validation.success.total",
+                "Total de validações bem-sucedidas", "consumer", "event_type");
+        validationFailureCounters = new CounterCache(registry, "validation.failure.total",
+                "Total de validações que falharam", "consumer", "event_type", "severity");
+        
+        // Gauges derivados do banco (DLQ, status de colaboradores e eventos): DatabaseMetricsSnapshot
+        
         log.info("Métricas configuradas com sucesso");
     }
     
@@ -83,32 +87,19 @@ public class ConsumerMetrics {
         payloadSizeDistribution.record(size);
     }
     
+    public void recordBatchSize(int size) {
+        batchSizeDistribution.record(size);
+    }
+    
     public void incrementConsumedEvents(String eventType, String topic) {
-        Counter.builder("events.consumed.total")
-                .description("Total de eventos consumidos do Kafka")
-                .tag("service", "consumer")
-                .tag("event_type", eventType)
-                .tag("topic", topic)
-                .register(registry)
-                .increment();
+        consumedEventsCounters.get(eventType, topic).increment();
     }
     
     public void incrementValidationSuccess(String eventType) {
-        Counter.builder("validation.success.total")
-                .description("Total de validações bem-sucedidas")
-                .tag("service", "consumer")
-                .tag("event_type", eventType)
-                .register(registry)
-                .increment();
+        validationSuccessCounters.get(eventType).increment();
     }
     
     public void incrementValidationFailure(String eventType, String severity) {
-        Counter.builder("validation.failure.total")
-                .description("Total de validações que falharam")
-                .tag("service", "consumer")
-                .tag("event_type", eventType)
-                .tag("severity", severity)
-                .register(registry)
-                .increment();
+        validationFailureCounters.get(eventType, severity).increment();
     }
 }
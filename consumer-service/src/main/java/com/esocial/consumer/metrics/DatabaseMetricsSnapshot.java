@@ -0,0 +1,149 @@
+package com.esocial.consumer.metrics;
+
+import com.esocial.consumer.model.entity.enums.EventStatus;
+import com.esocial.consumer.repository.MetricsSnapshotRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Gauges derivados do banco (DLQ por status, colaboradores por esocial_status,
+ * eventos por EventStatus) atualizados em background.
+ *
+ * O scrape do Prometheus só lê os valores em memória, sem abrir conexão.
+ * Contagens mais antigas que {@code app.metrics.snapshot.max-staleness} são expostas
+ * como NaN, para que um refresh travado não pareça um valor atual.
+ */
+@Slf4j
+@Component
+public class DatabaseMetricsSnapshot {
+
+    private final MeterRegistry registry;
+    private final long maxStalenessMs;
+
+    private final StatusCounts dlqEvents;
+    private final StatusCounts employees;
+    private final StatusCounts employeeEvents;
+
+    public DatabaseMetricsSnapshot(MetricsSnapshotRepository repository,
+                                   MeterRegistry registry,
+                                   @Value("${app.metrics.snapshot.max-staleness:300000}") long maxStalenessMs) {
+        this.registry = registry;
+        this.maxStalenessMs = maxStalenessMs;
+
+        // DLQ: apenas os status com gauge próprio (mesmo nome/tags do gauge que consultava o banco a cada scrape)
+        this.dlqEvents = new StatusCounts("dlq_events", repository::countDlqEventsByStatus, null, null);
+        registerDlqGauge("dlq.events.pending", "PENDING", "Número de eventos pendentes na Dead Letter Queue");
+        registerDlqGauge("dlq.events.failed", "FAILED", "Eventos da Dead Letter Queue que esgotaram as tentativas");
+
+        // Colaboradores: status do eSocial vêm do banco, gauges criados conforme aparecem
+        this.employees = new StatusCounts("employees", repository::countEmployeesByEsocialStatus,
+                "employees.esocial.status", "Colaboradores por status no eSocial");
+
+        // Eventos: status conhecidos pelo enum, registrados de antemão
+        this.employeeEvents = new StatusCounts("employee_events", repository::countEmployeeEventsByStatus,
+                "employee.events.status", "Eventos por status do ciclo de vida");
+        for (EventStatus status : EventStatus.values()) {
+            employeeEvents.register(status.name());
+        }
+
+        Gauge.builder("metrics.snapshot.age", this, DatabaseMetricsSnapshot::ageSeconds)
+                .description("Segundos desde o refresh mais antigo entre os gauges de banco")
+                .tag("service", "consumer")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.metrics.snapshot.refresh-interval:30000}",
+            initialDelayString = "${app.metrics.snapshot.initial-delay:5000}")
+    public void refresh() {
+        dlqEvents.refresh();
+        employees.refresh();
+        employeeEvents.refresh();
+    }
+
+    private void registerDlqGauge(String name, String status, String description) {
+        dlqEvents.values.putIfAbsent(status, new AtomicLong());
+        Gauge.builder(name, () -> dlqEvents.value(status))
+                .description(description)
+                .tag("service", "consumer")
+                .tag("severity", "high")
+                .register(registry);
+    }
+
+    private double ageSeconds() {
+        long oldest = Long.MAX_VALUE;
+        for (StatusCounts counts : List.of(dlqEvents, employees, employeeEvents)) {
+            oldest = Math.min(oldest, counts.refreshedAt);
+        }
+        return oldest == 0 ? Double.NaN : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    /**
+     * Contagens por status de uma consulta, com o instante do último refresh bem-sucedido
+     */
+    private final class StatusCounts {
+
+        private final String source;
+        private final Supplier<Map<String, Long>> query;
+        private final String gaugeName;
+        private final String description;
+        private final Map<String, AtomicLong> values = new ConcurrentHashMap<>();
+        private volatile long refreshedAt;
+
+        StatusCounts(String source, Supplier<Map<String, Long>> query, String gaugeName, String description) {
+            this.source = source;
+            this.query = query;
+            this.gaugeName = gaugeName;
+            this.description = description;
+        }
+
+        void register(String status) {
+            if (values.putIfAbsent(status, new AtomicLong()) == null && gaugeName != null) {
+                Gauge.builder(gaugeName, () -> value(status))
+                        .description(description)
+                        .tag("service", "consumer")
+                        .tag("status", status)
+                        .register(registry);
+            }
+        }
+
+        /**
+         * Substitui as contagens; status ausentes no resultado voltam a zero
+         */
+        void refresh() {
+            Map<String, Long> counts;
+            try {
+                counts = query.get();
+            } catch (Exception e) {
+                log.warn("Erro ao atualizar métricas de {}: {}", source, e.getMessage());
+                return;
+            }
+
+            values.forEach((status, value) -> value.set(counts.getOrDefault(status, 0L)));
+            counts.forEach((status, count) -> {
+                register(status);
+                values.get(status).set(count);
+            });
+            refreshedAt = System.currentTimeMillis();
+        }
+
+        double value(String status) {
+            long refreshed = refreshedAt;
+            if (refreshed == 0 || System.currentTimeMillis() - refreshed > maxStalenessMs) {
+                return Double.NaN;
+            }
+            AtomicLong value = values.get(status);
+            return value != null ? value.get() : 0;
+        }
+    }
+}
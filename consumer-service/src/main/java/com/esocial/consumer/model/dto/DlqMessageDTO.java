@@ -0,0 +1,66 @@
+package com.esocial.consumer.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Mensagem publicada no tópico de DLQ (app.kafka.topics.dlq) quando um evento falha.
+ * O DlqEventWriter consome o tópico e grava public.dlq_events em lote.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DlqMessageDTO {
+
+    @JsonProperty("event_id")
+    private String eventId;
+
+    @JsonProperty("event_type")
+    private String eventType;
+
+    @JsonProperty("source_table")
+    private String sourceTable;
+
+    @JsonProperty("source_id")
+    private String sourceId;
+
+    // Evento original serializado (JSON)
+    @JsonProperty("event_payload")
+    private String eventPayload;
+
+    @JsonProperty("error_message")
+    private String errorMessage;
+
+    @JsonProperty("exception_class")
+    private String exceptionClass;
+
+    @JsonProperty("stack_trace_fingerprint")
+    private String stackTraceFingerprint;
+
+    @JsonProperty("stack_trace")
+    private String stackTrace;
+
+    @JsonProperty("kafka_topic")
+    private String kafkaTopic;
+
+    @JsonProperty("kafka_partition")
+    private Integer kafkaPartition;
+
+    @JsonProperty("kafka_offset")
+    private Long kafkaOffset;
+
+    @JsonProperty("correlation_id")
+    private UUID correlationId;
+
+    @JsonProperty("failed_at")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    private LocalDateTime failedAt;
+}
@@ -1,6 +1,8 @@
 package com.esocial.consumer.model.dto;
 
+import com.esocial.consumer.validation.format.DocumentFormats;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,6 +12,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -33,6 +36,11 @@ public class EmployeeEventDTO {
     @JsonProperty("correlation_id")
     private UUID correlationId; // Rastreabilidade
     
+    // eventIds absorvidos pela coalescência (EventCoalescer); vazio nos eventos do producer
+    @JsonProperty("coalesced_event_ids")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> coalescedEventIds;
+    
     // --- CPF e Documentos
     @JsonProperty("cpf")
     private String cpf;
@@ -129,6 +137,6 @@ public class EmployeeEventDTO {
     }
     
     public boolean isCpfValid() {
-        return cpf != null && cpf.matches("\\d{11}");
+        return DocumentFormats.isDigits(cpf, 11);
     }
 }
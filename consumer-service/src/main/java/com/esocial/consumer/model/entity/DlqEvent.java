@@ -45,6 +45,9 @@ public class DlqEvent {
     @Column(name = "stack_trace", columnDefinition = "TEXT")
     private String stackTrace;
     
+    @Column(name = "stack_trace_fingerprint", length = 64)
+    private String stackTraceFingerprint;
+    
     @Column(name = "retry_count")
     private Integer retryCount;
     
@@ -60,6 +63,9 @@ public class DlqEvent {
     @Column(name = "last_retry_at")
     private LocalDateTime lastRetryAt;
     
+    @Column(name = "next_retry_at")
+    private LocalDateTime nextRetryAt;
+    
     @Column(name = "resolved_at")
     private LocalDateTime resolvedAt;
     
@@ -25,13 +25,10 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "employee_events", schema = "public", indexes = {
-        @Index(name = "idx_employee_events_source_id", columnList = "source_id", unique = true),
-        @Index(name = "idx_employee_events_event_id", columnList = "event_id", unique = true),
-        @Index(name = "idx_employee_events_event_type", columnList = "event_type"),
+        @Index(name = "idx_employee_events_source_id", columnList = "source_id"),
+        @Index(name = "idx_employee_events_event_id", columnList = "event_id"),
         @Index(name = "idx_employee_events_status", columnList = "status"),
-        @Index(name = "idx_employee_events_kafka_offset", columnList = "kafka_offset"),
         @Index(name = "idx_employee_events_correlation_id", columnList = "correlation_id"),
-        @Index(name = "idx_employee_events_validation_executed_at", columnList = "validation_executed_at"),
         @Index(name = "idx_employee_events_created_at", columnList = "created_at")
 })
 @Data
@@ -44,10 +41,10 @@ public class EmployeeEvent {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(name = "source_id", length = 20, nullable = false, unique = true)
+    @Column(name = "source_id", length = 20, nullable = false)
     private String sourceId;
     
-    @Column(name = "event_id", length = 50, nullable = false, unique = true)
+    @Column(name = "event_id", length = 50, nullable = false)
     private String eventId;
     
     @Column(name = "correlation_id", nullable = false)
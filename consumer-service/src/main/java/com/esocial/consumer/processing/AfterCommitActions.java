@@ -0,0 +1,64 @@
+package com.esocial.consumer.processing;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Ações em memória (cache de dedup, índice de unicidade) aplicadas só após o commit.
+ *
+ * Uma sincronização registrada dentro de um savepoint (PROPAGATION_NESTED) pertence à
+ * transação externa e dispara no commit dela mesmo que o savepoint tenha sido desfeito.
+ * Por isso o código que usa savepoints executa cada um em {@link #collect(Runnable)}: as
+ * ações registradas ficam retidas e o chamador só as repassa com {@link #register(Runnable)}
+ * quando o savepoint foi confirmado; se o savepoint falha, elas são descartadas.
+ */
+public final class AfterCommitActions {
+
+    private static final ThreadLocal<Deque<List<Runnable>>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private AfterCommitActions() {
+    }
+
+    /**
+     * Executa a ação após o commit da transação corrente (na hora, sem transação), ou a
+     * retém no escopo aberto por {@link #collect(Runnable)}
+     */
+    public static void register(Runnable action) {
+        List<Runnable> scope = SCOPES.get().peek();
+        if (scope != null) {
+            scope.add(action);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Executa o trecho retendo as ações registradas nele; uma exceção descarta as ações
+     */
+    public static List<Runnable> collect(Runnable body) {
+        Deque<List<Runnable>> scopes = SCOPES.get();
+        List<Runnable> actions = new ArrayList<>();
+        scopes.push(actions);
+        try {
+            body.run();
+        } finally {
+            scopes.pop();
+            if (scopes.isEmpty()) {
+                SCOPES.remove();
+            }
+        }
+        return actions;
+    }
+}
@@ -0,0 +1,12 @@
+package com.esocial.consumer.processing;
+
+/**
+ * Evento já processado por outra entrega; a transação é desfeita e o registro
+ * é confirmado sem ir para a DLQ.
+ */
+public class DuplicateEventException extends RuntimeException {
+
+    public DuplicateEventException(String message) {
+        super(message);
+    }
+}
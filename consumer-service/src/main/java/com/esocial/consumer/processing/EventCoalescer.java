@@ -0,0 +1,226 @@
+package com.esocial.consumer.processing;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Coalescência de rajadas de alterações do mesmo colaborador dentro de um poll.
+ *
+ * UPDATEs consecutivos (S-2400/S-2405/S-2410) do mesmo sourceId na mesma partição são
+ * reduzidos ao último: cada evento carrega o estado completo e o upsert grava todas as
+ * colunas, então o estado final é idêntico ao de aplicar um a um. Qualquer outro evento do
+ * colaborador (admissão, desligamento) fecha o grupo, e o grupo também fecha ao exceder
+ * {@code window-ms} (timestamp do registro) ou {@code max-events}. Os eventIds absorvidos
+ * seguem no evento sobrevivente (coalescedEventIds) e são gravados em processed_events
+ * junto com ele. A ordem relativa dos eventos de cada colaborador é preservada.
+ *
+ * Se o sobrevivente for reprovado na validação, {@link Coalesced#fallback} desfaz o grupo:
+ * o sobrevivente vai para a DLQ só com o próprio eventId e os absorvidos são validados e
+ * gravados individualmente, como se a coalescência estivesse desligada (o último válido
+ * define o estado final).
+ */
+@Slf4j
+@Component
+public class EventCoalescer {
+
+    private static final Set<String> COALESCIBLE_TYPES = Set.of("S-2400", "S-2405", "S-2410");
+
+    private final boolean enabled;
+    private final long windowMs;
+    private final int maxEvents;
+    private final Counter coalescedCounter;
+
+    /**
+     * Resultado de {@link #coalesce}: registros a processar e, por sobrevivente, os registros
+     * que ele absorveu e os eventIds que já carregava antes da coalescência
+     */
+    public static final class Coalesced {
+
+        private final List<ConsumerRecord<String, EmployeeEventDTO>> original;
+        private final List<ConsumerRecord<String, EmployeeEventDTO>> records;
+        private final Map<ConsumerRecord<String, EmployeeEventDTO>, Absorption> absorptions;
+
+        private Coalesced(List<ConsumerRecord<String, EmployeeEventDTO>> original,
+                          List<ConsumerRecord<String, EmployeeEventDTO>> records,
+                          Map<ConsumerRecord<String, EmployeeEventDTO>, Absorption> absorptions) {
+            this.original = original;
+            this.records = records;
+            this.absorptions = absorptions;
+        }
+
+        public List<ConsumerRecord<String, EmployeeEventDTO>> records() {
+            return records;
+        }
+
+        /**
+         * Desfaz a coalescência do sobrevivente: volta a carregar só os eventIds que já trazia
+         * (reentrega da DLQ) e os registros absorvidos são devolvidos na ordem original para
+         * serem processados individualmente. Lista vazia se o registro não absorveu nenhum.
+         */
+        public List<ConsumerRecord<String, EmployeeEventDTO>> fallback(ConsumerRecord<String, EmployeeEventDTO> survivor) {
+            Absorption absorption = absorptions.remove(survivor);
+            if (absorption == null) {
+                return List.of();
+            }
+            survivor.value().setCoalescedEventIds(absorption.ownIds());
+            log.info("Evento {} reprovado, {} alterações absorvidas do colaborador {} processadas individualmente",
+                    survivor.value().getEventId(), absorption.records().size(), survivor.value().getSourceId());
+            return absorption.records();
+        }
+
+        /**
+         * Os registros informados (deste poll) na ordem original do poll
+         */
+        public List<ConsumerRecord<String, EmployeeEventDTO>> inOriginalOrder(
+                Collection<ConsumerRecord<String, EmployeeEventDTO>> subset) {
+            Set<ConsumerRecord<String, EmployeeEventDTO>> members = Collections.newSetFromMap(new IdentityHashMap<>());
+            members.addAll(subset);
+            List<ConsumerRecord<String, EmployeeEventDTO>> ordered = new ArrayList<>(subset.size());
+            for (ConsumerRecord<String, EmployeeEventDTO> record : original) {
+                if (members.contains(record)) {
+                    ordered.add(record);
+                }
+            }
+            return ordered;
+        }
+    }
+
+    private record Absorption(List<ConsumerRecord<String, EmployeeEventDTO>> records, List<String> ownIds) {
+    }
+
+    /**
+     * Grupo aberto de um colaborador: posição do evento sobrevivente até aqui
+     */
+    private static final class Group {
+        final String topic;
+        final int partition;
+        final long firstTimestamp;
+        int survivor;
+        int size = 1;
+        final List<String> absorbedIds = new ArrayList<>();
+        final List<ConsumerRecord<String, EmployeeEventDTO>> absorbedRecords = new ArrayList<>();
+
+        Group(ConsumerRecord<String, EmployeeEventDTO> record, int index) {
+            this.topic = record.topic();
+            this.partition = record.partition();
+            this.firstTimestamp = record.timestamp();
+            this.survivor = index;
+        }
+
+        boolean accepts(ConsumerRecord<String, EmployeeEventDTO> record, long windowMs, int maxEvents) {
+            return topic.equals(record.topic())
+                    && partition == record.partition()
+                    && size < maxEvents
+                    && record.timestamp() - firstTimestamp <= windowMs;
+        }
+    }
+
+    public EventCoalescer(MeterRegistry meterRegistry,
+                          @Value("${app.kafka.listener.coalescing.enabled:false}") boolean enabled,
+                          @Value("${app.kafka.listener.coalescing.window-ms:5000}") long windowMs,
+                          @Value("${app.kafka.listener.coalescing.max-events:50}") int maxEvents) {
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+        this.maxEvents = maxEvents;
+        this.coalescedCounter = Counter.builder("events.coalesced")
+                .description("Alterações absorvidas por um UPDATE posterior do mesmo colaborador")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registros do poll sem os UPDATEs absorvidos, na ordem original
+     */
+    public Coalesced coalesce(List<ConsumerRecord<String, EmployeeEventDTO>> records) {
+        if (!enabled || records.size() < 2) {
+            return new Coalesced(records, records, new IdentityHashMap<>());
+        }
+
+        boolean[] absorbed = new boolean[records.size()];
+        Map<String, Group> open = new HashMap<>();
+        List<Group> groups = new ArrayList<>();
+
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, EmployeeEventDTO> record = records.get(i);
+            EmployeeEventDTO event = record.value();
+            String sourceId = event.getSourceId();
+            if (sourceId == null) {
+                continue;
+            }
+
+            if (!COALESCIBLE_TYPES.contains(event.getEventType())) {
+                // Admissão/desligamento: limite que nenhum UPDATE atravessa
+                open.remove(sourceId);
+                continue;
+            }
+
+            Group group = open.get(sourceId);
+            if (group != null && group.accepts(record, windowMs, maxEvents)) {
+                absorbed[group.survivor] = true;
+                group.absorbedRecords.add(records.get(group.survivor));
+                addAbsorbed(group.absorbedIds, records.get(group.survivor).value());
+                group.survivor = i;
+                group.size++;
+            } else {
+                group = new Group(record, i);
+                open.put(sourceId, group);
+                groups.add(group);
+            }
+        }
+
+        List<ConsumerRecord<String, EmployeeEventDTO>> survivors = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            if (!absorbed[i]) {
+                survivors.add(records.get(i));
+            }
+        }
+        if (survivors.size() == records.size()) {
+            return new Coalesced(records, records, new IdentityHashMap<>());
+        }
+
+        Map<ConsumerRecord<String, EmployeeEventDTO>, Absorption> absorptions = new IdentityHashMap<>();
+        for (Group group : groups) {
+            if (group.size > 1) {
+                ConsumerRecord<String, EmployeeEventDTO> survivorRecord = records.get(group.survivor);
+                EmployeeEventDTO survivor = survivorRecord.value();
+                List<String> ownIds = survivor.getCoalescedEventIds();
+                if (ownIds != null) {
+                    group.absorbedIds.addAll(ownIds);
+                }
+                absorptions.put(survivorRecord, new Absorption(List.copyOf(group.absorbedRecords), ownIds));
+                survivor.setCoalescedEventIds(group.absorbedIds);
+                log.debug("Evento {} absorveu {} alterações do colaborador {}",
+                        survivor.getEventId(), group.absorbedIds.size(), survivor.getSourceId());
+            }
+        }
+
+        coalescedCounter.increment(records.size() - survivors.size());
+        return new Coalesced(records, survivors, absorptions);
+    }
+
+    /**
+     * eventId do evento absorvido e os que ele próprio já havia absorvido (reentrega da DLQ)
+     */
+    private static void addAbsorbed(List<String> absorbedIds, EmployeeEventDTO event) {
+        if (event.getEventId() != null) {
+            absorbedIds.add(event.getEventId());
+        }
+        if (event.getCoalescedEventIds() != null) {
+            absorbedIds.addAll(event.getCoalescedEventIds());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.esocial.consumer.processing;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consumer idempotente por eventId.
+ *
+ * - Cache limitado com os eventIds confirmados recentemente: uma reentrega após
+ *   rebalance é descartada sem validação nem acesso ao banco. Sem lock global:
+ *   ConcurrentHashMap para a consulta e fila FIFO para descartar os mais antigos.
+ * - Por registro (listeners simples e paralelo), sem acerto no cache o evento segue
+ *   direto para o processamento: a inserção em processed_events (ON CONFLICT) na
+ *   transação da persistência detecta a duplicata, sem um SELECT prévio por evento.
+ * - No modo batch, os eventIds fora do cache são verificados em uma única consulta
+ *   para o poll inteiro.
+ * - O cache só é atualizado após o commit.
+ */
+@Slf4j
+@Component
+public class EventDeduplicator {
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int cacheSize;
+    private final Set<String> recent = ConcurrentHashMap.newKeySet();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger cached = new AtomicInteger();
+    private final Counter duplicatesCounter;
+
+    @Autowired
+    public EventDeduplicator(ProcessedEventRepository processedEventRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.dedup.enabled:true}") boolean enabled,
+                             @Value("${app.dedup.cache-size:100000}") int cacheSize,
+                             @Value("${app.dedup.retention-days:30}") int retentionDays) {
+        this.processedEventRepository = processedEventRepository;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.cacheSize = cacheSize;
+        this.duplicatesCounter = Counter.builder("events.duplicates")
+                .description("Eventos reentregues descartados pelo consumer idempotente")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * true se o evento foi confirmado recentemente (só o cache). Uma duplicata fora do
+     * cache é detectada pelo conflito em processed_events durante a persistência.
+     */
+    public boolean isDuplicate(EmployeeEventDTO event) {
+        String eventId = event.getEventId();
+        if (!enabled || eventId == null) {
+            return false;
+        }
+        if (isCached(eventId)) {
+            duplicatesCounter.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove do lote os eventos já processados e os eventIds repetidos no próprio poll
+     */
+    public List<ConsumerRecord<String, EmployeeEventDTO>> filterDuplicates(
+            List<ConsumerRecord<String, EmployeeEventDTO>> records) {
+        if (!enabled || records.isEmpty()) {
+            return records;
+        }
+
+        Set<String> misses = new HashSet<>();
+        for (ConsumerRecord<String, EmployeeEventDTO> record : records) {
+            String eventId = record.value().getEventId();
+            if (eventId != null && !isCached(eventId)) {
+                misses.add(eventId);
+            }
+        }
+        Set<String> persisted = processedEventRepository.findExisting(misses);
+
+        List<ConsumerRecord<String, EmployeeEventDTO>> unique = new ArrayList<>(records.size());
+        Set<String> seen = new HashSet<>();
+        for (ConsumerRecord<String, EmployeeEventDTO> record : records) {
+            String eventId = record.value().getEventId();
+            if (eventId == null) {
+                unique.add(record);
+                continue;
+            }
+
+            boolean processed = !misses.contains(eventId) || persisted.contains(eventId);
+            if (processed || !seen.add(eventId)) {
+                log.info("Evento duplicado descartado: eventId={}, partition={}, offset={}",
+                        eventId, record.partition(), record.offset());
+                if (processed) {
+                    remember(eventId);
+                }
+                duplicatesCounter.increment();
+            } else {
+                unique.add(record);
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Registra o eventId no cache quando a transação atual confirmar
+     */
+    public void recordAfterCommit(String eventId) {
+        if (!enabled || eventId == null) {
+            return;
+        }
+        AfterCommitActions.register(() -> remember(eventId));
+    }
+
+    /**
+     * Conta uma duplicata detectada na gravação (conflito em processed_events)
+     */
+    public void recordDuplicate(String eventId) {
+        remember(eventId);
+        duplicatesCounter.increment();
+    }
+
+    /**
+     * Remove de processed_events os registros além da retenção
+     */
+    @Scheduled(cron = "${app.dedup.cleanup-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        int removed = processedEventRepository.deleteProcessedBefore(LocalDateTime.now().minusDays(retentionDays));
+        log.info("Limpeza de processed_events: {} registros com mais de {} dias removidos", removed, retentionDays);
+    }
+
+    private boolean isCached(String eventId) {
+        return recent.contains(eventId);
+    }
+
+    /**
+     * Inclui o eventId e descarta os mais antigos (ordem de inserção) além do limite
+     */
+    private void remember(String eventId) {
+        if (!recent.add(eventId)) {
+            return;
+        }
+        insertionOrder.offer(eventId);
+        if (cached.incrementAndGet() > cacheSize) {
+            String eldest = insertionOrder.poll();
+            if (eldest != null) {
+                recent.remove(eldest);
+                cached.decrementAndGet();
+            }
+        }
+    }
+}
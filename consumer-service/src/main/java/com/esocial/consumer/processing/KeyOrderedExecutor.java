@@ -0,0 +1,90 @@
+package com.esocial.consumer.processing;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de workers ordenado por chave: cada chave (sourceId) cai sempre na mesma fila,
+ * processada por uma única virtual thread. Eventos do mesmo colaborador seguem a ordem
+ * de chegada; colaboradores diferentes são processados em paralelo.
+ *
+ * Só cria os workers quando app.kafka.listener.parallel.enabled=true.
+ */
+@Slf4j
+@Component
+public class KeyOrderedExecutor {
+
+    private final ExecutorService[] lanes;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public KeyOrderedExecutor(@Value("${app.kafka.listener.parallel.enabled:false}") boolean enabled,
+                              @Value("${app.kafka.listener.parallel.workers:16}") int workers) {
+        if (!enabled) {
+            this.lanes = new ExecutorService[0];
+            return;
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("app.kafka.listener.parallel.workers deve ser >= 1: " + workers);
+        }
+        this.lanes = new ExecutorService[workers];
+        for (int i = 0; i < workers; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("consumer-worker-" + i).factory());
+        }
+        log.info("Processamento paralelo ordenado por chave habilitado: {} workers", workers);
+    }
+
+    /**
+     * Enfileira a tarefa na fila da chave. Chave nula vai para a primeira fila.
+     */
+    public void execute(String key, Runnable task) {
+        if (lanes.length == 0) {
+            throw new IllegalStateException("Processamento paralelo desabilitado (app.kafka.listener.parallel.enabled)");
+        }
+        pending.incrementAndGet();
+        lanes[laneOf(key)].execute(() -> {
+            try {
+                task.run();
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+    }
+
+    int laneOf(String key) {
+        return key == null ? 0 : Math.floorMod(key.hashCode(), lanes.length);
+    }
+
+    /**
+     * Tarefas enfileiradas ou em execução
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    public int workers() {
+        return lanes.length;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            for (ExecutorService lane : lanes) {
+                if (!lane.awaitTermination(30, TimeUnit.SECONDS)) {
+                    lane.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.esocial.consumer.repository;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offsets do modo exactly-once em public.consumer_offsets.
+ *
+ * saveOffsets deve rodar na transação que grava os eventos do lote: o offset só avança
+ * junto com os dados, e um restart continua exatamente do último lote commitado.
+ */
+@Repository
+public class ConsumerOffsetRepository {
+
+    private static final String SELECT_SQL =
+            "SELECT topic, kafka_partition, next_offset FROM public.consumer_offsets WHERE group_id = ?";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO public.consumer_offsets (group_id, topic, kafka_partition, next_offset, updated_at) " +
+            "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP) ON CONFLICT (group_id, topic, kafka_partition) " +
+            "DO UPDATE SET next_offset = EXCLUDED.next_offset, updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ConsumerOffsetRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Próximo offset gravado de cada partição informada (partições sem registro ficam de fora)
+     */
+    public Map<TopicPartition, Long> findOffsets(String groupId, Collection<TopicPartition> partitions) {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            TopicPartition partition = new TopicPartition(rs.getString("topic"), rs.getInt("kafka_partition"));
+            if (partitions.contains(partition)) {
+                offsets.put(partition, rs.getLong("next_offset"));
+            }
+        }, groupId);
+        return offsets;
+    }
+
+    public void saveOffsets(String groupId, Map<TopicPartition, Long> nextOffsets) {
+        if (nextOffsets.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<TopicPartition, Long>> entries = List.copyOf(nextOffsets.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, groupId);
+            ps.setString(2, entry.getKey().topic());
+            ps.setInt(3, entry.getKey().partition());
+            ps.setLong(4, entry.getValue());
+        });
+    }
+}
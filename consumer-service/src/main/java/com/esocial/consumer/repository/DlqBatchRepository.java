@@ -0,0 +1,156 @@
+package com.esocial.consumer.repository;
+
+import com.esocial.consumer.model.dto.DlqMessageDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Escrita em lote da DLQ via JDBC (batchUpdate).
+ *
+ * Cada stack trace distinta é gravada uma vez em public.dlq_stack_traces (contando as
+ * ocorrências); as linhas de public.dlq_events guardam apenas o fingerprint.
+ *
+ * Um evento que volta para a DLQ depois de republicado pelo replay reabre a linha existente
+ * (RETRIED ou ainda REPROCESSING) com retry_count + 1, em vez de criar uma linha nova com
+ * retry_count zerado; ao atingir max_retries a linha vira FAILED e o replay para.
+ */
+@Repository
+public class DlqBatchRepository {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private static final String UPSERT_STACK_TRACE_SQL =
+            "INSERT INTO public.dlq_stack_traces (fingerprint, exception_class, stack_trace, occurrences) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT (fingerprint) DO UPDATE SET " +
+            "occurrences = dlq_stack_traces.occurrences + EXCLUDED.occurrences, last_seen_at = CURRENT_TIMESTAMP";
+
+    private static final String REOPEN_EVENT_SQL =
+            "UPDATE public.dlq_events SET retry_count = retry_count + 1, " +
+            "status = CASE WHEN retry_count + 1 >= max_retries THEN 'FAILED' ELSE 'PENDING' END, " +
+            "error_message = ?, stack_trace_fingerprint = ?, kafka_offset = ?, kafka_partition = ? " +
+            "WHERE id = (SELECT id FROM public.dlq_events WHERE event_id = ? " +
+            "AND status IN ('RETRIED', 'REPROCESSING') ORDER BY id DESC LIMIT 1)";
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO public.dlq_events (event_id, event_type, source_table, source_id, event_payload, " +
+            "error_message, stack_trace_fingerprint, retry_count, max_retries, status, created_at, " +
+            "kafka_offset, kafka_partition, kafka_topic, correlation_id) " +
+            "VALUES (?, ?, ?, ?, ?::jsonb, ?, ?, 0, 3, 'PENDING', ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DlqBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Grava as stack traces (uma linha por fingerprint do lote) e os eventos da DLQ
+     */
+    public void insertAll(List<DlqMessageDTO> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Map<String, StackTraceOccurrences> traces = new LinkedHashMap<>();
+        for (DlqMessageDTO message : messages) {
+            if (message.getStackTraceFingerprint() != null) {
+                traces.computeIfAbsent(message.getStackTraceFingerprint(),
+                        fp -> new StackTraceOccurrences(message.getExceptionClass(), message.getStackTrace()))
+                        .count++;
+            }
+        }
+
+        if (!traces.isEmpty()) {
+            List<Map.Entry<String, StackTraceOccurrences>> entries = new ArrayList<>(traces.entrySet());
+            jdbcTemplate.batchUpdate(UPSERT_STACK_TRACE_SQL, entries, entries.size(), (ps, entry) -> {
+                ps.setString(1, entry.getKey());
+                ps.setString(2, entry.getValue().exceptionClass);
+                ps.setString(3, entry.getValue().stackTrace != null ? entry.getValue().stackTrace : "");
+                ps.setLong(4, entry.getValue().count);
+            });
+        }
+
+        List<DlqMessageDTO> newEvents = reopenReplayed(messages);
+        if (newEvents.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, newEvents, newEvents.size(), (ps, message) -> {
+            LocalDateTime failedAt = message.getFailedAt() != null ? message.getFailedAt() : LocalDateTime.now();
+            // event_id e event_type são NOT NULL; uma linha inválida não pode travar o lote
+            ps.setString(1, Objects.requireNonNullElse(message.getEventId(), UNKNOWN));
+            ps.setString(2, Objects.requireNonNullElse(message.getEventType(), UNKNOWN));
+            ps.setString(3, message.getSourceTable());
+            ps.setString(4, message.getSourceId());
+            ps.setString(5, Objects.requireNonNullElse(message.getEventPayload(), "{}"));
+            ps.setString(6, message.getErrorMessage());
+            ps.setString(7, message.getStackTraceFingerprint());
+            ps.setTimestamp(8, Timestamp.valueOf(failedAt));
+            ps.setObject(9, message.getKafkaOffset());
+            ps.setObject(10, message.getKafkaPartition());
+            ps.setString(11, message.getKafkaTopic());
+            ps.setObject(12, message.getCorrelationId());
+        });
+    }
+
+    /**
+     * Reabre as linhas dos eventos que voltaram do replay; retorna as mensagens sem linha a reabrir
+     */
+    private List<DlqMessageDTO> reopenReplayed(List<DlqMessageDTO> messages) {
+        List<DlqMessageDTO> candidates = messages.stream()
+                .filter(message -> message.getEventId() != null)
+                .toList();
+        if (candidates.isEmpty()) {
+            return messages;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(REOPEN_EVENT_SQL, candidates, candidates.size(), (ps, message) -> {
+            ps.setString(1, message.getErrorMessage());
+            ps.setString(2, message.getStackTraceFingerprint());
+            ps.setObject(3, message.getKafkaOffset());
+            ps.setObject(4, message.getKafkaPartition());
+            ps.setString(5, message.getEventId());
+        });
+
+        Set<DlqMessageDTO> reopened = Collections.newSetFromMap(new IdentityHashMap<>());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0) {
+                    reopened.add(candidates.get(index));
+                }
+                index++;
+            }
+        }
+
+        List<DlqMessageDTO> remaining = new ArrayList<>(messages.size() - reopened.size());
+        for (DlqMessageDTO message : messages) {
+            if (!reopened.contains(message)) {
+                remaining.add(message);
+            }
+        }
+        return remaining;
+    }
+
+    private static final class StackTraceOccurrences {
+        private final String exceptionClass;
+        private final String stackTrace;
+        private long count;
+
+        private StackTraceOccurrences(String exceptionClass, String stackTrace) {
+            this.exceptionClass = exceptionClass;
+            this.stackTrace = stackTrace;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.esocial.consumer.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Claim e atualização em lote dos eventos da DLQ para o replay.
+ *
+ * O claim marca a página como REPROCESSING em um único comando (FOR UPDATE SKIP LOCKED),
+ * então várias instâncias do consumer podem fazer replay sem disputar as mesmas linhas.
+ * next_retry_at funciona como lease: uma linha REPROCESSING cuja instância caiu volta a
+ * ser elegível quando o lease vence.
+ *
+ * Uma linha republicada fica RETRIED com a próxima tentativa já agendada (backoff); se o
+ * evento voltar a falhar, o DlqBatchRepository reabre essa linha (retry_count + 1) em vez
+ * de criar outra, e ao atingir max_retries ela vira FAILED.
+ */
+@Repository
+public class DlqReplayRepository {
+
+    private static final String CLAIM_SQL =
+            "WITH due AS ( " +
+            "SELECT id FROM public.dlq_events " +
+            "WHERE status IN ('PENDING', 'REPROCESSING') AND retry_count < ? " +
+            "AND (next_retry_at IS NULL OR next_retry_at <= now()) " +
+            "ORDER BY next_retry_at NULLS FIRST, id LIMIT ? FOR UPDATE SKIP LOCKED ) " +
+            "UPDATE public.dlq_events d SET status = 'REPROCESSING', last_retry_at = now(), max_retries = ?, " +
+            "next_retry_at = now() + make_interval(secs => ?) " +
+            "FROM due WHERE d.id = due.id " +
+            "RETURNING d.id, d.event_id, d.source_id, d.event_payload::text AS event_payload, d.kafka_topic, " +
+            "d.retry_count, d.correlation_id";
+
+    private static final String MARK_RETRIED_SQL =
+            "UPDATE public.dlq_events SET status = 'RETRIED', next_retry_at = ? " +
+            "WHERE id = ? AND status = 'REPROCESSING'";
+
+    private static final String SCHEDULE_RETRY_SQL =
+            "UPDATE public.dlq_events SET retry_count = retry_count + 1, next_retry_at = ?, " +
+            "status = CASE WHEN retry_count + 1 >= ? THEN 'FAILED' ELSE 'PENDING' END WHERE id = ?";
+
+    /**
+     * Linha reivindicada para replay
+     */
+    public record ClaimedDlqEvent(Long id, String eventId, String sourceId, String eventPayload,
+                                  String kafkaTopic, int retryCount, UUID correlationId) {
+    }
+
+    /**
+     * Próxima tentativa de uma linha: do envio que falhou ou, para uma linha republicada,
+     * de quando o evento voltar para a DLQ
+     */
+    public record RetrySchedule(Long id, LocalDateTime nextRetryAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DlqReplayRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<ClaimedDlqEvent> claimDue(int maxRetries, int pageSize, long leaseSeconds) {
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new ClaimedDlqEvent(
+                rs.getLong("id"),
+                rs.getString("event_id"),
+                rs.getString("source_id"),
+                rs.getString("event_payload"),
+                rs.getString("kafka_topic"),
+                rs.getInt("retry_count"),
+                rs.getObject("correlation_id", UUID.class)),
+                maxRetries, pageSize, maxRetries, leaseSeconds);
+    }
+
+    /**
+     * Marca como RETRIED as linhas republicadas; uma linha já reaberta pela volta do evento
+     * à DLQ (não está mais REPROCESSING) não é alterada
+     */
+    public void markRetried(List<RetrySchedule> schedules) {
+        if (schedules.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MARK_RETRIED_SQL, schedules, schedules.size(), (ps, schedule) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(schedule.nextRetryAt()));
+            ps.setLong(2, schedule.id());
+        });
+    }
+
+    /**
+     * Incrementa retry_count e agenda a próxima tentativa; ao atingir maxRetries a linha vira FAILED
+     */
+    public void scheduleRetries(List<RetrySchedule> schedules, int maxRetries) {
+        if (schedules.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(SCHEDULE_RETRY_SQL, schedules, schedules.size(), (ps, schedule) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(schedule.nextRetryAt()));
+            ps.setInt(2, maxRetries);
+            ps.setLong(3, schedule.id());
+        });
+    }
+}
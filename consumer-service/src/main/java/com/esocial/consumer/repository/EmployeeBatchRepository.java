@@ -0,0 +1,298 @@
+package com.esocial.consumer.repository;
+
+import com.esocial.consumer.model.entity.Employee;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Escrita em lote de colaboradores via JDBC.
+ *
+ * Cada comando é um INSERT/UPDATE multi-linha encadeado (CTE) com o INSERT em
+ * audit.employees_history, de modo que colaborador e histórico são gravados em
+ * um único round trip. O IDENTITY das entidades JPA impede o batching do Hibernate,
+ * por isso este caminho usa SQL nativo.
+ *
+ * Um mesmo comando não pode conter dois registros com o mesmo source_id
+ * (restrição do ON CONFLICT DO UPDATE); o chamador deve separar as ocorrências.
+ *
+ * O caminho por evento (upsertWithHistory/softDeleteWithHistory) usa o mesmo SQL com
+ * uma linha e devolve a linha anterior e a nova, sem SELECT prévio.
+ *
+ * Atualizações sem mudança nos campos de negócio (ex.: só updated_at na origem) não
+ * alteram a linha, não incrementam a versão e não geram histórico.
+ */
+@Slf4j
+@Repository
+public class EmployeeBatchRepository {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private static final String HISTORY_COLUMNS =
+            "employee_id, source_id, cpf, pis, full_name, birth_date, admission_date, termination_date, " +
+            "job_title, department, salary, status, version, operation, changed_by, kafka_offset, correlation_id";
+
+    private static final String HISTORY_SELECT =
+            "id, source_id, cpf, pis, full_name, birth_date, admission_date, termination_date, " +
+            "job_title, department, salary, status, version";
+
+    private static final String UPSERT_INSERT =
+            "INSERT INTO public.employees (source_id, cpf, pis, full_name, birth_date, admission_date, " +
+            "termination_date, job_title, department, salary, status, created_by, updated_by, " +
+            "kafka_offset, kafka_partition, kafka_topic, correlation_id) VALUES ";
+
+    private static final String UPSERT_PREFIX = "WITH upserted AS ( " + UPSERT_INSERT;
+
+    private static final String UPSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, COALESCE(?, 'ACTIVE'), ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_ON_CONFLICT =
+            " ON CONFLICT (source_id) DO UPDATE SET " +
+            "cpf = EXCLUDED.cpf, pis = EXCLUDED.pis, full_name = EXCLUDED.full_name, " +
+            "birth_date = EXCLUDED.birth_date, admission_date = EXCLUDED.admission_date, " +
+            "termination_date = EXCLUDED.termination_date, job_title = EXCLUDED.job_title, " +
+            "department = EXCLUDED.department, salary = EXCLUDED.salary, status = EXCLUDED.status, " +
+            "updated_by = EXCLUDED.updated_by, kafka_offset = EXCLUDED.kafka_offset, " +
+            "kafka_partition = EXCLUDED.kafka_partition, kafka_topic = EXCLUDED.kafka_topic, " +
+            "correlation_id = EXCLUDED.correlation_id, version = COALESCE(employees.version, 0) + 1 " +
+            "WHERE (employees.cpf, employees.pis, employees.full_name, employees.birth_date, " +
+            "employees.admission_date, employees.termination_date, employees.job_title, " +
+            "employees.department, employees.salary, employees.status) IS DISTINCT FROM " +
+            "(EXCLUDED.cpf, EXCLUDED.pis, EXCLUDED.full_name, EXCLUDED.birth_date, " +
+            "EXCLUDED.admission_date, EXCLUDED.termination_date, EXCLUDED.job_title, " +
+            "EXCLUDED.department, EXCLUDED.salary, EXCLUDED.status) ";
+
+    private static final String UPSERT_SUFFIX = UPSERT_ON_CONFLICT +
+            "RETURNING " + HISTORY_SELECT + ", kafka_offset, correlation_id, (xmax = 0) AS inserted ) " +
+            "INSERT INTO audit.employees_history (" + HISTORY_COLUMNS + ") " +
+            "SELECT " + HISTORY_SELECT + ", CASE WHEN inserted THEN 'INSERT' ELSE 'UPDATE' END, 'system', " +
+            "kafka_offset, correlation_id FROM upserted RETURNING operation";
+
+    private static final String SOFT_DELETE_PREFIX =
+            "WITH deleted AS ( " +
+            "UPDATE public.employees e SET status = 'INACTIVE', termination_date = v.termination_date, " +
+            "kafka_offset = v.kafka_offset, kafka_partition = v.kafka_partition, kafka_topic = v.kafka_topic, " +
+            "updated_by = 'system', version = COALESCE(e.version, 0) + 1 FROM (VALUES ";
+
+    private static final String SOFT_DELETE_ROW = "(?::varchar, ?::date, ?::bigint, ?::integer, ?::varchar)";
+
+    private static final String SOFT_DELETE_SUFFIX =
+            ") AS v(source_id, termination_date, kafka_offset, kafka_partition, kafka_topic) " +
+            "WHERE e.source_id = v.source_id RETURNING e.* ) " +
+            "INSERT INTO audit.employees_history (" + HISTORY_COLUMNS + ") " +
+            "SELECT " + HISTORY_SELECT + ", 'DELETE', 'system', kafka_offset, correlation_id " +
+            "FROM deleted RETURNING operation";
+
+    /*
+     * Caminho por evento: um único comando lê a linha anterior (CTE previous, mesmo snapshot),
+     * faz o upsert/soft delete, grava o histórico e devolve a linha antiga e a nova.
+     */
+    private static final String PREVIOUS_CTE =
+            "WITH previous AS ( SELECT id, status, version FROM public.employees WHERE source_id = ? ), ";
+
+    private static final String WRITE_RESULT_SELECT =
+            "SELECT w.id, w.version, w.operation, p.status AS previous_status, p.version AS previous_version " +
+            "FROM written w LEFT JOIN previous p ON true";
+
+    private static final String UPSERT_ONE_SQL = PREVIOUS_CTE +
+            "upserted AS ( " +
+            UPSERT_INSERT + UPSERT_ROW + UPSERT_ON_CONFLICT +
+            "RETURNING " + HISTORY_SELECT + ", kafka_offset, correlation_id, " +
+            "CASE WHEN xmax = 0 THEN 'INSERT' ELSE 'UPDATE' END AS operation ), " +
+            "written AS ( INSERT INTO audit.employees_history (" + HISTORY_COLUMNS + ") " +
+            "SELECT " + HISTORY_SELECT + ", operation, 'system', kafka_offset, correlation_id " +
+            "FROM upserted RETURNING employee_id AS id, version, operation ) " +
+            WRITE_RESULT_SELECT;
+
+    private static final String SOFT_DELETE_ONE_SQL = PREVIOUS_CTE +
+            "deleted AS ( " +
+            "UPDATE public.employees e SET status = 'INACTIVE', termination_date = ?, " +
+            "kafka_offset = ?, kafka_partition = ?, kafka_topic = ?, " +
+            "updated_by = 'system', version = COALESCE(e.version, 0) + 1 " +
+            "WHERE e.source_id = ? RETURNING e.* ), " +
+            "written AS ( INSERT INTO audit.employees_history (" + HISTORY_COLUMNS + ") " +
+            "SELECT " + HISTORY_SELECT + ", 'DELETE', 'system', kafka_offset, correlation_id " +
+            "FROM deleted RETURNING employee_id AS id, version, operation ) " +
+            WRITE_RESULT_SELECT;
+
+    /**
+     * Resultado da escrita de um colaborador: operação (INSERT/UPDATE/DELETE, ou UNCHANGED
+     * quando nada foi gravado), linha nova (id, version) e a linha anterior
+     * (status e version; nulos se não existia).
+     */
+    public record WriteResult(String operation, Long id, Integer version,
+                              String previousStatus, Integer previousVersion) {
+
+        static final WriteResult UNCHANGED = new WriteResult("UNCHANGED", null, null, null, null);
+
+        public boolean isInsert() {
+            return "INSERT".equals(operation);
+        }
+
+        public boolean isUnchanged() {
+            return "UNCHANGED".equals(operation);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insere ou atualiza (ON CONFLICT source_id) os colaboradores e grava o histórico.
+     * Retorna a quantidade de linhas por operação (INSERT/UPDATE); colaboradores sem
+     * mudança não entram na contagem.
+     */
+    public Map<String, Integer> upsertAllWithHistory(List<Employee> employees) {
+        Map<String, Integer> written = new HashMap<>();
+
+        for (int from = 0; from < employees.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Employee> chunk = employees.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, employees.size()));
+            String sql = buildSql(UPSERT_PREFIX, UPSERT_ROW, chunk.size(), UPSERT_SUFFIX);
+
+            countOperations(sql, ps -> {
+                int i = 1;
+                for (Employee employee : chunk) {
+                    ps.setObject(i++, employee.getSourceId());
+                    ps.setObject(i++, employee.getCpf());
+                    ps.setObject(i++, employee.getPis());
+                    ps.setObject(i++, employee.getFullName());
+                    ps.setObject(i++, employee.getBirthDate());
+                    ps.setObject(i++, employee.getAdmissionDate());
+                    ps.setObject(i++, employee.getTerminationDate());
+                    ps.setObject(i++, employee.getJobTitle());
+                    ps.setObject(i++, employee.getDepartment());
+                    ps.setObject(i++, employee.getSalary());
+                    ps.setObject(i++, employee.getStatus());
+                    ps.setObject(i++, employee.getCreatedBy());
+                    ps.setObject(i++, employee.getUpdatedBy());
+                    ps.setObject(i++, employee.getKafkaOffset());
+                    ps.setObject(i++, employee.getKafkaPartition());
+                    ps.setObject(i++, employee.getKafkaTopic());
+                    ps.setObject(i++, employee.getCorrelationId());
+                }
+            }, written);
+        }
+
+        log.debug("Upsert em lote concluído: {} registros, operações={}", employees.size(), written);
+        return written;
+    }
+
+    /**
+     * Marca os colaboradores como INACTIVE (soft delete) e grava o histórico.
+     * Colaboradores inexistentes são ignorados; o retorno indica quantos foram afetados.
+     */
+    public int softDeleteAllWithHistory(List<Employee> employees) {
+        Map<String, Integer> written = new HashMap<>();
+
+        for (int from = 0; from < employees.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Employee> chunk = employees.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, employees.size()));
+            String sql = buildSql(SOFT_DELETE_PREFIX, SOFT_DELETE_ROW, chunk.size(), SOFT_DELETE_SUFFIX);
+
+            countOperations(sql, ps -> {
+                int i = 1;
+                for (Employee employee : chunk) {
+                    ps.setObject(i++, employee.getSourceId());
+                    ps.setObject(i++, employee.getTerminationDate());
+                    ps.setObject(i++, employee.getKafkaOffset());
+                    ps.setObject(i++, employee.getKafkaPartition());
+                    ps.setObject(i++, employee.getKafkaTopic());
+                }
+            }, written);
+        }
+
+        return written.getOrDefault("DELETE", 0);
+    }
+
+    /**
+     * Insere ou atualiza um colaborador e grava o histórico em um único round trip.
+     * UNCHANGED se os campos de negócio são iguais aos gravados.
+     */
+    public WriteResult upsertWithHistory(Employee employee) {
+        List<WriteResult> results = jdbcTemplate.query(UPSERT_ONE_SQL, ps -> {
+            int i = 1;
+            ps.setObject(i++, employee.getSourceId());
+            ps.setObject(i++, employee.getSourceId());
+            ps.setObject(i++, employee.getCpf());
+            ps.setObject(i++, employee.getPis());
+            ps.setObject(i++, employee.getFullName());
+            ps.setObject(i++, employee.getBirthDate());
+            ps.setObject(i++, employee.getAdmissionDate());
+            ps.setObject(i++, employee.getTerminationDate());
+            ps.setObject(i++, employee.getJobTitle());
+            ps.setObject(i++, employee.getDepartment());
+            ps.setObject(i++, employee.getSalary());
+            ps.setObject(i++, employee.getStatus());
+            ps.setObject(i++, employee.getCreatedBy());
+            ps.setObject(i++, employee.getUpdatedBy());
+            ps.setObject(i++, employee.getKafkaOffset());
+            ps.setObject(i++, employee.getKafkaPartition());
+            ps.setObject(i++, employee.getKafkaTopic());
+            ps.setObject(i, employee.getCorrelationId());
+        }, (rs, rowNum) -> mapWriteResult(rs));
+
+        return results.isEmpty() ? WriteResult.UNCHANGED : results.get(0);
+    }
+
+    /**
+     * Marca o colaborador como INACTIVE e grava o histórico em um único round trip.
+     * Vazio se o colaborador não existe.
+     */
+    public Optional<WriteResult> softDeleteWithHistory(Employee employee) {
+        List<WriteResult> results = jdbcTemplate.query(SOFT_DELETE_ONE_SQL, ps -> {
+            int i = 1;
+            ps.setObject(i++, employee.getSourceId());
+            ps.setObject(i++, employee.getTerminationDate());
+            ps.setObject(i++, employee.getKafkaOffset());
+            ps.setObject(i++, employee.getKafkaPartition());
+            ps.setObject(i++, employee.getKafkaTopic());
+            ps.setObject(i, employee.getSourceId());
+        }, (rs, rowNum) -> mapWriteResult(rs));
+
+        return results.stream().findFirst();
+    }
+
+    private static WriteResult mapWriteResult(ResultSet rs) throws SQLException {
+        return new WriteResult(
+                rs.getString("operation"),
+                rs.getLong("id"),
+                (Integer) rs.getObject("version"),
+                rs.getString("previous_status"),
+                (Integer) rs.getObject("previous_version"));
+    }
+
+    private void countOperations(String sql, ParameterBinder binder, Map<String, Integer> written) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            binder.bind(ps);
+            return ps;
+        }, (RowCallbackHandler) rs -> written.merge(rs.getString("operation"), 1, Integer::sum));
+    }
+
+    private static String buildSql(String prefix, String row, int rows, String suffix) {
+        StringBuilder sql = new StringBuilder(prefix.length() + suffix.length() + rows * (row.length() + 2));
+        sql.append(prefix);
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+        }
+        return sql.append(suffix).toString();
+    }
+
+    @FunctionalInterface
+    private interface ParameterBinder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+}
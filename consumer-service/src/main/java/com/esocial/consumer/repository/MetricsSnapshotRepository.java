@@ -0,0 +1,50 @@
+package com.esocial.consumer.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contagens agregadas (GROUP BY) usadas pelos gauges de banco do DatabaseMetricsSnapshot
+ */
+@Repository
+public class MetricsSnapshotRepository {
+
+    private static final String DLQ_BY_STATUS_SQL =
+            "SELECT status, COUNT(*) FROM public.dlq_events WHERE status IS NOT NULL GROUP BY status";
+
+    private static final String EMPLOYEES_BY_ESOCIAL_STATUS_SQL =
+            "SELECT esocial_status, COUNT(*) FROM public.employees WHERE esocial_status IS NOT NULL " +
+            "GROUP BY esocial_status";
+
+    private static final String EVENTS_BY_STATUS_SQL =
+            "SELECT status, COUNT(*) FROM public.employee_events GROUP BY status";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MetricsSnapshotRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Map<String, Long> countDlqEventsByStatus() {
+        return countBy(DLQ_BY_STATUS_SQL);
+    }
+
+    public Map<String, Long> countEmployeesByEsocialStatus() {
+        return countBy(EMPLOYEES_BY_ESOCIAL_STATUS_SQL);
+    }
+
+    public Map<String, Long> countEmployeeEventsByStatus() {
+        return countBy(EVENTS_BY_STATUS_SQL);
+    }
+
+    private Map<String, Long> countBy(String sql) {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            counts.put(rs.getString(1), rs.getLong(2));
+        });
+        return counts;
+    }
+}
@@ -0,0 +1,74 @@
+package com.esocial.consumer.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DDL das tabelas particionadas por mês (script 12_partition_event_tables.sql).
+ *
+ * A criação e o arquivamento das partições usam as funções public.create_monthly_partition
+ * e public.archive_partition, as mesmas usadas pelo script de inicialização. Os nomes de
+ * tabela vêm da configuração da aplicação, nunca de entrada externa.
+ */
+@Repository
+public class PartitionRepository {
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))";
+
+    private static final String CREATE_PARTITION_SQL =
+            "SELECT public.create_monthly_partition(?::regclass, ?)";
+
+    private static final String ARCHIVE_PARTITION_SQL =
+            "SELECT public.archive_partition(?::regclass)";
+
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = ?::regclass ORDER BY c.relname";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * false para bancos sem o script 12 (ex.: schema dos testes de integração)
+     */
+    public boolean isPartitioned(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class, table));
+    }
+
+    /**
+     * Cria a partição do mês se ainda não existir; retorna o nome qualificado
+     */
+    public String createMonthlyPartition(String table, LocalDate month) {
+        return jdbcTemplate.queryForObject(CREATE_PARTITION_SQL, String.class, table, Date.valueOf(month));
+    }
+
+    /**
+     * Nomes (sem schema) das partições anexadas, incluindo a DEFAULT
+     */
+    public List<String> findPartitions(String table) {
+        return jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, table);
+    }
+
+    /**
+     * Desanexa a partição e a move para o schema archive; retorna o novo nome qualificado
+     */
+    public String archivePartition(String partition) {
+        return jdbcTemplate.queryForObject(ARCHIVE_PARTITION_SQL, String.class, partition);
+    }
+
+    /**
+     * Linhas na partição DEFAULT indicam meses sem partição própria (manutenção atrasada)
+     */
+    public boolean hasDefaultRows(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + "_default)", Boolean.class));
+    }
+}
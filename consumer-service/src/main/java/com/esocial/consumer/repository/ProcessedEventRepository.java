@@ -0,0 +1,124 @@
+package com.esocial.consumer.repository;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Acesso a public.processed_events via JDBC.
+ *
+ * O INSERT usa ON CONFLICT DO NOTHING: zero linhas afetadas significa que o evento
+ * já foi gravado por outra entrega (outra instância após rebalance, por exemplo).
+ */
+@Repository
+public class ProcessedEventRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO public.processed_events (event_id, source_id, kafka_topic, kafka_partition, kafka_offset) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT (event_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProcessedEventRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Dos eventIds informados, devolve os já processados (uma consulta por lote)
+     */
+    public Set<String> findExisting(Collection<String> eventIds) {
+        Set<String> existing = new HashSet<>();
+        if (eventIds.isEmpty()) {
+            return existing;
+        }
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(
+                    "SELECT event_id FROM public.processed_events WHERE event_id = ANY (?)");
+            Array array = connection.createArrayOf("varchar", eventIds.toArray());
+            ps.setArray(1, array);
+            return ps;
+        }, rs -> {
+            existing.add(rs.getString(1));
+        });
+        return existing;
+    }
+
+    /**
+     * Grava o evento como processado; false se já existia
+     */
+    public boolean markProcessed(EmployeeEventDTO event, Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
+        return jdbcTemplate.update(INSERT_SQL, event.getEventId(), event.getSourceId(),
+                kafkaTopic, kafkaPartition, kafkaOffset) > 0;
+    }
+
+    /**
+     * Grava os eventos do lote como processados; devolve quantos eram inéditos
+     */
+    public int markAllProcessed(List<ConsumerRecord<String, EmployeeEventDTO>> records) {
+        int[][] results = jdbcTemplate.batchUpdate(INSERT_SQL, records, records.size(), (ps, record) -> {
+            ps.setString(1, record.value().getEventId());
+            ps.setString(2, record.value().getSourceId());
+            ps.setString(3, record.topic());
+            ps.setInt(4, record.partition());
+            ps.setLong(5, record.offset());
+        });
+
+        int inserted = 0;
+        for (int[] batch : results) {
+            for (int affected : batch) {
+                // SUCCESS_NO_INFO (-2) é tratado como inserido; o PK garante a unicidade
+                inserted += affected != 0 ? 1 : 0;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Grava os eventIds absorvidos pela coalescência de cada evento, com a posição do evento
+     * que os substituiu. Absorvidos já gravados (reentrega) são ignorados.
+     */
+    public void markAllCoalesced(List<ConsumerRecord<String, EmployeeEventDTO>> records) {
+        List<Object[]> rows = new ArrayList<>();
+        for (ConsumerRecord<String, EmployeeEventDTO> record : records) {
+            addCoalescedRows(rows, record.value(), record.topic(), record.partition(), record.offset());
+        }
+        insertRows(rows);
+    }
+
+    public void markCoalesced(EmployeeEventDTO event, Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
+        List<Object[]> rows = new ArrayList<>();
+        addCoalescedRows(rows, event, kafkaTopic, kafkaPartition, kafkaOffset);
+        insertRows(rows);
+    }
+
+    private static void addCoalescedRows(List<Object[]> rows, EmployeeEventDTO event, String kafkaTopic,
+                                         Integer kafkaPartition, Long kafkaOffset) {
+        if (event.getCoalescedEventIds() == null) {
+            return;
+        }
+        for (String eventId : event.getCoalescedEventIds()) {
+            rows.add(new Object[]{eventId, event.getSourceId(), kafkaTopic, kafkaPartition, kafkaOffset});
+        }
+    }
+
+    private void insertRows(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    public int deleteProcessedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM public.processed_events WHERE processed_at < ?",
+                Timestamp.valueOf(cutoff));
+    }
+}
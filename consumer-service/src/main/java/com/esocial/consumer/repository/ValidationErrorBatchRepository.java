@@ -0,0 +1,69 @@
+package com.esocial.consumer.repository;
+
+import com.esocial.consumer.model.entity.ValidationError;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escrita em lote de erros de validação via JDBC (batchUpdate).
+ *
+ * O payload do evento vai para public.validation_error_payloads uma vez por evento;
+ * as linhas de public.validation_errors o referenciam por event_id.
+ */
+@Repository
+public class ValidationErrorBatchRepository {
+
+    private static final String INSERT_PAYLOAD_SQL =
+            "INSERT INTO public.validation_error_payloads (event_id, event_payload) " +
+            "VALUES (?, ?::jsonb) ON CONFLICT (event_id) DO NOTHING";
+
+    private static final String INSERT_ERROR_SQL =
+            "INSERT INTO public.validation_errors (event_id, source_table, source_id, validation_rule, " +
+            "error_message, severity, field_name, field_value, created_at, kafka_offset, kafka_partition, " +
+            "kafka_topic, correlation_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, COALESCE(?::timestamp, CURRENT_TIMESTAMP), ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ValidationErrorBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Grava os payloads (eventId → JSON); eventos já gravados são ignorados
+     */
+    public void insertPayloads(Map<String, String> payloadsByEventId) {
+        if (payloadsByEventId.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, String>> entries = List.copyOf(payloadsByEventId.entrySet());
+        jdbcTemplate.batchUpdate(INSERT_PAYLOAD_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, entry.getKey());
+            ps.setString(2, entry.getValue());
+        });
+    }
+
+    public void insertErrors(List<ValidationError> errors) {
+        if (errors.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ERROR_SQL, errors, errors.size(), (ps, error) -> {
+            ps.setString(1, error.getEventId());
+            ps.setString(2, error.getSourceTable());
+            ps.setString(3, error.getSourceId());
+            ps.setString(4, error.getValidationRule());
+            ps.setString(5, error.getErrorMessage());
+            ps.setString(6, error.getSeverity());
+            ps.setString(7, error.getFieldName());
+            ps.setString(8, error.getFieldValue());
+            ps.setTimestamp(9, error.getCreatedAt() != null ? Timestamp.valueOf(error.getCreatedAt()) : null);
+            ps.setObject(10, error.getKafkaOffset());
+            ps.setObject(11, error.getKafkaPartition());
+            ps.setString(12, error.getKafkaTopic());
+            ps.setObject(13, error.getCorrelationId());
+        });
+    }
+}
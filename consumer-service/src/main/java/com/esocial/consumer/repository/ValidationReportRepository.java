@@ -0,0 +1,228 @@
+package com.esocial.consumer.repository;
+
+import com.esocial.consumer.model.entity.DlqEvent;
+import com.esocial.consumer.model.entity.ValidationError;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Consultas do relatório de validação sem carregar tabelas inteiras.
+ *
+ * - páginas por chave (id decrescente, cursor "afterId"), com filtros opcionais;
+ * - streaming com cursor do servidor (fetch size dentro de transação read-only),
+ *   para exportação NDJSON sem materializar o resultado;
+ * - contagens por severidade e por status com GROUP BY no banco.
+ */
+@Repository
+public class ValidationReportRepository {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final String ERROR_COLUMNS =
+            "SELECT id, event_id, source_table, source_id, validation_rule, error_message, severity, " +
+            "field_name, field_value, created_at, resolved_at, resolved_by, kafka_offset, kafka_partition, " +
+            "kafka_topic, correlation_id FROM public.validation_errors";
+
+    private static final String DLQ_COLUMNS =
+            "SELECT id, event_id, event_type, source_table, source_id, event_payload::text AS event_payload, " +
+            "error_message, stack_trace_fingerprint, retry_count, max_retries, status, created_at, last_retry_at, " +
+            "next_retry_at, resolved_at, resolved_by, kafka_offset, kafka_partition, kafka_topic, correlation_id " +
+            "FROM public.dlq_events";
+
+    private static final String COUNT_ERRORS_BY_SEVERITY_SQL =
+            "SELECT severity, COUNT(*) FROM public.validation_errors GROUP BY severity";
+
+    private static final String COUNT_DLQ_BY_STATUS_SQL =
+            "SELECT COALESCE(status, 'UNKNOWN'), COUNT(*) FROM public.dlq_events GROUP BY 1";
+
+    /**
+     * Filtros dos erros de validação; campos nulos não filtram
+     */
+    public record ErrorFilter(LocalDateTime from, LocalDateTime to, String rule, String severity) {
+    }
+
+    /**
+     * Filtros dos eventos da DLQ; campos nulos não filtram
+     */
+    public record DlqFilter(LocalDateTime from, LocalDateTime to, String status) {
+    }
+
+    private static final RowMapper<ValidationError> ERROR_MAPPER = (rs, rowNum) -> ValidationError.builder()
+            .id(rs.getLong("id"))
+            .eventId(rs.getString("event_id"))
+            .sourceTable(rs.getString("source_table"))
+            .sourceId(rs.getString("source_id"))
+            .validationRule(rs.getString("validation_rule"))
+            .errorMessage(rs.getString("error_message"))
+            .severity(rs.getString("severity"))
+            .fieldName(rs.getString("field_name"))
+            .fieldValue(rs.getString("field_value"))
+            .createdAt(toLocalDateTime(rs, "created_at"))
+            .resolvedAt(toLocalDateTime(rs, "resolved_at"))
+            .resolvedBy(rs.getString("resolved_by"))
+            .kafkaOffset(rs.getObject("kafka_offset", Long.class))
+            .kafkaPartition(rs.getObject("kafka_partition", Integer.class))
+            .kafkaTopic(rs.getString("kafka_topic"))
+            .correlationId(rs.getObject("correlation_id", UUID.class))
+            .build();
+
+    private static final RowMapper<DlqEvent> DLQ_MAPPER = (rs, rowNum) -> DlqEvent.builder()
+            .id(rs.getLong("id"))
+            .eventId(rs.getString("event_id"))
+            .eventType(rs.getString("event_type"))
+            .sourceTable(rs.getString("source_table"))
+            .sourceId(rs.getString("source_id"))
+            .eventPayload(rs.getString("event_payload"))
+            .errorMessage(rs.getString("error_message"))
+            .stackTraceFingerprint(rs.getString("stack_trace_fingerprint"))
+            .retryCount(rs.getObject("retry_count", Integer.class))
+            .maxRetries(rs.getObject("max_retries", Integer.class))
+            .status(rs.getString("status"))
+            .createdAt(toLocalDateTime(rs, "created_at"))
+            .lastRetryAt(toLocalDateTime(rs, "last_retry_at"))
+            .nextRetryAt(toLocalDateTime(rs, "next_retry_at"))
+            .resolvedAt(toLocalDateTime(rs, "resolved_at"))
+            .resolvedBy(rs.getString("resolved_by"))
+            .kafkaOffset(rs.getObject("kafka_offset", Long.class))
+            .kafkaPartition(rs.getObject("kafka_partition", Integer.class))
+            .kafkaTopic(rs.getString("kafka_topic"))
+            .correlationId(rs.getObject("correlation_id", UUID.class))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ValidationReportRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // O driver do Postgres só usa cursor (fetch size) com autocommit desligado
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(STREAM_FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Página de erros com id menor que afterId (null = mais recentes)
+     */
+    public List<ValidationError> findErrors(ErrorFilter filter, Long afterId, int limit) {
+        Query query = errorQuery(filter, afterId).limit(limit);
+        return jdbcTemplate.query(query.sql(), ERROR_MAPPER, query.args());
+    }
+
+    public void streamErrors(ErrorFilter filter, Consumer<? super ValidationError> sink) {
+        stream(errorQuery(filter, null), ERROR_MAPPER, sink);
+    }
+
+    /**
+     * Página de eventos da DLQ com id menor que afterId (null = mais recentes)
+     */
+    public List<DlqEvent> findDlqEvents(DlqFilter filter, Long afterId, int limit) {
+        Query query = dlqQuery(filter, afterId).limit(limit);
+        return jdbcTemplate.query(query.sql(), DLQ_MAPPER, query.args());
+    }
+
+    public void streamDlqEvents(DlqFilter filter, Consumer<? super DlqEvent> sink) {
+        stream(dlqQuery(filter, null), DLQ_MAPPER, sink);
+    }
+
+    public Map<String, Long> countErrorsBySeverity() {
+        return countBy(COUNT_ERRORS_BY_SEVERITY_SQL);
+    }
+
+    public Map<String, Long> countDlqEventsByStatus() {
+        return countBy(COUNT_DLQ_BY_STATUS_SQL);
+    }
+
+    private <T> void stream(Query query, RowMapper<T> mapper, Consumer<? super T> sink) {
+        readOnlyTransaction.executeWithoutResult(status ->
+                streamingJdbcTemplate.query(query.sql(), rs -> {
+                    sink.accept(mapper.mapRow(rs, rs.getRow()));
+                }, query.args()));
+    }
+
+    private Map<String, Long> countBy(String sql) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            counts.put(rs.getString(1), rs.getLong(2));
+        });
+        return counts;
+    }
+
+    private static Query errorQuery(ErrorFilter filter, Long afterId) {
+        return new Query(ERROR_COLUMNS)
+                .where("id < ?", afterId)
+                .where("created_at >= ?", timestamp(filter.from()))
+                .where("created_at < ?", timestamp(filter.to()))
+                .where("validation_rule = ?", filter.rule())
+                .where("severity = ?", filter.severity());
+    }
+
+    private static Query dlqQuery(DlqFilter filter, Long afterId) {
+        return new Query(DLQ_COLUMNS)
+                .where("id < ?", afterId)
+                .where("created_at >= ?", timestamp(filter.from()))
+                .where("created_at < ?", timestamp(filter.to()))
+                .where("status = ?", filter.status());
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value != null ? value.toLocalDateTime() : null;
+    }
+
+    /**
+     * SELECT com filtros opcionais, ordenado por id decrescente
+     */
+    private static final class Query {
+
+        private final StringBuilder sql;
+        private final List<Object> args = new ArrayList<>();
+        private boolean hasWhere;
+        private Integer limit;
+
+        Query(String select) {
+            this.sql = new StringBuilder(select);
+        }
+
+        Query where(String condition, Object value) {
+            if (value != null) {
+                sql.append(hasWhere ? " AND " : " WHERE ").append(condition);
+                args.add(value);
+                hasWhere = true;
+            }
+            return this;
+        }
+
+        Query limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        String sql() {
+            return sql + " ORDER BY id DESC" + (limit != null ? " LIMIT " + limit : "");
+        }
+
+        Object[] args() {
+            return args.toArray();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.esocial.consumer.serialization;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodifica eventos Avro binários para o EmployeeEventDTO.
+ *
+ * O payload é lido com o schema de gravação (versão do header) resolvido contra a
+ * última versão local, então campos adicionados depois assumem o default do schema.
+ */
+public class AvroEmployeeEventDecoder {
+
+    private final EventSchemaRegistry registry;
+    private final Schema readerSchema;
+    private final int salaryScale;
+    private final ConcurrentHashMap<Integer, GenericDatumReader<GenericRecord>> readers = new ConcurrentHashMap<>();
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+
+    public AvroEmployeeEventDecoder(EventSchemaRegistry registry) {
+        this.registry = registry;
+        this.readerSchema = registry.latest();
+        this.salaryScale = ((LogicalTypes.Decimal) unionBranch(readerSchema.getField("salary").schema())
+                .getLogicalType()).getScale();
+    }
+
+    public EmployeeEventDTO decode(byte[] data, int writerVersion) throws IOException {
+        GenericDatumReader<GenericRecord> reader = readers.computeIfAbsent(writerVersion,
+                version -> new GenericDatumReader<>(registry.get(version), readerSchema));
+
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, decoders.get());
+        decoders.set(decoder);
+        GenericRecord record = reader.read(null, decoder);
+
+        return EmployeeEventDTO.builder()
+                .eventId(string(record, "event_id"))
+                .eventType(string(record, "event_type"))
+                .eventTimestamp(toLocalDateTime(record.get("event_timestamp")))
+                .sourceId(string(record, "source_id"))
+                .correlationId(toUuid(string(record, "correlation_id")))
+                .cpf(string(record, "cpf"))
+                .pis(string(record, "pis"))
+                .fullName(string(record, "full_name"))
+                .birthDate(toLocalDate(record.get("birth_date")))
+                .admissionDate(toLocalDate(record.get("admission_date")))
+                .terminationDate(toLocalDate(record.get("termination_date")))
+                .jobTitle(string(record, "job_title"))
+                .department(string(record, "department"))
+                .salary(toBigDecimal(record.get("salary")))
+                .status(string(record, "status"))
+                .build();
+    }
+
+    private static String string(GenericRecord record, String field) {
+        Object value = record.get(field);
+        return value != null ? value.toString() : null;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return null;
+        }
+        ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+        byte[] unscaled = new byte[buffer.remaining()];
+        buffer.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), salaryScale);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value != null ? LocalDateTime.ofInstant(Instant.ofEpochMilli((Long) value), ZoneOffset.UTC) : null;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value != null ? LocalDate.ofEpochDay((Integer) value) : null;
+    }
+
+    private static UUID toUuid(String value) {
+        return value != null ? UUID.fromString(value) : null;
+    }
+
+    private static Schema unionBranch(Schema schema) {
+        if (schema.getType() != Schema.Type.UNION) {
+            return schema;
+        }
+        for (Schema branch : schema.getTypes()) {
+            if (branch.getType() != Schema.Type.NULL) {
+                return branch;
+            }
+        }
+        return schema;
+    }
+}
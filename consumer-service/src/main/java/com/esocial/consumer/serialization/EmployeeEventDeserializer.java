@@ -0,0 +1,60 @@
+package com.esocial.consumer.serialization;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Desserializador dos eventos de colaborador que aceita JSON e Avro durante a migração.
+ *
+ * O formato vem do header X-Payload-Format (ausente = JSON) e, em Avro, a versão do
+ * schema de gravação vem de X-Schema-Version. O caminho JSON é o mesmo JsonDeserializer
+ * usado antes (tipo fixo, sem headers de tipo).
+ */
+public class EmployeeEventDeserializer implements Deserializer<EmployeeEventDTO> {
+
+    private final JsonDeserializer<EmployeeEventDTO> jsonDeserializer;
+    private final AvroEmployeeEventDecoder avroDecoder;
+
+    public EmployeeEventDeserializer(EventSchemaRegistry schemaRegistry) {
+        this.jsonDeserializer = new JsonDeserializer<>(EmployeeEventDTO.class, false);
+        this.jsonDeserializer.addTrustedPackages("*");
+        this.avroDecoder = new AvroEmployeeEventDecoder(schemaRegistry);
+    }
+
+    @Override
+    public EmployeeEventDTO deserialize(String topic, byte[] data) {
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public EmployeeEventDTO deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        PayloadFormat format = PayloadFormat.fromHeaders(headers);
+        if (format == PayloadFormat.JSON) {
+            return jsonDeserializer.deserialize(topic, headers, data);
+        }
+
+        String version = PayloadFormat.lastHeader(headers, PayloadFormat.SCHEMA_VERSION_HEADER);
+        if (version == null) {
+            throw new SerializationException("Evento Avro sem header " + PayloadFormat.SCHEMA_VERSION_HEADER);
+        }
+        try {
+            return avroDecoder.decode(data, Integer.parseInt(version));
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Erro ao decodificar evento Avro (schema v" + version + ")", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,90 @@
+package com.esocial.consumer.serialization;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.apache.avro.SchemaCompatibility.SchemaCompatibilityType;
+import org.apache.avro.SchemaCompatibility.SchemaPairCompatibility;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Registro local dos schemas Avro do evento de colaborador (substitui um schema registry).
+ *
+ * As versões ficam no classpath em {@code <location>/v1.avsc, v2.avsc, ...}; o número do
+ * arquivo é a versão recebida no header X-Schema-Version. O diretório é uma cópia do
+ * producer-service; a última versão é o schema de leitura.
+ *
+ * Regra de evolução (BACKWARD): cada versão precisa ler dados gravados com todas as
+ * anteriores, ou seja, campos novos com default e nenhum campo alterado de tipo.
+ * A regra é verificada na carga e impede a aplicação de subir com um schema incompatível.
+ */
+@Slf4j
+@Component
+public class EventSchemaRegistry {
+
+    private final NavigableMap<Integer, Schema> versions;
+
+    public EventSchemaRegistry(@Value("${app.kafka.schema-registry.location:schemas/employee-event}") String location) {
+        this.versions = load(location);
+        if (versions.isEmpty()) {
+            throw new IllegalStateException("Nenhum schema Avro encontrado em " + location);
+        }
+        checkBackwardCompatibility(versions);
+        log.info("Schemas Avro carregados de {}: versões {}", location, versions.keySet());
+    }
+
+    public int latestVersion() {
+        return versions.lastKey();
+    }
+
+    public Schema latest() {
+        return versions.lastEntry().getValue();
+    }
+
+    public Schema get(int version) {
+        Schema schema = versions.get(version);
+        if (schema == null) {
+            throw new IllegalArgumentException("Versão de schema desconhecida: " + version);
+        }
+        return schema;
+    }
+
+    private static NavigableMap<Integer, Schema> load(String location) {
+        NavigableMap<Integer, Schema> loaded = new TreeMap<>();
+        ClassLoader classLoader = EventSchemaRegistry.class.getClassLoader();
+
+        for (int version = 1; ; version++) {
+            try (InputStream in = classLoader.getResourceAsStream(location + "/v" + version + ".avsc")) {
+                if (in == null) {
+                    return loaded;
+                }
+                // Um parser por arquivo: todas as versões têm o mesmo nome de record
+                loaded.put(version, new Schema.Parser().parse(in));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao ler schema v" + version + " em " + location, e);
+            }
+        }
+    }
+
+    static void checkBackwardCompatibility(NavigableMap<Integer, Schema> versions) {
+        for (Map.Entry<Integer, Schema> reader : versions.entrySet()) {
+            for (Map.Entry<Integer, Schema> writer : versions.headMap(reader.getKey(), false).entrySet()) {
+                SchemaPairCompatibility result =
+                        SchemaCompatibility.checkReaderWriterCompatibility(reader.getValue(), writer.getValue());
+                if (result.getType() != SchemaCompatibilityType.COMPATIBLE) {
+                    throw new IllegalStateException(String.format(
+                            "Schema v%d não lê dados da v%d: %s",
+                            reader.getKey(), writer.getKey(), result.getDescription()));
+                }
+            }
+        }
+    }
+}
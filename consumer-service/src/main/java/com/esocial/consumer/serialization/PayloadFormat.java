@@ -0,0 +1,51 @@
+package com.esocial.consumer.serialization;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formato do valor recebido nos tópicos de colaborador, informado pelo producer no header
+ * X-Payload-Format. Mensagens sem o header são JSON (formato anterior à migração).
+ */
+public enum PayloadFormat {
+    JSON("json"),
+    AVRO("avro");
+
+    public static final String HEADER = "X-Payload-Format";
+    public static final String SCHEMA_VERSION_HEADER = "X-Schema-Version";
+
+    private final String headerValue;
+
+    PayloadFormat(String headerValue) {
+        this.headerValue = headerValue;
+    }
+
+    public String headerValue() {
+        return headerValue;
+    }
+
+    public static PayloadFormat fromHeaders(Headers headers) {
+        String value = lastHeader(headers, HEADER);
+        if (value == null) {
+            return JSON;
+        }
+        for (PayloadFormat format : values()) {
+            if (format.headerValue.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Formato de payload desconhecido: " + value);
+    }
+
+    static String lastHeader(Headers headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(name);
+        return header != null && header.value() != null
+                ? new String(header.value(), StandardCharsets.UTF_8)
+                : null;
+    }
+}
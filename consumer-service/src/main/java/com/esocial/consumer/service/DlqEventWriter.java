@@ -0,0 +1,65 @@
+package com.esocial.consumer.service;
+
+import com.esocial.consumer.model.dto.DlqMessageDTO;
+import com.esocial.consumer.repository.DlqBatchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consome o tópico de DLQ e grava public.dlq_events em lote (uma transação por poll).
+ * Roda em um consumer group próprio, fora das threads que processam os eventos.
+ * Se a gravação falhar, o lote não é confirmado e volta a ser entregue.
+ */
+@Slf4j
+@Service
+public class DlqEventWriter {
+
+    private final DlqBatchRepository dlqBatchRepository;
+    private final ObjectMapper objectMapper;
+    private final Counter persistedCounter;
+
+    public DlqEventWriter(DlqBatchRepository dlqBatchRepository,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry) {
+        this.dlqBatchRepository = dlqBatchRepository;
+        this.objectMapper = objectMapper;
+        this.persistedCounter = Counter.builder("dlq.events.persisted")
+                .description("Eventos da DLQ gravados em dlq_events")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(
+            topics = "${app.kafka.topics.dlq}",
+            groupId = "${app.kafka.dlq-writer.group-id:esocial-dlq-writer}",
+            containerFactory = "dlqKafkaListenerContainerFactory"
+    )
+    @Transactional
+    public void writeBatch(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        List<DlqMessageDTO> messages = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                messages.add(objectMapper.readValue(record.value(), DlqMessageDTO.class));
+            } catch (Exception e) {
+                log.error("Mensagem inválida na DLQ ignorada: partition={}, offset={}: {}",
+                        record.partition(), record.offset(), e.getMessage());
+            }
+        }
+
+        dlqBatchRepository.insertAll(messages);
+        persistedCounter.increment(messages.size());
+        acknowledgment.acknowledge();
+
+        log.info("Lote da DLQ gravado: {} eventos", messages.size());
+    }
+}
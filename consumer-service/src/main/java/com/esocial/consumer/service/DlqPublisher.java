@@ -0,0 +1,177 @@
+package com.esocial.consumer.service;
+
+import com.esocial.consumer.model.dto.DlqMessageDTO;
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.repository.DlqBatchRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Envio de eventos com falha para a DLQ sem bloquear a thread do listener.
+ *
+ * O evento e os dados do erro são publicados (assíncrono) no tópico app.kafka.topics.dlq;
+ * o DlqEventWriter consome o tópico e grava public.dlq_events em lote. A stack trace
+ * leva um fingerprint (classe + frames, sem a mensagem) para ser gravada uma única vez.
+ * Se a publicação falhar, a mensagem é gravada direto no banco fora da thread do producer.
+ */
+@Slf4j
+@Component
+public class DlqPublisher {
+
+    private static final int MAX_STACK_TRACE_LENGTH = 5000;
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final DlqBatchRepository dlqBatchRepository;
+    private final ObjectMapper objectMapper;
+    private final String dlqTopic;
+    private final ExecutorService fallbackExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter publishedCounter;
+    private final Counter fallbackCounter;
+
+    public DlqPublisher(KafkaTemplate<String, String> kafkaTemplate,
+                        DlqBatchRepository dlqBatchRepository,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.kafka.topics.dlq}") String dlqTopic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.dlqBatchRepository = dlqBatchRepository;
+        this.objectMapper = objectMapper;
+        this.dlqTopic = dlqTopic;
+        this.publishedCounter = Counter.builder("dlq.published")
+                .description("Eventos publicados no tópico de DLQ")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("dlq.publish.fallback")
+                .description("Eventos gravados direto no banco por falha na publicação da DLQ")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+    }
+
+    public void publish(EmployeeEventDTO event, String topic, Long offset, Integer partition, Exception exception) {
+        DlqMessageDTO message;
+        String json;
+        try {
+            message = toMessage(event, topic, offset, partition, exception);
+            json = objectMapper.writeValueAsString(message);
+        } catch (Exception e) {
+            log.error("Erro ao montar mensagem da DLQ para evento {}: {}", event.getEventId(), e.getMessage(), e);
+            return;
+        }
+
+        kafkaTemplate.send(dlqTopic, event.getSourceId(), json).whenComplete((result, ex) -> {
+            if (ex == null) {
+                publishedCounter.increment();
+                log.info("Evento enviado para DLQ: eventId={}, fingerprint={}",
+                        event.getEventId(), message.getStackTraceFingerprint());
+            } else {
+                log.warn("Falha ao publicar evento {} na DLQ, gravando direto no banco: {}",
+                        event.getEventId(), ex.getMessage());
+                // O callback roda na thread de I/O do producer: a gravação vai para outro executor
+                fallbackExecutor.execute(() -> persistDirectly(message));
+            }
+        });
+    }
+
+    /**
+     * Modo exactly-once: publica pelas operações da transação Kafka corrente, sem fallback
+     * para o banco. Uma falha no envio aborta a transação e o lote é reprocessado.
+     */
+    public CompletableFuture<SendResult<String, String>> publishTransactional(
+            KafkaOperations<String, String> operations, EmployeeEventDTO event, String topic,
+            Long offset, Integer partition, Exception exception) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(toMessage(event, topic, offset, partition, exception));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao montar mensagem da DLQ para evento " + event.getEventId(), e);
+        }
+        return operations.send(dlqTopic, event.getSourceId(), json).whenComplete((result, ex) -> {
+            if (ex == null) {
+                publishedCounter.increment();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        kafkaTemplate.flush();
+        fallbackExecutor.close();
+    }
+
+    private void persistDirectly(DlqMessageDTO message) {
+        try {
+            dlqBatchRepository.insertAll(List.of(message));
+            fallbackCounter.increment();
+        } catch (Exception e) {
+            log.error("Erro ao enviar evento para DLQ: {}", e.getMessage(), e);
+        }
+    }
+
+    private DlqMessageDTO toMessage(EmployeeEventDTO event, String topic, Long offset, Integer partition,
+                                    Exception exception) throws JsonProcessingException {
+        String stackTrace = stackTraceText(exception);
+        return DlqMessageDTO.builder()
+                .eventId(event.getEventId())
+                .eventType(event.getEventType())
+                .sourceTable("employees")
+                .sourceId(event.getSourceId())
+                .eventPayload(objectMapper.writeValueAsString(event))
+                .errorMessage(exception.getMessage())
+                .exceptionClass(exception.getClass().getName())
+                .stackTraceFingerprint(fingerprint(stackTrace))
+                .stackTrace(stackTrace)
+                .kafkaTopic(topic)
+                .kafkaPartition(partition)
+                .kafkaOffset(offset)
+                .correlationId(event.getCorrelationId())
+                .failedAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Classe da exceção, causas e frames, sem as mensagens (que variam por evento)
+     */
+    static String stackTraceText(Throwable exception) {
+        StringBuilder sb = new StringBuilder();
+        for (Throwable current = exception; current != null && sb.length() <= MAX_STACK_TRACE_LENGTH;
+             current = current.getCause()) {
+            if (current != exception) {
+                sb.append("Caused by: ");
+            }
+            sb.append(current.getClass().getName()).append("\n");
+            for (StackTraceElement element : current.getStackTrace()) {
+                sb.append("\tat ").append(element).append("\n");
+                if (sb.length() > MAX_STACK_TRACE_LENGTH) break;
+            }
+        }
+        return sb.toString();
+    }
+
+    static String fingerprint(String stackTrace) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(stackTrace.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
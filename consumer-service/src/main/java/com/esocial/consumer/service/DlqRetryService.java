@@ -1,42 +1,179 @@
 package com.esocial.consumer.service;
 
-import java.util.List;
-
-import org.springframework.beans.factory.annotation.Autowired;
+import com.esocial.consumer.repository.DlqReplayRepository;
+import com.esocial.consumer.repository.DlqReplayRepository.ClaimedDlqEvent;
+import com.esocial.consumer.repository.DlqReplayRepository.RetrySchedule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import com.esocial.consumer.model.entity.DlqEvent;
-import com.esocial.consumer.repository.DlqEventRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Replay dos eventos da DLQ.
+ *
+ * A cada execução reivindica páginas de linhas vencidas (FOR UPDATE SKIP LOCKED em
+ * next_retry_at), republica cada payload no tópico original de forma assíncrona, com no
+ * máximo {@code app.dlq.replay.max-in-flight} envios pendentes, e grava os status da página
+ * em lote. Falhas são reagendadas com backoff exponencial e jitter até max-retries.
+ *
+ * Linhas republicadas ficam RETRIED já com a próxima tentativa calculada pelo mesmo backoff:
+ * se o evento falhar de novo no consumer, a volta à DLQ reabre a linha (retry_count + 1)
+ * em vez de criar outra, e um evento que sempre falha na validação para em max-retries.
+ */
+@Slf4j
 @Service
 public class DlqRetryService {
 
-    @Autowired
-    private DlqEventRepository dlqEventRepository;
+    private static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+
+    private final DlqReplayRepository replayRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final Counter replayedCounter;
+    private final Counter rescheduledCounter;
+    private final Counter exhaustedCounter;
+
+    @Value("${app.dlq.replay.page-size:200}")
+    private int pageSize = 200;
+
+    @Value("${app.dlq.replay.max-in-flight:50}")
+    private int maxInFlight = 50;
+
+    @Value("${app.dlq.replay.max-retries:5}")
+    private int maxRetries = 5;
 
-    @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    @Value("${app.dlq.replay.base-delay:30000}")
+    private long baseDelayMs = 30000;
 
-    private final int maxRetries = 5;
+    @Value("${app.dlq.replay.max-delay:3600000}")
+    private long maxDelayMs = 3600000;
+
+    @Value("${app.dlq.replay.lease:300000}")
+    private long leaseMs = 300000;
+
+    @Value("${app.dlq.replay.default-topic:${app.kafka.topics.employee-update:employee-update}}")
+    private String defaultTopic = "employee-update";
+
+    public DlqRetryService(DlqReplayRepository replayRepository,
+                           KafkaTemplate<String, String> kafkaTemplate,
+                           MeterRegistry meterRegistry) {
+        this.replayRepository = replayRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.replayedCounter = Counter.builder("dlq.replay.success")
+                .description("Eventos da DLQ republicados no tópico original")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+        this.rescheduledCounter = Counter.builder("dlq.replay.rescheduled")
+                .description("Replays com falha reagendados com backoff")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("dlq.replay.exhausted")
+                .description("Eventos da DLQ marcados como FAILED após esgotar as tentativas")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+    }
 
     @Scheduled(fixedDelayString = "${dlq.retry.delay:60000}")
     public void processDlqEvents() {
-        List<DlqEvent> toRetry = dlqEventRepository.findByStatusAndRetryCountLessThan("PENDING", maxRetries);
+        int claimed;
+        do {
+            List<ClaimedDlqEvent> page = replayRepository.claimDue(maxRetries, pageSize, Math.max(1, leaseMs / 1000));
+            claimed = page.size();
+            if (claimed > 0) {
+                replayPage(page);
+            }
+        } while (claimed == pageSize);
+    }
 
-        for (DlqEvent dlqEvent : toRetry) {
+    private void replayPage(List<ClaimedDlqEvent> page) {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Queue<ClaimedDlqEvent> retried = new ConcurrentLinkedQueue<>();
+        Queue<ClaimedDlqEvent> failed = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<?>> sends = new ArrayList<>(page.size());
+
+        for (ClaimedDlqEvent event : page) {
+            inFlight.acquireUninterruptibly();
             try {
-                kafkaTemplate.send("employee.events", dlqEvent.getEventPayload()).get(); // síncrono para confiabilidade
-                dlqEvent.setStatus("RETRIED");
-                dlqEventRepository.save(dlqEvent);
-            } catch (Exception e) {
-                dlqEvent.setRetryCount(dlqEvent.getRetryCount() + 1);
-                if (dlqEvent.getRetryCount() >= maxRetries) {
-                    dlqEvent.setStatus("FAILED");
-                }
-                dlqEventRepository.save(dlqEvent);
+                sends.add(kafkaTemplate.send(toRecord(event)).whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        retried.add(event);
+                    } else {
+                        log.warn("Falha no replay do evento {} da DLQ: {}", event.eventId(), ex.getMessage());
+                        failed.add(event);
+                    }
+                    inFlight.release();
+                }));
+            } catch (RuntimeException e) {
+                log.warn("Falha no replay do evento {} da DLQ: {}", event.eventId(), e.getMessage());
+                failed.add(event);
+                inFlight.release();
+            }
+        }
+
+        // Falhas já foram registradas no callback; aqui só aguarda todos os envios
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .exceptionally(ex -> null)
+                .join();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RetrySchedule> republished = new ArrayList<>(retried.size());
+        for (ClaimedDlqEvent event : retried) {
+            Duration delay = backoffDelay(event.retryCount() + 1, baseDelayMs, maxDelayMs, ThreadLocalRandom.current());
+            republished.add(new RetrySchedule(event.id(), now.plus(delay)));
+        }
+        replayRepository.markRetried(republished);
+        replayedCounter.increment(republished.size());
+
+        List<RetrySchedule> schedules = new ArrayList<>(failed.size());
+        for (ClaimedDlqEvent event : failed) {
+            int attempt = event.retryCount() + 1;
+            if (attempt >= maxRetries) {
+                exhaustedCounter.increment();
+            } else {
+                rescheduledCounter.increment();
             }
+            Duration delay = backoffDelay(attempt, baseDelayMs, maxDelayMs, ThreadLocalRandom.current());
+            schedules.add(new RetrySchedule(event.id(), now.plus(delay)));
         }
+        replayRepository.scheduleRetries(schedules, maxRetries);
+
+        log.info("Replay da DLQ: {} republicados, {} reagendados", republished.size(), schedules.size());
+    }
+
+    private ProducerRecord<String, String> toRecord(ClaimedDlqEvent event) {
+        String topic = event.kafkaTopic() != null ? event.kafkaTopic() : defaultTopic;
+        ProducerRecord<String, String> record =
+                new ProducerRecord<>(topic, event.sourceId(), event.eventPayload());
+        if (event.correlationId() != null) {
+            record.headers().add(CORRELATION_ID_HEADER,
+                    event.correlationId().toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
+
+    /**
+     * Backoff exponencial com "equal jitter": metade fixa de base * 2^(tentativa - 1),
+     * limitada a maxDelay, e a outra metade aleatória para espalhar as instâncias
+     */
+    static Duration backoffDelay(int attempt, long baseDelayMs, long maxDelayMs, Random random) {
+        int exponent = Math.min(Math.max(attempt - 1, 0), 30);
+        long cappedMillis = Math.min(maxDelayMs, baseDelayMs << exponent);
+        long half = cappedMillis / 2;
+        return Duration.ofMillis(half + (half > 0 ? random.nextLong(half + 1) : 0));
     }
 }
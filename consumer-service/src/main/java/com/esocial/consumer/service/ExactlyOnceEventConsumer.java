@@ -0,0 +1,404 @@
+package com.esocial.consumer.service;
+
+import com.esocial.consumer.metrics.ConsumerMetrics;
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.processing.AfterCommitActions;
+import com.esocial.consumer.processing.DuplicateEventException;
+import com.esocial.consumer.processing.EventCoalescer;
+import com.esocial.consumer.repository.ConsumerOffsetRepository;
+import com.esocial.consumer.validation.ValidationResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Modo exactly-once (read-process-write) do consumer.
+ *
+ * Cada poll é processado em uma única transação do banco: validação, gravação dos aprovados
+ * (employees, histórico, processed_events) e o próximo offset de cada partição em
+ * public.consumer_offsets. Os reprovados vão para a DLQ em uma transação Kafka confirmada
+ * logo antes do commit do banco. Na atribuição de partições o consumer faz seek para o
+ * offset gravado, então um restart ou rebalance continua exatamente do último lote commitado.
+ * O ack no Kafka continua sendo feito após o commit, apenas para o monitoramento de lag.
+ * Habilitado por app.kafka.listener.exactly-once.enabled (desabilita os demais listeners).
+ */
+@Slf4j
+@Service
+public class ExactlyOnceEventConsumer extends AbstractConsumerSeekAware {
+
+    private final ValidationService validationService;
+    private final PersistenceService persistenceService;
+    private final DlqPublisher dlqPublisher;
+    private final ConsumerOffsetRepository offsetRepository;
+    private final EventCoalescer eventCoalescer;
+    private final ConsumerMetrics consumerMetrics;
+    private final KafkaTemplate<String, String> transactionalTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate savepointTemplate;
+    private final String groupId;
+    private final long sendTimeoutMs;
+    private final Counter eventsConsumedCounter;
+    private final Counter eventsProcessedCounter;
+    private final Counter eventsFailedCounter;
+    private final Counter eventsRecoveredCounter;
+
+    /**
+     * Registro reprovado (validação ou persistência) a caminho da DLQ
+     */
+    private record Rejected(ConsumerRecord<String, EmployeeEventDTO> record, Exception cause) {
+    }
+
+    private record BatchOutcome(int persisted, int rejected) {
+    }
+
+    @Autowired
+    public ExactlyOnceEventConsumer(
+            ValidationService validationService,
+            PersistenceService persistenceService,
+            DlqPublisher dlqPublisher,
+            ConsumerOffsetRepository offsetRepository,
+            EventCoalescer eventCoalescer,
+            ConsumerMetrics consumerMetrics,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            KafkaProperties kafkaProperties,
+            @Value("${app.kafka.listener.exactly-once.transaction-id-prefix:esocial-consumer-eos-}") String transactionIdPrefix,
+            @Value("${spring.kafka.consumer.group-id}") String groupId,
+            @Value("${app.kafka.listener.exactly-once.send-timeout-ms:30000}") long sendTimeoutMs) {
+        this(validationService, persistenceService, dlqPublisher, offsetRepository, eventCoalescer, consumerMetrics,
+                transactionalTemplate(kafkaProperties, transactionIdPrefix),
+                transactionManager, meterRegistry, groupId, sendTimeoutMs);
+    }
+
+    ExactlyOnceEventConsumer(
+            ValidationService validationService,
+            PersistenceService persistenceService,
+            DlqPublisher dlqPublisher,
+            ConsumerOffsetRepository offsetRepository,
+            EventCoalescer eventCoalescer,
+            ConsumerMetrics consumerMetrics,
+            KafkaTemplate<String, String> transactionalTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            String groupId,
+            long sendTimeoutMs) {
+        this.validationService = validationService;
+        this.persistenceService = persistenceService;
+        this.dlqPublisher = dlqPublisher;
+        this.offsetRepository = offsetRepository;
+        this.eventCoalescer = eventCoalescer;
+        this.consumerMetrics = consumerMetrics;
+        this.transactionalTemplate = transactionalTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.groupId = groupId;
+        this.sendTimeoutMs = sendTimeoutMs;
+
+        this.eventsConsumedCounter = Counter.builder("events.consumed")
+                .description("Total de eventos consumidos do Kafka")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+        this.eventsProcessedCounter = Counter.builder("events.processed")
+                .description("Total de eventos processados com sucesso")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+        this.eventsFailedCounter = Counter.builder("events.failed")
+                .description("Total de eventos que falharam no processamento")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+
+        this.eventsRecoveredCounter = Counter.builder("events.recovered")
+                .description("Eventos de lotes que esgotaram as tentativas, enviados à DLQ pelo recoverer")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Producer próprio com transactional.id; não é registrado como bean para não substituir
+     * o KafkaTemplate autoconfigurado usado pelo DlqPublisher e pelo DlqRetryService.
+     */
+    private static KafkaTemplate<String, String> transactionalTemplate(KafkaProperties kafkaProperties,
+                                                                       String transactionIdPrefix) {
+        DefaultKafkaProducerFactory<String, String> producerFactory = new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(null), new StringSerializer(), new StringSerializer());
+        producerFactory.setTransactionIdPrefix(transactionIdPrefix);
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    /**
+     * Restaura a posição de cada partição a partir de public.consumer_offsets; partições
+     * sem registro (primeira execução no modo) seguem o offset commitado no Kafka.
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+
+        Map<TopicPartition, Long> stored = offsetRepository.findOffsets(groupId, assignments.keySet());
+        stored.forEach((partition, offset) -> callback.seek(partition.topic(), partition.partition(), offset));
+
+        log.info("Partições atribuídas: {} (seek para o offset gravado no banco em {})",
+                assignments.size(), stored.size());
+    }
+
+    @KafkaListener(
+            topics = {"${app.kafka.topics.employee-create}",
+                      "${app.kafka.topics.employee-update}",
+                      "${app.kafka.topics.employee-delete}"},
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "exactlyOnceKafkaListenerContainerFactory",
+            autoStartup = "${app.kafka.listener.exactly-once.enabled:false}"
+    )
+    public void consumeEmployeeEventBatch(
+            List<ConsumerRecord<String, EmployeeEventDTO>> records,
+            Acknowledgment acknowledgment) {
+
+        consumerMetrics.recordBatchSize(records.size());
+
+        // Qualquer exceção aqui desfaz o lote inteiro (banco e DLQ); o error handler reentrega o poll
+        BatchOutcome outcome = transactionTemplate.execute(status -> processBatch(records));
+
+        acknowledgment.acknowledge();
+
+        log.info("Lote processado (exactly-once): recebidos={}, gravados={}, rejeitados={}",
+                records.size(), outcome.persisted(), outcome.rejected());
+    }
+
+    private BatchOutcome processBatch(List<ConsumerRecord<String, EmployeeEventDTO>> records) {
+        Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+        List<ConsumerRecord<String, EmployeeEventDTO>> received = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, EmployeeEventDTO> record : records) {
+            nextOffsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset() + 1, Math::max);
+
+            EmployeeEventDTO event = record.value();
+            if (event == null) {
+                log.warn("Registro sem payload ignorado: topic={}, partition={}, offset={}",
+                        record.topic(), record.partition(), record.offset());
+                continue;
+            }
+
+            eventsConsumedCounter.increment();
+            consumerMetrics.incrementConsumedEvents(event.getEventType(), record.topic());
+            consumerMetrics.recordPayloadSize(KafkaConsumerService.estimatePayloadSize(event));
+            received.add(record);
+        }
+
+        List<Rejected> rejected = new ArrayList<>();
+        EventCoalescer.Coalesced coalesced = eventCoalescer.coalesce(received);
+        List<ConsumerRecord<String, EmployeeEventDTO>> approved = validate(coalesced, coalesced.records(), rejected);
+        int persisted = persist(approved, rejected);
+
+        publishToDlq(rejected);
+        offsetRepository.saveOffsets(groupId, nextOffsets);
+
+        return new BatchOutcome(persisted, rejected.size());
+    }
+
+    /**
+     * Valida o lote em um savepoint; se a validação em lote falhar, valida registro a registro.
+     * Os erros de validação são gravados na transação do lote (não passam pelo write-behind).
+     * Reentregas não existem neste modo (o offset avança junto com os dados), por isso não há
+     * o filtro de duplicados do modo batch. Um sobrevivente da coalescência reprovado devolve
+     * os UPDATEs que absorveu, validados em seguida e incluídos nos aprovados na ordem do poll.
+     */
+    private List<ConsumerRecord<String, EmployeeEventDTO>> validate(
+            EventCoalescer.Coalesced coalesced, List<ConsumerRecord<String, EmployeeEventDTO>> received,
+            List<Rejected> rejected) {
+
+        List<ConsumerRecord<String, EmployeeEventDTO>> approved = new ArrayList<>(received.size());
+        if (received.isEmpty()) {
+            return approved;
+        }
+
+        List<ConsumerRecord<String, EmployeeEventDTO>> fallback = new ArrayList<>();
+        Timer.Sample validationSample = consumerMetrics.startValidation();
+        try {
+            List<ValidationResult> results;
+            try {
+                results = savepointTemplate.execute(status -> validationService.validateBatchAndWriteErrors(received));
+            } catch (Exception e) {
+                log.error("Erro na validação do lote, validando registro a registro: {}", e.getMessage(), e);
+                results = new ArrayList<>(received.size());
+                for (ConsumerRecord<String, EmployeeEventDTO> record : received) {
+                    results.add(validateRecord(record, rejected));
+                }
+            }
+
+            for (int i = 0; i < received.size(); i++) {
+                ConsumerRecord<String, EmployeeEventDTO> record = received.get(i);
+                ValidationResult result = results.get(i);
+                if (result == null) {
+                    continue; // Falha na validação individual, já encaminhado para a DLQ
+                }
+
+                EmployeeEventDTO event = record.value();
+                if (result.isValid()) {
+                    consumerMetrics.incrementValidationSuccess(event.getEventType());
+                    approved.add(record);
+                } else {
+                    consumerMetrics.incrementValidationFailure(event.getEventType(),
+                            result.hasErrors() ? "ERROR" : "WARNING");
+                    log.warn("Evento {} falhou na validação. Total de erros: {}",
+                            event.getEventId(), result.getErrors().size());
+                    rejected.add(new Rejected(record, new RuntimeException("Falha na validação: " +
+                            result.getErrors().size() + " erros encontrados")));
+                    fallback.addAll(coalesced.fallback(record));
+                }
+            }
+        } finally {
+            consumerMetrics.stopValidation(validationSample);
+        }
+
+        if (!fallback.isEmpty()) {
+            approved.addAll(validate(coalesced, fallback, rejected));
+            return coalesced.inOriginalOrder(approved);
+        }
+        return approved;
+    }
+
+    private ValidationResult validateRecord(ConsumerRecord<String, EmployeeEventDTO> record, List<Rejected> rejected) {
+        try {
+            return savepointTemplate.execute(status ->
+                    validationService.validateBatchAndWriteErrors(List.of(record)).get(0));
+        } catch (Exception e) {
+            log.error("Erro ao validar evento {}: {}", record.value().getEventId(), e.getMessage(), e);
+            rejected.add(new Rejected(record, e));
+            return null;
+        }
+    }
+
+    /**
+     * Persiste os aprovados em um savepoint; se o lote falhar, volta ao savepoint e
+     * persiste um a um (cada um no seu savepoint) para isolar o registro problemático.
+     */
+    private int persist(List<ConsumerRecord<String, EmployeeEventDTO>> approved, List<Rejected> rejected) {
+        if (approved.isEmpty()) {
+            return 0;
+        }
+
+        Timer.Sample persistenceSample = consumerMetrics.startPersistence();
+        try {
+            persistInSavepoint(() -> persistenceService.persistBatch(approved));
+            eventsProcessedCounter.increment(approved.size());
+            return approved.size();
+        } catch (Exception e) {
+            log.error("Erro ao persistir lote de {} eventos, persistindo individualmente: {}",
+                    approved.size(), e.getMessage(), e);
+
+            int persisted = 0;
+            for (ConsumerRecord<String, EmployeeEventDTO> record : approved) {
+                try {
+                    persistInSavepoint(() -> persistenceService.persistEvent(
+                            record.value(), record.offset(), record.partition(), record.topic()));
+                    eventsProcessedCounter.increment();
+                    persisted++;
+                } catch (DuplicateEventException ex) {
+                    // Gravado antes da ativação do modo exactly-once
+                    log.info("Evento já processado: eventId={}", record.value().getEventId());
+                } catch (Exception ex) {
+                    log.error("Erro ao persistir evento {}: {}", record.value().getEventId(), ex.getMessage(), ex);
+                    rejected.add(new Rejected(record, ex));
+                }
+            }
+            return persisted;
+        } finally {
+            consumerMetrics.stopPersistence(persistenceSample);
+        }
+    }
+
+    /**
+     * Executa a gravação em um savepoint. As atualizações pós-commit (cache de dedup e índice
+     * de unicidade) registradas dentro dele só passam para a transação externa se o savepoint
+     * foi confirmado; num savepoint desfeito elas são descartadas junto com as linhas.
+     */
+    private void persistInSavepoint(Runnable body) {
+        List<Runnable> afterCommit = AfterCommitActions.collect(
+                () -> savepointTemplate.executeWithoutResult(status -> body.run()));
+        afterCommit.forEach(AfterCommitActions::register);
+    }
+
+    /**
+     * Publica os reprovados em uma transação Kafka e aguarda os acks; uma falha aborta a
+     * transação Kafka e desfaz também a transação do banco. A transação Kafka é confirmada
+     * antes do commit do banco: se o commit do banco falhar, o lote é reprocessado e a DLQ
+     * recebe as mesmas mensagens de novo (mesmo eventId), único ponto at-least-once do modo.
+     */
+    private void publishToDlq(List<Rejected> rejected) {
+        if (rejected.isEmpty()) {
+            return;
+        }
+        eventsFailedCounter.increment(rejected.size());
+
+        transactionalTemplate.executeInTransaction(operations -> {
+            List<CompletableFuture<?>> acks = new ArrayList<>(rejected.size());
+            for (Rejected r : rejected) {
+                ConsumerRecord<String, EmployeeEventDTO> record = r.record();
+                acks.add(dlqPublisher.publishTransactional(operations, record.value(), record.topic(),
+                        record.offset(), record.partition(), r.cause()));
+            }
+            try {
+                CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Publicação na DLQ interrompida", e);
+            } catch (ExecutionException | TimeoutException e) {
+                throw new IllegalStateException("Falha ao publicar " + rejected.size() + " evento(s) na DLQ", e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Recoverer do error handler, chamado registro a registro quando o lote esgota as tentativas:
+     * publica o registro na DLQ e grava o offset seguinte na mesma transação do banco, senão o
+     * seek da próxima atribuição voltaria a entregá-lo. Se a recuperação também falhar (ex.:
+     * banco fora do ar), a exceção faz o container reentregar o lote e as tentativas recomeçam.
+     */
+    @SuppressWarnings("unchecked")
+    public void recover(ConsumerRecord<?, ?> record, Exception exception) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        transactionTemplate.executeWithoutResult(status -> {
+            if (record.value() instanceof EmployeeEventDTO) {
+                publishToDlq(List.of(new Rejected((ConsumerRecord<String, EmployeeEventDTO>) record, exception)));
+            }
+            offsetRepository.saveOffsets(groupId, Map.of(partition, record.offset() + 1));
+        });
+        eventsRecoveredCounter.increment();
+        log.error("Tentativas esgotadas, registro enviado para a DLQ: topic={}, partition={}, offset={}: {}",
+                record.topic(), record.partition(), record.offset(), exception.getMessage());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (transactionalTemplate.getProducerFactory() instanceof DefaultKafkaProducerFactory<String, String> factory) {
+            factory.destroy();
+        }
+    }
+}
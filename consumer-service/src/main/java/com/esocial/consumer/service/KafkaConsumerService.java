@@ -2,14 +2,17 @@ package com.esocial.consumer.service;
 
 import com.esocial.consumer.metrics.ConsumerMetrics;
 import com.esocial.consumer.model.dto.EmployeeEventDTO;
-import com.esocial.consumer.model.entity.DlqEvent;
-import com.esocial.consumer.repository.DlqEventRepository;
+import com.esocial.consumer.processing.DuplicateEventException;
+import com.esocial.consumer.processing.EventCoalescer;
+import com.esocial.consumer.processing.EventDeduplicator;
+import com.esocial.consumer.processing.KeyOrderedExecutor;
 import com.esocial.consumer.validation.ValidationResult;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Headers;
 import org.slf4j.MDC;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -20,6 +23,8 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -29,26 +34,32 @@ public class KafkaConsumerService {
 
     private final ValidationService validationService;
     private final PersistenceService persistenceService;
-    private final DlqEventRepository dlqEventRepository;
-    private final ObjectMapper objectMapper;
+    private final DlqPublisher dlqPublisher;
     private final Counter eventsConsumedCounter;
     private final Counter eventsProcessedCounter;
     private final Counter eventsFailedCounter;
     private final Timer processingTimer;
     private final ConsumerMetrics consumerMetrics;
+    private final KeyOrderedExecutor keyOrderedExecutor;
+    private final EventDeduplicator eventDeduplicator;
+    private final EventCoalescer eventCoalescer;
 
     public KafkaConsumerService(
             ValidationService validationService,
             PersistenceService persistenceService,
-            DlqEventRepository dlqEventRepository,
-            ObjectMapper objectMapper,
+            DlqPublisher dlqPublisher,
             MeterRegistry meterRegistry,
-            ConsumerMetrics consumerMetrics) {
+            ConsumerMetrics consumerMetrics,
+            KeyOrderedExecutor keyOrderedExecutor,
+            EventDeduplicator eventDeduplicator,
+            EventCoalescer eventCoalescer) {
         this.validationService = validationService;
         this.persistenceService = persistenceService;
-        this.dlqEventRepository = dlqEventRepository;
-        this.objectMapper = objectMapper;
+        this.dlqPublisher = dlqPublisher;
         this.consumerMetrics = consumerMetrics;
+        this.keyOrderedExecutor = keyOrderedExecutor;
+        this.eventDeduplicator = eventDeduplicator;
+        this.eventCoalescer = eventCoalescer;
 
         this.eventsConsumedCounter = Counter.builder("events.consumed")
                 .description("Total de eventos consumidos do Kafka")
@@ -69,6 +80,11 @@ public class KafkaConsumerService {
                 .description("Tempo de processamento de eventos")
                 .tag("service", "consumer")
                 .register(meterRegistry);
+
+        Gauge.builder("events.parallel.pending", keyOrderedExecutor, KeyOrderedExecutor::pending)
+                .description("Eventos enfileirados ou em processamento nos workers ordenados por chave")
+                .tag("service", "consumer")
+                .register(meterRegistry);
     }
 
     @KafkaListener(
@@ -76,7 +92,8 @@ public class KafkaConsumerService {
                       "${app.kafka.topics.employee-update}",
                       "${app.kafka.topics.employee-delete}"},
             groupId = "${spring.kafka.consumer.group-id}",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            autoStartup = "#{!${app.kafka.listener.batch-enabled:false} && !${app.kafka.listener.parallel.enabled:false} && !${app.kafka.listener.exactly-once.enabled:false}}"
     )
     public void consumeEmployeeEvent(
             @Payload EmployeeEventDTO event,
@@ -107,26 +124,256 @@ public class KafkaConsumerService {
             log.info("Evento consumido: eventId={}, type={}, topic={}, partition={}, offset={}, size={}bytes, correlationId={}",
                     event.getEventId(), event.getEventType(), topic, partition, offset, payloadSize, correlationId);
 
-            processingTimer.record(() -> {
-                try {
-                    processEvent(event, topic, offset, partition);
+            processingTimer.record(() -> processAndAcknowledge(event, topic, offset, partition, acknowledgment));
+        } finally {
+            MDC.remove("correlationId");
+        }
+    }
 
-                    eventsProcessedCounter.increment();
+    /**
+     * Modo paralelo: o registro é repassado ao worker da sua chave (sourceId), preservando a
+     * ordem por colaborador. O ack é feito pelo worker ao terminar (sucesso ou DLQ) e o container
+     * comita apenas até o menor offset contíguo concluído de cada partição.
+     * Habilitado por app.kafka.listener.parallel.enabled (desabilita o listener por registro).
+     */
+    @KafkaListener(
+            topics = {"${app.kafka.topics.employee-create}",
+                      "${app.kafka.topics.employee-update}",
+                      "${app.kafka.topics.employee-delete}"},
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "parallelKafkaListenerContainerFactory",
+            autoStartup = "#{${app.kafka.listener.parallel.enabled:false} && !${app.kafka.listener.batch-enabled:false} && !${app.kafka.listener.exactly-once.enabled:false}}"
+    )
+    public void consumeEmployeeEventParallel(
+            ConsumerRecord<String, EmployeeEventDTO> record,
+            Acknowledgment acknowledgment) {
 
-                    acknowledgment.acknowledge();
+        EmployeeEventDTO event = record.value();
+        if (event == null) {
+            log.warn("Registro sem payload ignorado: topic={}, partition={}, offset={}",
+                    record.topic(), record.partition(), record.offset());
+            acknowledgment.acknowledge();
+            return;
+        }
 
-                    log.info("Evento processado com sucesso: eventId={}", event.getEventId());
+        eventsConsumedCounter.increment();
+        consumerMetrics.incrementConsumedEvents(event.getEventType(), record.topic());
+        consumerMetrics.recordPayloadSize(estimatePayloadSize(event));
+
+        String key = event.getSourceId() != null ? event.getSourceId() : record.key();
+        keyOrderedExecutor.execute(key, () -> {
+            UUID correlationId = extractCorrelationIdAsUUID(record.headers());
+            MDC.put("correlationId", (correlationId != null ? correlationId : UUID.randomUUID()).toString());
+            try {
+                processingTimer.record(() -> processAndAcknowledge(
+                        event, record.topic(), record.offset(), record.partition(), acknowledgment));
+            } finally {
+                MDC.remove("correlationId");
+            }
+        });
+    }
 
-                } catch (Exception e) {
-                    eventsFailedCounter.increment();
+    private void processAndAcknowledge(EmployeeEventDTO event, String topic, Long offset,
+                                       Integer partition, Acknowledgment acknowledgment) {
+        try {
+            // Reentrega (rebalance): confirma sem validar nem gravar
+            if (eventDeduplicator.isDuplicate(event)) {
+                log.info("Evento duplicado confirmado sem processamento: eventId={}, partition={}, offset={}",
+                        event.getEventId(), partition, offset);
+                acknowledgment.acknowledge();
+                return;
+            }
+
+            processEvent(event, topic, offset, partition);
+
+            eventsProcessedCounter.increment();
+
+            acknowledgment.acknowledge();
+
+            log.info("Evento processado com sucesso: eventId={}", event.getEventId());
+
+        } catch (DuplicateEventException e) {
+            eventDeduplicator.recordDuplicate(event.getEventId());
+            log.info("Evento gravado por outra entrega: eventId={}", event.getEventId());
+            acknowledgment.acknowledge();
+        } catch (Exception e) {
+            eventsFailedCounter.increment();
+
+            log.error("Erro ao processar evento {}: {}", event.getEventId(), e.getMessage(), e);
+
+            sendToDLQ(event, topic, offset, partition, e);
+
+            acknowledgment.acknowledge();
+        }
+    }
+
+    /**
+     * Modo batch: valida o poll inteiro, persiste os eventos aprovados em uma única
+     * transação, envia os reprovados para a DLQ e confirma o offset uma vez por lote.
+     * Habilitado por app.kafka.listener.batch-enabled (desabilita o listener por registro).
+     */
+    @KafkaListener(
+            topics = {"${app.kafka.topics.employee-create}",
+                      "${app.kafka.topics.employee-update}",
+                      "${app.kafka.topics.employee-delete}"},
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "#{${app.kafka.listener.batch-enabled:false} && !${app.kafka.listener.exactly-once.enabled:false}}"
+    )
+    public void consumeEmployeeEventBatch(
+            List<ConsumerRecord<String, EmployeeEventDTO>> records,
+            Acknowledgment acknowledgment) {
+
+        consumerMetrics.recordBatchSize(records.size());
+        log.info("Lote consumido: {} registros", records.size());
+
+        List<ConsumerRecord<String, EmployeeEventDTO>> received = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, EmployeeEventDTO> record : records) {
+            EmployeeEventDTO event = record.value();
+            if (event == null) {
+                log.warn("Registro sem payload ignorado: topic={}, partition={}, offset={}",
+                        record.topic(), record.partition(), record.offset());
+                continue;
+            }
+
+            eventsConsumedCounter.increment();
+            consumerMetrics.incrementConsumedEvents(event.getEventType(), record.topic());
+            consumerMetrics.recordPayloadSize(estimatePayloadSize(event));
+            received.add(record);
+        }
 
-                    log.error("Erro ao processar evento {}: {}", event.getEventId(), e.getMessage(), e);
+        // Reentregas do poll são descartadas antes da validação (uma consulta por lote)
+        List<ConsumerRecord<String, EmployeeEventDTO>> unique = eventDeduplicator.filterDuplicates(received);
 
-                    sendToDLQ(event, topic, offset, partition, e);
+        // Rajadas de UPDATEs do mesmo colaborador viram uma única validação e gravação
+        EventCoalescer.Coalesced coalesced = eventCoalescer.coalesce(unique);
 
-                    acknowledgment.acknowledge();
+        List<ConsumerRecord<String, EmployeeEventDTO>> approved = validateBatch(coalesced, coalesced.records());
+
+        if (!approved.isEmpty()) {
+            persistBatch(approved);
+        }
+
+        acknowledgment.acknowledge();
+
+        log.info("Lote processado: recebidos={}, duplicados={}, coalescidos={}, aprovados={}, rejeitados={}",
+                received.size(), received.size() - unique.size(), unique.size() - coalesced.records().size(),
+                approved.size(), coalesced.records().size() - approved.size());
+    }
+
+    /**
+     * Valida o lote e envia os reprovados para a DLQ, devolvendo apenas os aprovados.
+     * Se a validação em lote falhar, cai para o processamento registro a registro.
+     * Um sobrevivente da coalescência reprovado devolve os UPDATEs que absorveu, que são
+     * validados em seguida e entram nos aprovados na ordem original do poll.
+     */
+    private List<ConsumerRecord<String, EmployeeEventDTO>> validateBatch(
+            EventCoalescer.Coalesced coalesced, List<ConsumerRecord<String, EmployeeEventDTO>> received) {
+
+        List<ConsumerRecord<String, EmployeeEventDTO>> approved = new ArrayList<>(received.size());
+        if (received.isEmpty()) {
+            return approved;
+        }
+
+        List<ValidationResult> results;
+        Timer.Sample validationSample = consumerMetrics.startValidation();
+        try {
+            results = validationService.validateBatch(received);
+        } catch (Exception e) {
+            log.error("Erro na validação do lote, processando registro a registro: {}", e.getMessage(), e);
+            for (ConsumerRecord<String, EmployeeEventDTO> record : received) {
+                // Sem coalescência neste caminho: os absorvidos antes do sobrevivente
+                coalesced.fallback(record).forEach(this::processRecordIndividually);
+                processRecordIndividually(record);
+            }
+            return approved;
+        } finally {
+            consumerMetrics.stopValidation(validationSample);
+        }
+
+        List<ConsumerRecord<String, EmployeeEventDTO>> fallback = new ArrayList<>();
+        for (int i = 0; i < received.size(); i++) {
+            ConsumerRecord<String, EmployeeEventDTO> record = received.get(i);
+            EmployeeEventDTO event = record.value();
+            ValidationResult validationResult = results.get(i);
+
+            if (validationResult.isValid()) {
+                consumerMetrics.incrementValidationSuccess(event.getEventType());
+                approved.add(record);
+            } else {
+                String severity = validationResult.hasErrors() ? "ERROR" : "WARNING";
+                consumerMetrics.incrementValidationFailure(event.getEventType(), severity);
+                eventsFailedCounter.increment();
+
+                log.warn("Evento {} falhou na validação. Total de erros: {}",
+                        event.getEventId(), validationResult.getErrors().size());
+                fallback.addAll(coalesced.fallback(record));
+                sendToDLQ(record, new RuntimeException("Falha na validação: " +
+                        validationResult.getErrors().size() + " erros encontrados"));
+            }
+        }
+
+        if (!fallback.isEmpty()) {
+            approved.addAll(validateBatch(coalesced, fallback));
+            return coalesced.inOriginalOrder(approved);
+        }
+        return approved;
+    }
+
+    /**
+     * Persiste os aprovados em uma transação; se o lote falhar, persiste um a um
+     * para isolar o registro problemático na DLQ.
+     */
+    private void persistBatch(List<ConsumerRecord<String, EmployeeEventDTO>> approved) {
+        Timer.Sample persistenceSample = consumerMetrics.startPersistence();
+        try {
+            persistenceService.persistBatch(approved);
+            eventsProcessedCounter.increment(approved.size());
+        } catch (Exception e) {
+            log.error("Erro ao persistir lote de {} eventos, persistindo individualmente: {}",
+                    approved.size(), e.getMessage(), e);
+
+            for (ConsumerRecord<String, EmployeeEventDTO> record : approved) {
+                try {
+                    persistenceService.persistEvent(record.value(), record.offset(),
+                            record.partition(), record.topic());
+                    eventsProcessedCounter.increment();
+                } catch (DuplicateEventException ex) {
+                    eventDeduplicator.recordDuplicate(record.value().getEventId());
+                    log.info("Evento gravado por outra entrega: eventId={}", record.value().getEventId());
+                } catch (Exception ex) {
+                    eventsFailedCounter.increment();
+                    log.error("Erro ao persistir evento {}: {}", record.value().getEventId(), ex.getMessage(), ex);
+                    sendToDLQ(record, ex);
                 }
-            });
+            }
+        } finally {
+            consumerMetrics.stopPersistence(persistenceSample);
+        }
+    }
+
+    private void processRecordIndividually(ConsumerRecord<String, EmployeeEventDTO> record) {
+        try {
+            processEvent(record.value(), record.topic(), record.offset(), record.partition());
+            eventsProcessedCounter.increment();
+        } catch (DuplicateEventException e) {
+            eventDeduplicator.recordDuplicate(record.value().getEventId());
+            log.info("Evento gravado por outra entrega: eventId={}", record.value().getEventId());
+        } catch (Exception e) {
+            eventsFailedCounter.increment();
+            log.error("Erro ao processar evento {}: {}", record.value().getEventId(), e.getMessage(), e);
+            sendToDLQ(record, e);
+        }
+    }
+
+    private void sendToDLQ(ConsumerRecord<String, EmployeeEventDTO> record, Exception exception) {
+        UUID correlationId = extractCorrelationIdAsUUID(record.headers());
+        if (correlationId != null) {
+            MDC.put("correlationId", correlationId.toString());
+        }
+        try {
+            sendToDLQ(record.value(), record.topic(), record.offset(), record.partition(), exception);
         } finally {
             MDC.remove("correlationId");
         }
@@ -174,45 +421,11 @@ public class KafkaConsumerService {
 
     private void sendToDLQ(EmployeeEventDTO event, String topic, Long offset,
                            Integer partition, Exception exception) {
-        try {
-            String eventPayload = objectMapper.writeValueAsString(event);
-            String stackTrace = getStackTrace(exception);
-
-            DlqEvent dlqEvent = DlqEvent.builder()
-                    .eventId(event.getEventId())
-                    .eventType(event.getEventType())
-                    .sourceTable("employees")
-                    .sourceId(event.getSourceId())
-                    .eventPayload(eventPayload)
-                    .errorMessage(exception.getMessage())
-                    .stackTrace(stackTrace)
-                    .kafkaOffset(offset)
-                    .kafkaPartition(partition)
-                    .kafkaTopic(topic)
-                    .correlationId(event.getCorrelationId())
-                    .build();
-
-            dlqEventRepository.save(dlqEvent);
-
-            log.info("Evento enviado para DLQ: eventId={}, dlqId={}",
-                    event.getEventId(), dlqEvent.getId());
-
-        } catch (Exception e) {
-            log.error("Erro ao enviar evento para DLQ: {}", e.getMessage(), e);
-        }
-    }
-
-    private String getStackTrace(Exception exception) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(exception.getMessage()).append("\n");
-        for (StackTraceElement element : exception.getStackTrace()) {
-            sb.append(element.toString()).append("\n");
-            if (sb.length() > 5000) break;
-        }
-        return sb.toString();
+        // Publicação assíncrona no tópico de DLQ; a gravação em dlq_events fica com o DlqEventWriter
+        dlqPublisher.publish(event, topic, offset, partition, exception);
     }
 
-    private int estimatePayloadSize(EmployeeEventDTO event) {
+    static int estimatePayloadSize(EmployeeEventDTO event) {
         int baseSize = 300;
 
         if (event.getSourceId() != null) baseSize += event.getSourceId().length() * 2;
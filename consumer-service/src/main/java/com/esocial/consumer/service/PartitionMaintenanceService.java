@@ -0,0 +1,163 @@
+package com.esocial.consumer.service;
+
+import com.esocial.consumer.repository.PartitionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Manutenção das tabelas particionadas por mês (employee_events, validation_errors e
+ * audit.employees_history).
+ *
+ * - Cria as partições do mês atual e dos próximos {@code months-ahead} meses, para que as
+ *   gravações nunca caiam na partição DEFAULT.
+ * - Desanexa as partições além da retenção de cada tabela e as move para o schema archive
+ *   (exportação e remoção ficam com a operação). Um DETACH é instantâneo, ao contrário
+ *   de um DELETE por data.
+ * - Tabelas não particionadas (banco sem o script 12) são ignoradas.
+ *
+ * Roda na subida e pelo cron; as operações são idempotentes e uma falha (ex.: lock_timeout
+ * no DETACH) é refeita na execução seguinte.
+ */
+@Slf4j
+@Service
+public class PartitionMaintenanceService {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final PartitionRepository partitionRepository;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final List<ManagedTable> tables;
+    private final Counter createdCounter;
+    private final Counter archivedCounter;
+
+    /**
+     * Tabela particionada e quantos meses completos mantém anexados (0 = sem arquivamento)
+     */
+    record ManagedTable(String table, int retentionMonths) {
+
+        String schema() {
+            return table.substring(0, table.indexOf('.'));
+        }
+
+        String partitionName(YearMonth month) {
+            return table.substring(table.indexOf('.') + 1) + "_p" + month.format(PARTITION_SUFFIX);
+        }
+    }
+
+    public PartitionMaintenanceService(
+            PartitionRepository partitionRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.partitions.enabled:true}") boolean enabled,
+            @Value("${app.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${app.partitions.retention-months.employee-events:24}") int employeeEventsRetention,
+            @Value("${app.partitions.retention-months.validation-errors:6}") int validationErrorsRetention,
+            @Value("${app.partitions.retention-months.employees-history:60}") int employeesHistoryRetention) {
+        this.partitionRepository = partitionRepository;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.tables = List.of(
+                new ManagedTable("public.employee_events", employeeEventsRetention),
+                new ManagedTable("public.validation_errors", validationErrorsRetention),
+                new ManagedTable("audit.employees_history", employeesHistoryRetention));
+        this.createdCounter = Counter.builder("partitions.created")
+                .description("Partições mensais criadas antecipadamente pela manutenção")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+        this.archivedCounter = Counter.builder("partitions.archived")
+                .description("Partições desanexadas e movidas para o schema archive")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        run();
+    }
+
+    @Scheduled(cron = "${app.partitions.cron:0 15 2 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        maintain(YearMonth.now());
+    }
+
+    void maintain(YearMonth current) {
+        for (ManagedTable managed : tables) {
+            try {
+                if (!partitionRepository.isPartitioned(managed.table())) {
+                    log.debug("Tabela {} não é particionada; manutenção ignorada", managed.table());
+                    continue;
+                }
+                List<String> partitions = partitionRepository.findPartitions(managed.table());
+                ensureFuturePartitions(managed, partitions, current);
+                archiveExpiredPartitions(managed, partitions, current);
+                if (partitionRepository.hasDefaultRows(managed.table())) {
+                    log.warn("Partição DEFAULT de {} tem linhas: crie as partições dos meses correspondentes " +
+                            "e mova as linhas para elas", managed.table());
+                }
+            } catch (Exception e) {
+                log.error("Erro na manutenção das partições de {}: {}", managed.table(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void ensureFuturePartitions(ManagedTable managed, List<String> partitions, YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (partitions.contains(managed.partitionName(month))) {
+                continue;
+            }
+            String created = partitionRepository.createMonthlyPartition(managed.table(), month.atDay(1));
+            createdCounter.increment();
+            log.info("Partição {} criada", created);
+        }
+    }
+
+    /**
+     * Partições cujo mês inteiro é anterior ao início da retenção
+     */
+    private void archiveExpiredPartitions(ManagedTable managed, List<String> partitions, YearMonth current) {
+        if (managed.retentionMonths() <= 0) {
+            return;
+        }
+        YearMonth oldestKept = current.minusMonths(managed.retentionMonths());
+        for (String partition : partitions) {
+            YearMonth month = partitionMonth(partition);
+            if (month == null || !month.isBefore(oldestKept)) {
+                continue;
+            }
+            String archived = partitionRepository.archivePartition(managed.schema() + "." + partition);
+            archivedCounter.increment();
+            log.info("Partição {} de {} além da retenção de {} meses movida para {}",
+                    partition, managed.table(), managed.retentionMonths(), archived);
+        }
+    }
+
+    /**
+     * Mês do sufixo _pAAAAMM; null para a DEFAULT e partições com outro nome
+     */
+    private static YearMonth partitionMonth(String partition) {
+        int index = partition.lastIndexOf("_p");
+        if (index < 0) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(index + 2), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
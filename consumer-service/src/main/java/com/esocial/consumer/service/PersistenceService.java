@@ -2,15 +2,24 @@ package com.esocial.consumer.service;
 
 import com.esocial.consumer.model.dto.EmployeeEventDTO;
 import com.esocial.consumer.model.entity.Employee;
-import com.esocial.consumer.model.entity.EmployeeHistory;
-import com.esocial.consumer.repository.EmployeeHistoryRepository;
+import com.esocial.consumer.processing.DuplicateEventException;
+import com.esocial.consumer.processing.EventDeduplicator;
+import com.esocial.consumer.repository.EmployeeBatchRepository;
+import com.esocial.consumer.repository.EmployeeBatchRepository.WriteResult;
 import com.esocial.consumer.repository.EmployeeRepository;
+import com.esocial.consumer.repository.ProcessedEventRepository;
+import com.esocial.consumer.validation.index.DocumentUniquenessIndex;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -18,17 +27,27 @@ import java.util.Optional;
 public class PersistenceService {
     
     private final EmployeeRepository employeeRepository;
-    private final EmployeeHistoryRepository employeeHistoryRepository;
+    private final EmployeeBatchRepository employeeBatchRepository;
+    private final DocumentUniquenessIndex uniquenessIndex;
+    private final ProcessedEventRepository processedEventRepository;
+    private final EventDeduplicator eventDeduplicator;
     private final Counter employeesCreatedCounter;
     private final Counter employeesUpdatedCounter;
     private final Counter employeesDeletedCounter;
+    private final Counter employeesUnchangedCounter;
     
     public PersistenceService(
             EmployeeRepository employeeRepository,
-            EmployeeHistoryRepository employeeHistoryRepository,
+            EmployeeBatchRepository employeeBatchRepository,
+            DocumentUniquenessIndex uniquenessIndex,
+            ProcessedEventRepository processedEventRepository,
+            EventDeduplicator eventDeduplicator,
             MeterRegistry meterRegistry) {
         this.employeeRepository = employeeRepository;
-        this.employeeHistoryRepository = employeeHistoryRepository;
+        this.employeeBatchRepository = employeeBatchRepository;
+        this.uniquenessIndex = uniquenessIndex;
+        this.processedEventRepository = processedEventRepository;
+        this.eventDeduplicator = eventDeduplicator;
         this.employeesCreatedCounter = Counter.builder("employees.created")
                 .description("Total de colaboradores criados")
                 .tag("service", "consumer")
@@ -41,21 +60,28 @@ public class PersistenceService {
                 .description("Total de colaboradores deletados")
                 .tag("service", "consumer")
                 .register(meterRegistry);
+        this.employeesUnchangedCounter = Counter.builder("employees.unchanged")
+                .description("Atualizações sem mudança nos dados (nada gravado, sem histórico)")
+                .tag("service", "consumer")
+                .register(meterRegistry);
     }
     
     /**
-     * Persiste um evento de colaborador no banco de dados
+     * Persiste um evento de colaborador no banco de dados.
+     * Dois round trips: processed_events e o upsert/soft delete com histórico.
      */
     @Transactional
     public void persistEvent(EmployeeEventDTO event, Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
         log.debug("Persistindo evento: {} (tipo: {})", event.getEventId(), event.getEventType());
         
+        markProcessed(event, kafkaOffset, kafkaPartition, kafkaTopic);
+        
         switch (event.getEventType()) {
             case "S-2300", "S-2306" -> { 
                 // S-2300: Admissão de Trabalhador
                 // S-2306: Admissão de Aprendiz
                 log.info("CREATE: Processando admissão - sourceId={}", event.getSourceId());
-                createEmployee(event, kafkaOffset, kafkaPartition, kafkaTopic);
+                upsertEmployee(event, kafkaOffset, kafkaPartition, kafkaTopic);
             }
             
             case "S-2400", "S-2405", "S-2410" -> { 
@@ -63,7 +89,7 @@ public class PersistenceService {
                 // S-2405: Alteração de Aprendiz
                 // S-2410: Remuneração
                 log.info("UPDATE: Processando alteração - sourceId={}", event.getSourceId());
-                updateEmployee(event, kafkaOffset, kafkaPartition, kafkaTopic);
+                upsertEmployee(event, kafkaOffset, kafkaPartition, kafkaTopic);
             }
             
             case "S-2420", "S-3000" -> { 
@@ -79,72 +105,179 @@ public class PersistenceService {
         }
     }
     
-    private void createEmployee(EmployeeEventDTO event, Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
-        // Verificar se já existe
-        if (employeeRepository.existsBySourceId(event.getSourceId())) {
-            log.warn("Colaborador com sourceId {} já existe. Atualizando ao invés de criar.", 
-                    event.getSourceId());
-            updateEmployee(event, kafkaOffset, kafkaPartition, kafkaTopic);
-            return;
-        }
+    /**
+     * Persiste os eventos aprovados de um lote em uma única transação, usando
+     * INSERT/UPDATE multi-linha com histórico encadeado (EmployeeBatchRepository).
+     * Qualquer falha desfaz o lote inteiro; o chamador decide como reprocessar.
+     */
+    @Transactional
+    public void persistBatch(List<ConsumerRecord<String, EmployeeEventDTO>> records) {
+        log.debug("Persistindo lote de {} eventos", records.size());
         
-        Employee employee = convertDTOToEntity(event, kafkaOffset, kafkaPartition, kafkaTopic);
-        Employee saved = employeeRepository.save(employee);
+        markAllProcessed(records);
         
-        // Criar registro de histórico
-        createHistoryRecord(saved, "INSERT");
+        int inserted = 0;
+        int updated = 0;
+        int deleted = 0;
+        int unchanged = 0;
         
-        employeesCreatedCounter.increment();
-        log.info("Colaborador criado: sourceId={}, id={}", saved.getSourceId(), saved.getId());
+        // Cada rodada contém no máximo uma ocorrência por sourceId, preservando a ordem
+        for (List<ConsumerRecord<String, EmployeeEventDTO>> round : splitIntoRounds(records)) {
+            List<Employee> upserts = new ArrayList<>(round.size());
+            List<Employee> deletes = new ArrayList<>();
+            
+            for (ConsumerRecord<String, EmployeeEventDTO> record : round) {
+                EmployeeEventDTO event = record.value();
+                switch (event.getEventType()) {
+                    case "S-2300", "S-2306", "S-2400", "S-2405", "S-2410" ->
+                            upserts.add(convertDTOToEntity(event, record.offset(), record.partition(), record.topic()));
+                    case "S-2420", "S-3000" ->
+                            deletes.add(Employee.builder()
+                                    .sourceId(event.getSourceId())
+                                    .terminationDate(event.getTerminationDate())
+                                    .kafkaOffset(record.offset())
+                                    .kafkaPartition(record.partition())
+                                    .kafkaTopic(record.topic())
+                                    .build());
+                    default -> log.warn("Tipo de evento não suportado: {}", event.getEventType());
+                }
+            }
+            
+            if (!upserts.isEmpty()) {
+                Map<String, Integer> written = employeeBatchRepository.upsertAllWithHistory(upserts);
+                int roundInserted = written.getOrDefault("INSERT", 0);
+                int roundUpdated = written.getOrDefault("UPDATE", 0);
+                inserted += roundInserted;
+                updated += roundUpdated;
+                unchanged += upserts.size() - roundInserted - roundUpdated;
+                upserts.forEach(uniquenessIndex::recordAfterCommit);
+            }
+            
+            if (!deletes.isEmpty()) {
+                int affected = employeeBatchRepository.softDeleteAllWithHistory(deletes);
+                if (affected < deletes.size()) {
+                    log.warn("{} colaboradores não encontrados para deleção no lote", deletes.size() - affected);
+                }
+                deleted += affected;
+                deletes.forEach(employee -> uniquenessIndex.recordInactiveAfterCommit(employee.getSourceId()));
+            }
+        }
+        
+        employeesCreatedCounter.increment(inserted);
+        employeesUpdatedCounter.increment(updated);
+        employeesDeletedCounter.increment(deleted);
+        employeesUnchangedCounter.increment(unchanged);
+        
+        log.info("Lote persistido: criados={}, atualizados={}, deletados={}, sem mudança={}",
+                inserted, updated, deleted, unchanged);
     }
     
-    private void updateEmployee(EmployeeEventDTO event, Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
-        Optional<Employee> existingOpt = employeeRepository.findBySourceId(event.getSourceId());
+    /**
+     * Grava o eventId em processed_events na transação da persistência. Se outra entrega
+     * já gravou o mesmo evento, a transação é desfeita com DuplicateEventException.
+     */
+    private void markProcessed(EmployeeEventDTO event, Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
+        if (!eventDeduplicator.isEnabled() || event.getEventId() == null) {
+            return;
+        }
+        if (!processedEventRepository.markProcessed(event, kafkaOffset, kafkaPartition, kafkaTopic)) {
+            throw new DuplicateEventException("Evento já processado: " + event.getEventId());
+        }
+        eventDeduplicator.recordAfterCommit(event.getEventId());
         
-        if (existingOpt.isEmpty()) {
-            log.warn("Colaborador com sourceId {} não encontrado para atualização. Criando novo registro.", 
-                    event.getSourceId());
-            createEmployee(event, kafkaOffset, kafkaPartition, kafkaTopic);
+        // Alterações absorvidas pela coalescência contam como processadas junto com este evento
+        if (event.getCoalescedEventIds() != null) {
+            processedEventRepository.markCoalesced(event, kafkaOffset, kafkaPartition, kafkaTopic);
+            event.getCoalescedEventIds().forEach(eventDeduplicator::recordAfterCommit);
+        }
+    }
+    
+    private void markAllProcessed(List<ConsumerRecord<String, EmployeeEventDTO>> records) {
+        if (!eventDeduplicator.isEnabled()) {
             return;
         }
+        List<ConsumerRecord<String, EmployeeEventDTO>> identified = records.stream()
+                .filter(record -> record.value().getEventId() != null)
+                .toList();
+        if (identified.isEmpty()) {
+            return;
+        }
+        int inserted = processedEventRepository.markAllProcessed(identified);
+        if (inserted < identified.size()) {
+            // O chamador reprocessa registro a registro, isolando as duplicatas
+            throw new DuplicateEventException((identified.size() - inserted) + " evento(s) do lote já processado(s)");
+        }
+        identified.forEach(record -> eventDeduplicator.recordAfterCommit(record.value().getEventId()));
         
-        Employee existing = existingOpt.get();
-        updateEntityFromDTO(existing, event, kafkaOffset, kafkaPartition, kafkaTopic);
-        Employee saved = employeeRepository.save(existing);
+        // Alterações absorvidas pela coalescência contam como processadas junto com o lote
+        processedEventRepository.markAllCoalesced(identified);
+        identified.stream()
+                .filter(record -> record.value().getCoalescedEventIds() != null)
+                .forEach(record -> record.value().getCoalescedEventIds().forEach(eventDeduplicator::recordAfterCommit));
+    }
+    
+    private List<List<ConsumerRecord<String, EmployeeEventDTO>>> splitIntoRounds(
+            List<ConsumerRecord<String, EmployeeEventDTO>> records) {
+        List<List<ConsumerRecord<String, EmployeeEventDTO>>> rounds = new ArrayList<>();
+        Map<String, Integer> occurrences = new HashMap<>();
         
-        // Criar registro de histórico
-        createHistoryRecord(saved, "UPDATE");
+        for (ConsumerRecord<String, EmployeeEventDTO> record : records) {
+            int round = occurrences.merge(record.value().getSourceId(), 1, Integer::sum) - 1;
+            if (round == rounds.size()) {
+                rounds.add(new ArrayList<>());
+            }
+            rounds.get(round).add(record);
+        }
         
-        employeesUpdatedCounter.increment();
-        log.info("Colaborador atualizado: sourceId={}, id={}, version={}", 
-                saved.getSourceId(), saved.getId(), saved.getVersion());
+        return rounds;
     }
     
-    private void deleteEmployee(EmployeeEventDTO event, Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
-        Optional<Employee> existingOpt = employeeRepository.findBySourceId(event.getSourceId());
+    private void upsertEmployee(EmployeeEventDTO event, Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
+        Employee employee = convertDTOToEntity(event, kafkaOffset, kafkaPartition, kafkaTopic);
         
-        if (existingOpt.isEmpty()) {
-            log.warn("Colaborador com sourceId {} não encontrado para deleção.", event.getSourceId());
+        // Upsert + histórico em um único comando, sem SELECT prévio
+        WriteResult result = employeeBatchRepository.upsertWithHistory(employee);
+        if (result.isUnchanged()) {
+            employeesUnchangedCounter.increment();
+            log.info("Colaborador sem mudança nos dados, nada gravado: sourceId={}", employee.getSourceId());
             return;
         }
+        employee.setId(result.id());
+        employee.setVersion(result.version());
+        uniquenessIndex.recordAfterCommit(employee);
         
-        Employee existing = existingOpt.get();
+        if (result.isInsert()) {
+            employeesCreatedCounter.increment();
+            log.info("Colaborador criado: sourceId={}, id={}", employee.getSourceId(), result.id());
+        } else {
+            employeesUpdatedCounter.increment();
+            log.info("Colaborador atualizado: sourceId={}, id={}, version={} -> {}", 
+                    employee.getSourceId(), result.id(), result.previousVersion(), result.version());
+        }
+    }
+    
+    private void deleteEmployee(EmployeeEventDTO event, Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
+        Employee employee = Employee.builder()
+                .sourceId(event.getSourceId())
+                .terminationDate(event.getTerminationDate())
+                .kafkaOffset(kafkaOffset)
+                .kafkaPartition(kafkaPartition)
+                .kafkaTopic(kafkaTopic)
+                .build();
         
-        // Soft delete: atualizar status e data de demissão
-        existing.setStatus("INACTIVE");
-        existing.setTerminationDate(event.getTerminationDate());
-        existing.setKafkaOffset(kafkaOffset);
-        existing.setKafkaPartition(kafkaPartition);
-        existing.setKafkaTopic(kafkaTopic);
+        // Soft delete: atualizar status e data de demissão, com histórico no mesmo comando
+        Optional<WriteResult> result = employeeBatchRepository.softDeleteWithHistory(employee);
         
-        Employee saved = employeeRepository.save(existing);
+        if (result.isEmpty()) {
+            log.warn("Colaborador com sourceId {} não encontrado para deleção.", event.getSourceId());
+            return;
+        }
         
-        // Criar registro de histórico
-        createHistoryRecord(saved, "DELETE");
+        uniquenessIndex.recordInactiveAfterCommit(employee.getSourceId());
         
         employeesDeletedCounter.increment();
-        log.info("Colaborador deletado (soft delete): sourceId={}, id={}", 
-                saved.getSourceId(), saved.getId());
+        log.info("Colaborador deletado (soft delete): sourceId={}, id={}, statusAnterior={}", 
+                employee.getSourceId(), result.get().id(), result.get().previousStatus());
     }
     
     private Employee convertDTOToEntity(EmployeeEventDTO dto, Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
@@ -169,50 +302,6 @@ public class PersistenceService {
                 .build();
     }
     
-    private void updateEntityFromDTO(Employee entity, EmployeeEventDTO dto, 
-                                     Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
-        entity.setCpf(dto.getCpf());
-        entity.setPis(dto.getPis());
-        entity.setFullName(dto.getFullName());
-        entity.setBirthDate(dto.getBirthDate());
-        entity.setAdmissionDate(dto.getAdmissionDate());
-        entity.setTerminationDate(dto.getTerminationDate());
-        entity.setJobTitle(dto.getJobTitle());
-        entity.setDepartment(dto.getDepartment());
-        entity.setSalary(dto.getSalary());
-        entity.setStatus(dto.getStatus());
-        entity.setUpdatedBy("system");
-        entity.setKafkaOffset(kafkaOffset);
-        entity.setKafkaPartition(kafkaPartition);
-        entity.setKafkaTopic(kafkaTopic);
-        entity.setCorrelationId(dto.getCorrelationId());
-    }
-    
-    private void createHistoryRecord(Employee employee, String operation) {
-        EmployeeHistory history = EmployeeHistory.builder()
-                .employeeId(employee.getId())
-                .sourceId(employee.getSourceId())
-                .cpf(employee.getCpf())
-                .pis(employee.getPis())
-                .fullName(employee.getFullName())
-                .birthDate(employee.getBirthDate())
-                .admissionDate(employee.getAdmissionDate())
-                .terminationDate(employee.getTerminationDate())
-                .jobTitle(employee.getJobTitle())
-                .department(employee.getDepartment())
-                .salary(employee.getSalary())
-                .status(employee.getStatus())
-                .version(employee.getVersion())
-                .operation(operation)
-                .changedBy("system")
-                .kafkaOffset(employee.getKafkaOffset())
-                .correlationId(employee.getCorrelationId())
-                .build();
-        
-        employeeHistoryRepository.save(history);
-        log.debug("Registro de histórico criado: operation={}, employeeId={}", operation, employee.getId());
-    }
-
     public Optional<Employee> findEmployeeBySourceId(String sourceId) {
         return employeeRepository.findBySourceId(sourceId);
     }
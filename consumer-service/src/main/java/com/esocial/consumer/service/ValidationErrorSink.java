@@ -0,0 +1,267 @@
+package com.esocial.consumer.service;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.model.entity.ValidationError;
+import com.esocial.consumer.repository.ValidationErrorBatchRepository;
+import com.esocial.consumer.validation.ValidationErrorDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravação write-behind dos erros e warnings de validação.
+ *
+ * - A validação só enfileira um item por evento (fila limitada); o flusher grava em lote
+ *   numa thread própria (não divide o scheduler com replay da DLQ, refresh do índice e
+ *   manutenção de partições): um payload por evento em validation_error_payloads e as
+ *   linhas de validation_errors referenciando o payload por event_id.
+ * - Com a fila cheia, o item é gravado na própria thread (backpressure).
+ * - Se o lote falha, os eventos são gravados um a um; os que ainda falham voltam para a
+ *   fila e são descartados (contador dropped) só após {@code max-attempts} flushes.
+ * - No shutdown a fila é esvaziada antes de o DataSource ser fechado.
+ * - O modo exactly-once usa {@link #writeNow(List)}: as linhas entram na transação do lote
+ *   e são desfeitas com ela, sem duplicar em uma reentrega.
+ */
+@Slf4j
+@Component
+public class ValidationErrorSink {
+
+    /**
+     * Resultado de validação pendente de gravação (erros e warnings de um evento)
+     */
+    record PendingValidation(EmployeeEventDTO event, List<ValidationErrorDTO> findings,
+                             Long kafkaOffset, Integer kafkaPartition, String kafkaTopic,
+                             LocalDateTime createdAt, int attempts) {
+
+        PendingValidation retried() {
+            return new PendingValidation(event, findings, kafkaOffset, kafkaPartition, kafkaTopic,
+                    createdAt, attempts + 1);
+        }
+    }
+
+    private final ValidationErrorBatchRepository batchRepository;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<PendingValidation> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxAttempts;
+    private final ScheduledExecutorService flusher;
+    private final Counter rowsWrittenCounter;
+    private final Counter overflowCounter;
+    private final Counter flushFailuresCounter;
+    private final Counter droppedCounter;
+
+    public ValidationErrorSink(ValidationErrorBatchRepository batchRepository,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.validation.error-sink.queue-capacity:10000}") int queueCapacity,
+                               @Value("${app.validation.error-sink.batch-size:500}") int batchSize,
+                               @Value("${app.validation.error-sink.flush-interval:500}") long flushIntervalMs,
+                               @Value("${app.validation.error-sink.max-attempts:3}") int maxAttempts) {
+        this.batchRepository = batchRepository;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "validation-error-sink");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("validation.errors.sink.queue.depth", queue, BlockingQueue::size)
+                .description("Eventos com erros de validação aguardando gravação")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+        this.rowsWrittenCounter = Counter.builder("validation.errors.sink.rows.written")
+                .description("Linhas de validation_errors gravadas pelo flusher")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("validation.errors.sink.overflow")
+                .description("Gravações síncronas por fila cheia")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+        this.flushFailuresCounter = Counter.builder("validation.errors.sink.flush.failures")
+                .description("Lotes de erros de validação que falharam na gravação")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("validation.errors.sink.dropped")
+                .description("Eventos descartados após esgotar as tentativas de gravação")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Enfileira os erros e warnings de um evento para gravação em lote
+     */
+    public void submit(EmployeeEventDTO event, List<ValidationErrorDTO> findings,
+                       Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
+        if (findings.isEmpty()) {
+            return;
+        }
+        PendingValidation pending = pending(event, findings, kafkaOffset, kafkaPartition, kafkaTopic);
+        if (!queue.offer(pending)) {
+            overflowCounter.increment();
+            write(List.of(pending));
+        }
+    }
+
+    /**
+     * Modo exactly-once: grava na thread e na transação do chamador, sem fila nem novas
+     * tentativas; uma falha propaga a exceção e desfaz a transação junto com as linhas
+     */
+    public void writeNow(List<PendingValidation> batch) {
+        if (!batch.isEmpty()) {
+            insert(batch);
+        }
+    }
+
+    static PendingValidation pending(EmployeeEventDTO event, List<ValidationErrorDTO> findings,
+                                     Long kafkaOffset, Integer kafkaPartition, String kafkaTopic) {
+        return new PendingValidation(event, List.copyOf(findings), kafkaOffset, kafkaPartition, kafkaTopic,
+                LocalDateTime.now(), 1);
+    }
+
+    /**
+     * Grava os itens presentes na fila no início do flush; os que voltam para a fila
+     * por falha ficam para o próximo ciclo
+     */
+    public void flush() {
+        int remaining = queue.size();
+        List<PendingValidation> batch = new ArrayList<>(batchSize);
+        while (remaining > 0 && queue.drainTo(batch, Math.min(batchSize, remaining)) > 0) {
+            remaining -= batch.size();
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(flushIntervalMs * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("Fila de erros de validação esvaziada no shutdown");
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Erro no flush de erros de validação: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Grava o lote; em caso de falha isola os eventos e devolve à fila os que ainda falham
+     */
+    private void write(List<PendingValidation> batch) {
+        try {
+            insert(batch);
+            return;
+        } catch (Exception e) {
+            flushFailuresCounter.increment();
+            log.error("Erro ao gravar lote de erros de validação de {} eventos, gravando um a um: {}",
+                    batch.size(), e.getMessage(), e);
+        }
+
+        for (PendingValidation pending : batch) {
+            if (batch.size() > 1) {
+                try {
+                    insert(List.of(pending));
+                    continue;
+                } catch (Exception e) {
+                    log.warn("Erros de validação do evento {} não gravados (tentativa {}): {}",
+                            pending.event().getEventId(), pending.attempts(), e.getMessage());
+                }
+            }
+            if (pending.attempts() >= maxAttempts || !queue.offer(pending.retried())) {
+                droppedCounter.increment();
+                log.error("Erros de validação do evento {} descartados na tentativa {} (limite ou fila cheia)",
+                        pending.event().getEventId(), pending.attempts());
+            }
+        }
+    }
+
+    private void insert(List<PendingValidation> batch) {
+        Map<String, String> payloads = new LinkedHashMap<>();
+        List<ValidationError> rows = new ArrayList<>();
+
+        for (PendingValidation pending : batch) {
+            EmployeeEventDTO event = pending.event();
+            if (event.getEventId() != null && !payloads.containsKey(event.getEventId())) {
+                payloads.put(event.getEventId(), serialize(event));
+            }
+            for (ValidationErrorDTO finding : pending.findings()) {
+                rows.add(toRow(event, finding, pending.kafkaOffset(), pending.kafkaPartition(),
+                        pending.kafkaTopic(), pending.createdAt()));
+            }
+        }
+
+        payloads.values().removeIf(payload -> payload == null);
+        batchRepository.insertPayloads(payloads);
+        batchRepository.insertErrors(rows);
+        rowsWrittenCounter.increment(rows.size());
+        log.debug("Gravados {} erros/warnings de validação de {} eventos", rows.size(), batch.size());
+    }
+
+    private static ValidationError toRow(EmployeeEventDTO event, ValidationErrorDTO finding, Long kafkaOffset,
+                                         Integer kafkaPartition, String kafkaTopic, LocalDateTime createdAt) {
+        return ValidationError.builder()
+                .eventId(event.getEventId())
+                .sourceTable("employees")
+                .sourceId(event.getSourceId())
+                .validationRule(finding.getRuleId())
+                .errorMessage(finding.getMessage())
+                .severity(finding.getSeverity().name())
+                .fieldName(finding.getField())
+                .fieldValue(finding.getValue() != null ? finding.getValue().toString() : null)
+                .createdAt(createdAt)
+                .kafkaOffset(kafkaOffset)
+                .kafkaPartition(kafkaPartition)
+                .kafkaTopic(kafkaTopic)
+                .correlationId(event.getCorrelationId())
+                .build();
+    }
+
+    private String serialize(EmployeeEventDTO event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Payload do evento {} não serializado: {}", event.getEventId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,36 +1,34 @@
 package com.esocial.consumer.service;
 
 import com.esocial.consumer.model.dto.EmployeeEventDTO;
-import com.esocial.consumer.model.entity.ValidationError;
-import com.esocial.consumer.repository.ValidationErrorRepository;
 import com.esocial.consumer.validation.ValidationEngine;
 import com.esocial.consumer.validation.ValidationResult;
 import com.esocial.consumer.validation.ValidationErrorDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Slf4j
 @Service
 public class ValidationService {
     
     private final ValidationEngine validationEngine;
-    private final ValidationErrorRepository validationErrorRepository;
-    private final ObjectMapper objectMapper;
+    private final ValidationErrorSink validationErrorSink;
     private final Counter validationSuccessCounter;
     private final Counter validationFailureCounter;
     
     public ValidationService(
             ValidationEngine validationEngine,
-            ValidationErrorRepository validationErrorRepository,
-            ObjectMapper objectMapper,
+            ValidationErrorSink validationErrorSink,
             MeterRegistry meterRegistry) {
         this.validationEngine = validationEngine;
-        this.validationErrorRepository = validationErrorRepository;
-        this.objectMapper = objectMapper;
+        this.validationErrorSink = validationErrorSink;
         this.validationSuccessCounter = Counter.builder("validation.success")
                 .description("Total de validações bem-sucedidas")
                 .tag("service", "consumer")
@@ -42,7 +40,8 @@ public class ValidationService {
     }
     
     /**
-     * Valida um evento e persiste erros e warnings encontrados.
+     * Valida um evento e envia erros e warnings encontrados ao ValidationErrorSink
+     * (gravação em lote, fora da thread do consumer).
      * Registra métrica de sucesso ou falha.
      */
     @Transactional
@@ -50,90 +49,80 @@ public class ValidationService {
                                                      Long kafkaOffset, 
                                                      Integer kafkaPartition, 
                                                      String kafkaTopic) {
+        return validateAndRecord(event, kafkaOffset, kafkaPartition, kafkaTopic);
+    }
+    
+    /**
+     * Valida todos os registros de um poll em uma única transação.
+     * Os resultados são devolvidos na mesma ordem dos registros recebidos.
+     */
+    @Transactional
+    public List<ValidationResult> validateBatch(List<ConsumerRecord<String, EmployeeEventDTO>> records) {
+        List<ValidationResult> results = new ArrayList<>(records.size());
         
-        ValidationResult result = validationEngine.validate(event);
+        for (ConsumerRecord<String, EmployeeEventDTO> record : records) {
+            results.add(validateAndRecord(record.value(), record.offset(), record.partition(), record.topic()));
+        }
         
-        if (result.hasErrors()) {
-            validationFailureCounter.increment();
-            persistValidationErrors(event, result, kafkaOffset, kafkaPartition, kafkaTopic);
-        } else {
-            validationSuccessCounter.increment();
+        return results;
+    }
+    
+    /**
+     * Modo exactly-once: valida o lote e grava erros e warnings na transação corrente, sem o
+     * write-behind. As linhas são desfeitas junto com o lote (rollback ou reentrega não as
+     * duplicam) e uma falha na gravação propaga a exceção.
+     */
+    @Transactional
+    public List<ValidationResult> validateBatchAndWriteErrors(List<ConsumerRecord<String, EmployeeEventDTO>> records) {
+        List<ValidationResult> results = new ArrayList<>(records.size());
+        List<ValidationErrorSink.PendingValidation> pending = new ArrayList<>();
+        
+        for (ConsumerRecord<String, EmployeeEventDTO> record : records) {
+            ValidationResult result = validateAndCount(record.value());
+            List<ValidationErrorDTO> findings = findings(result);
+            if (!findings.isEmpty()) {
+                pending.add(ValidationErrorSink.pending(record.value(), findings,
+                        record.offset(), record.partition(), record.topic()));
+            }
+            results.add(result);
         }
         
-        if (result.hasWarnings()) {
-            persistValidationWarnings(event, result, kafkaOffset, kafkaPartition, kafkaTopic);
+        validationErrorSink.writeNow(pending);
+        return results;
+    }
+    
+    private ValidationResult validateAndRecord(EmployeeEventDTO event, 
+                                               Long kafkaOffset, 
+                                               Integer kafkaPartition, 
+                                               String kafkaTopic) {
+        ValidationResult result = validateAndCount(event);
+        
+        List<ValidationErrorDTO> findings = findings(result);
+        if (!findings.isEmpty()) {
+            validationErrorSink.submit(event, findings, kafkaOffset, kafkaPartition, kafkaTopic);
         }
         
         return result;
     }
     
-    private void persistValidationErrors(EmployeeEventDTO event, 
-                                        ValidationResult result, 
-                                        Long kafkaOffset, 
-                                        Integer kafkaPartition, 
-                                        String kafkaTopic) {
-        try {
-            String eventPayload = objectMapper.writeValueAsString(event);
-            
-            for (ValidationErrorDTO error : result.getErrors()) {
-                ValidationError entity = ValidationError.builder()
-                        .eventId(event.getEventId())
-                        .sourceTable("employees")
-                        .sourceId(event.getSourceId())
-                        .validationRule(error.getRuleId())
-                        .errorMessage(error.getMessage())
-                        .severity(error.getSeverity().name())
-                        .fieldName(error.getField())
-                        .fieldValue(error.getValue() != null ? error.getValue().toString() : null)
-                        .eventPayload(eventPayload)
-                        .kafkaOffset(kafkaOffset)
-                        .kafkaPartition(kafkaPartition)
-                        .kafkaTopic(kafkaTopic)
-                        .correlationId(event.getCorrelationId())
-                        .build();
-                
-                validationErrorRepository.save(entity);
-            }
-            
-            log.info("Persistidos {} erros de validação para evento {}", 
-                    result.getErrors().size(), event.getEventId());
-        } catch (Exception e) {
-            log.error("Erro ao persistir erros de validação: {}", e.getMessage(), e);
+    private ValidationResult validateAndCount(EmployeeEventDTO event) {
+        ValidationResult result = validationEngine.validate(event);
+        
+        if (result.hasErrors()) {
+            validationFailureCounter.increment();
+        } else {
+            validationSuccessCounter.increment();
         }
+        return result;
     }
     
-    private void persistValidationWarnings(EmployeeEventDTO event, 
-                                          ValidationResult result, 
-                                          Long kafkaOffset, 
-                                          Integer kafkaPartition, 
-                                          String kafkaTopic) {
-        try {
-            String eventPayload = objectMapper.writeValueAsString(event);
-            
-            for (ValidationErrorDTO warning : result.getWarnings()) {
-                ValidationError entity = ValidationError.builder()
-                        .eventId(event.getEventId())
-                        .sourceTable("employees")
-                        .sourceId(event.getSourceId())
-                        .validationRule(warning.getRuleId())
-                        .errorMessage(warning.getMessage())
-                        .severity(warning.getSeverity().name())
-                        .fieldName(warning.getField())
-                        .fieldValue(warning.getValue() != null ? warning.getValue().toString() : null)
-                        .eventPayload(eventPayload)
-                        .kafkaOffset(kafkaOffset)
-                        .kafkaPartition(kafkaPartition)
-                        .kafkaTopic(kafkaTopic)
-                        .correlationId(event.getCorrelationId())
-                        .build();
-                
-                validationErrorRepository.save(entity);
-            }
-            
-            log.debug("Persistidos {} warnings para evento {}", 
-                    result.getWarnings().size(), event.getEventId());
-        } catch (Exception e) {
-            log.error("Erro ao persistir warnings: {}", e.getMessage(), e);
-        }
+    /**
+     * Erros e warnings do evento vão juntos para o sink (payload gravado uma vez)
+     */
+    private static List<ValidationErrorDTO> findings(ValidationResult result) {
+        List<ValidationErrorDTO> findings = new ArrayList<>(result.getErrors().size() + result.getWarnings().size());
+        findings.addAll(result.getErrors());
+        findings.addAll(result.getWarnings());
+        return findings;
     }
 }
@@ -1,30 +1,121 @@
 package com.esocial.consumer.validation;
 
 import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Executa as regras de validação por camada: estrutural → conformidade → negócio → integridade.
+ *
+ * - Com short-circuit habilitado, um ERROR em uma camada interrompe as camadas seguintes,
+ *   evitando consultas ao banco (VI-*) para eventos já rejeitados.
+ * - Com paralelismo habilitado, as regras de camadas com I/O rodam em virtual threads;
+ *   cada regra escreve em um resultado próprio e os resultados são juntados na ordem das regras.
+ */
+@Slf4j
+@Component
 public class ValidationEngine {
-    private final List<ValidationRule> rules;
+    private final Map<ValidationTier, List<ValidationRule>> rulesByTier;
+    private final boolean shortCircuit;
+    private final ExecutorService executor;
 
     public ValidationEngine(List<ValidationRule> rules) {
-        this.rules = rules;
+        this(rules, true, false);
+    }
+
+    @Autowired
+    public ValidationEngine(List<ValidationRule> rules,
+                            @Value("${app.validation.short-circuit:true}") boolean shortCircuit,
+                            @Value("${app.validation.parallel-enabled:false}") boolean parallelEnabled) {
+        this.rulesByTier = new EnumMap<>(ValidationTier.class);
+        for (ValidationRule rule : rules) {
+            // getTier() pode ser sobrescrito (ou simulado) e devolver null; EnumMap não aceita chave nula
+            ValidationTier tier = rule.getTier() != null ? rule.getTier() : ValidationTier.fromRuleId(rule.getRuleId());
+            rulesByTier.computeIfAbsent(tier, t -> new ArrayList<>()).add(rule);
+        }
+        this.shortCircuit = shortCircuit;
+        this.executor = parallelEnabled ? Executors.newVirtualThreadPerTaskExecutor() : null;
     }
 
     public ValidationResult validate(EmployeeEventDTO event) {
         ValidationResult result = new ValidationResult();
-        for (ValidationRule rule : rules) {
-            try {
-                rule.validate(event, result);
-            } catch (Exception ex) {
-                result.addError(
-                    rule.getRuleId(),
-                    ValidationSeverity.ERROR,
-                    "Erro interno na validação: " + ex.getMessage(),
-                    null,
-                    null
-                );
+        for (Map.Entry<ValidationTier, List<ValidationRule>> entry : rulesByTier.entrySet()) {
+            ValidationTier tier = entry.getKey();
+            List<ValidationRule> tierRules = entry.getValue();
+
+            if (executor != null && tier.isConcurrent() && tierRules.size() > 1) {
+                runConcurrently(tierRules, event, result);
+            } else {
+                for (ValidationRule rule : tierRules) {
+                    runRule(rule, event, result);
+                }
+            }
+
+            if (shortCircuit && result.hasErrors()) {
+                log.debug("Validação interrompida na camada {} para evento {}: {} erro(s)",
+                        tier, event.getEventId(), result.getErrors().size());
+                break;
             }
         }
         return result;
     }
+
+    private void runConcurrently(List<ValidationRule> tierRules, EmployeeEventDTO event, ValidationResult result) {
+        List<Future<ValidationResult>> futures = new ArrayList<>(tierRules.size());
+        for (ValidationRule rule : tierRules) {
+            futures.add(executor.submit(() -> {
+                ValidationResult partial = new ValidationResult();
+                runRule(rule, event, partial);
+                return partial;
+            }));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                result.merge(futures.get(i).get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                addInternalError(tierRules.get(i), ex, result);
+            } catch (ExecutionException ex) {
+                addInternalError(tierRules.get(i), ex.getCause(), result);
+            }
+        }
+    }
+
+    private void runRule(ValidationRule rule, EmployeeEventDTO event, ValidationResult result) {
+        try {
+            rule.validate(event, result);
+        } catch (Exception ex) {
+            addInternalError(rule, ex, result);
+        }
+    }
+
+    private void addInternalError(ValidationRule rule, Throwable ex, ValidationResult result) {
+        result.addError(
+            rule.getRuleId(),
+            ValidationSeverity.ERROR,
+            "Erro interno na validação: " + ex.getMessage(),
+            null,
+            null
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
 }
@@ -18,6 +18,18 @@ public class ValidationResult {
         }
     }
 
+    /**
+     * Acrescenta erros e warnings de outro resultado (usado para juntar
+     * resultados de regras executadas em paralelo na ordem das regras).
+     */
+    public void merge(ValidationResult other) {
+        errors.addAll(other.errors);
+        warnings.addAll(other.warnings);
+        if (!other.valid) {
+            valid = false;
+        }
+    }
+
     public List<ValidationErrorDTO> getErrors() {
         return errors;
     }
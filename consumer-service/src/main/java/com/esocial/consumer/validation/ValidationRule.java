@@ -6,4 +6,11 @@ public interface ValidationRule {
     String getRuleId();
     //ValidationSeverity getSeverity();
     void validate(EmployeeEventDTO event, ValidationResult result);
+
+    /**
+     * Camada em que a regra é executada; por padrão deduzida do ruleId.
+     */
+    default ValidationTier getTier() {
+        return ValidationTier.fromRuleId(getRuleId());
+    }
 }
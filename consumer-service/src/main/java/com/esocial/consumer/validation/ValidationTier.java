@@ -0,0 +1,43 @@
+package com.esocial.consumer.validation;
+
+/**
+ * Camadas de validação, na ordem de execução do ValidationEngine.
+ * As camadas posteriores são mais caras (INTEGRITY consulta o banco).
+ */
+public enum ValidationTier {
+
+    STRUCTURAL("VE-", false),
+    CONFORMANCE("VC-", false),
+    BUSINESS("VN-", false),
+    INTEGRITY("VI-", true);
+
+    private final String rulePrefix;
+    private final boolean concurrent;
+
+    ValidationTier(String rulePrefix, boolean concurrent) {
+        this.rulePrefix = rulePrefix;
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * Indica se as regras da camada fazem I/O e compensam execução concorrente.
+     */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    /**
+     * Deduz a camada pelo prefixo do ruleId (VE-, VC-, VN-, VI-).
+     * Regras sem prefixo conhecido são tratadas como regras de negócio.
+     */
+    public static ValidationTier fromRuleId(String ruleId) {
+        if (ruleId != null) {
+            for (ValidationTier tier : values()) {
+                if (ruleId.startsWith(tier.rulePrefix)) {
+                    return tier;
+                }
+            }
+        }
+        return BUSINESS;
+    }
+}
@@ -0,0 +1,212 @@
+package com.esocial.consumer.validation.format;
+
+/**
+ * Verificações estruturais de documentos brasileiros usadas pelas regras VE-*.
+ *
+ * Todas as verificações percorrem os caracteres diretamente, sem regex e sem
+ * alocação (não criam Pattern, Matcher ou Strings intermediárias), pois rodam
+ * para cada mensagem consumida.
+ */
+public final class DocumentFormats {
+
+    private static final int[] PIS_WEIGHTS = {3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+
+    private DocumentFormats() {
+    }
+
+    /**
+     * true se o valor tiver exatamente {@code length} dígitos ASCII.
+     */
+    public static boolean isDigits(CharSequence value, int length) {
+        if (value == null || value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * true se todos os caracteres forem iguais (ex.: "11111111111").
+     */
+    public static boolean isRepeatedChar(CharSequence value) {
+        if (value == null || value.length() == 0) {
+            return false;
+        }
+        char first = value.charAt(0);
+        for (int i = 1; i < value.length(); i++) {
+            if (value.charAt(i) != first) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * CPF: 11 dígitos, não repetidos e com os dois dígitos verificadores (módulo 11) corretos.
+     * Espera o valor sem máscara.
+     */
+    public static boolean isValidCpf(CharSequence cpf) {
+        return isDigits(cpf, 11) && hasValidCpfCheckDigits(cpf);
+    }
+
+    /**
+     * Verifica apenas os dígitos verificadores e sequências repetidas de um CPF
+     * já validado com {@link #isDigits(CharSequence, int)}.
+     */
+    public static boolean hasValidCpfCheckDigits(CharSequence cpf) {
+        if (isRepeatedChar(cpf)) {
+            return false;
+        }
+
+        int sum1 = 0;
+        int sum2 = 0;
+        for (int i = 0; i < 9; i++) {
+            int digit = cpf.charAt(i) - '0';
+            sum1 += digit * (10 - i);
+            sum2 += digit * (11 - i);
+        }
+
+        int dv1 = cpfCheckDigit(sum1);
+        if (dv1 != cpf.charAt(9) - '0') {
+            return false;
+        }
+        sum2 += dv1 * 2;
+        return cpfCheckDigit(sum2) == cpf.charAt(10) - '0';
+    }
+
+    /**
+     * PIS/PASEP/NIS: 11 dígitos com dígito verificador (pesos 3,2,9,8,7,6,5,4,3,2).
+     */
+    public static boolean isValidPis(CharSequence pis) {
+        return isDigits(pis, 11) && hasValidPisCheckDigit(pis);
+    }
+
+    /**
+     * Verifica apenas o dígito verificador de um PIS já validado com {@link #isDigits(CharSequence, int)}.
+     */
+    public static boolean hasValidPisCheckDigit(CharSequence pis) {
+        if (isRepeatedChar(pis)) {
+            return false;
+        }
+
+        int sum = 0;
+        for (int i = 0; i < 10; i++) {
+            sum += (pis.charAt(i) - '0') * PIS_WEIGHTS[i];
+        }
+        int dv = 11 - (sum % 11);
+        if (dv >= 10) {
+            dv = 0;
+        }
+        return dv == pis.charAt(10) - '0';
+    }
+
+    /**
+     * CTPS: número (7 dígitos) seguido opcionalmente da série (até 4 dígitos), sem máscara.
+     */
+    public static boolean isValidCtps(CharSequence ctps) {
+        if (ctps == null || ctps.length() < 7 || ctps.length() > 11) {
+            return false;
+        }
+        return isDigits(ctps, ctps.length());
+    }
+
+    /**
+     * CEP: 8 dígitos, com ou sem hífen ("12345678" ou "12345-678").
+     */
+    public static boolean isValidCep(CharSequence cep) {
+        if (cep == null) {
+            return false;
+        }
+        if (cep.length() == 8) {
+            return isDigits(cep, 8);
+        }
+        if (cep.length() == 9 && cep.charAt(5) == '-') {
+            for (int i = 0; i < 9; i++) {
+                if (i != 5 && !isDigit(cep.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * CBO 2002: 6 dígitos.
+     */
+    public static boolean isValidCbo(CharSequence cbo) {
+        return isDigits(cbo, 6);
+    }
+
+    /**
+     * Telefone: 10 ou 11 dígitos (DDD + número), ignorando máscara.
+     */
+    public static boolean isValidPhone(CharSequence phone) {
+        int digits = countDigits(phone);
+        return digits == 10 || digits == 11;
+    }
+
+    /**
+     * Quantidade de dígitos ASCII no valor, ignorando os demais caracteres.
+     */
+    public static int countDigits(CharSequence value) {
+        if (value == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (isDigit(value.charAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Email: parte local com [A-Za-z0-9+_.-], '@' e domínio não vazio em uma única linha
+     * (mesma regra do antigo padrão ^[A-Za-z0-9+_.-]+@(.+)$).
+     */
+    public static boolean isValidEmail(CharSequence email) {
+        if (email == null) {
+            return false;
+        }
+
+        int length = email.length();
+        int at = 0;
+        while (at < length && isEmailLocalChar(email.charAt(at))) {
+            at++;
+        }
+        if (at == 0 || at >= length - 1 || email.charAt(at) != '@') {
+            return false;
+        }
+
+        for (int i = at + 1; i < length; i++) {
+            if (isLineTerminator(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int cpfCheckDigit(int sum) {
+        int rest = (sum * 10) % 11;
+        return rest == 10 ? 0 : rest;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isEmailLocalChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c)
+                || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -0,0 +1,296 @@
+package com.esocial.consumer.validation.index;
+
+import com.esocial.consumer.model.entity.Employee;
+import com.esocial.consumer.processing.AfterCommitActions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória de documentos (CPF, PIS, email, CTPS, matrícula) → sourceId,
+ * usado pelas regras de integridade (VI-*) para evitar um COUNT por evento.
+ *
+ * - CPF e PIS são indexados como long (11 dígitos); demais documentos como String.
+ * - Carregado de public.employees quando a aplicação fica pronta e atualizado
+ *   pelo caminho de persistência somente após o commit da transação.
+ * - Um refresh incremental (updated_at) incorpora escritas feitas por outras
+ *   instâncias do consumer, limitando a defasagem ao intervalo configurado.
+ * - Enquanto não estiver pronto, ou quando o valor já pertence a mais de um
+ *   colaborador, responde UNKNOWN e a regra consulta o banco.
+ *
+ * As constraints UNIQUE do banco (cpf, ctps, source_id) continuam sendo a garantia final.
+ */
+@Slf4j
+@Component
+public class DocumentUniquenessIndex {
+
+    public enum DocumentType { CPF, PIS, EMAIL, CTPS, MATRICULA }
+
+    public enum UniquenessCheck { UNIQUE, CONFLICT, UNKNOWN }
+
+    /** Marcador para valores compartilhados por mais de um colaborador */
+    private static final String SHARED = "\u0000SHARED";
+
+    private static final String SELECT_COLUMNS =
+            "SELECT source_id, cpf, pis, email, ctps, matricula, status, updated_at FROM public.employees";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<Long, String> cpfOwners = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String> pisOwners = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> emailOwners = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> ctpsOwners = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> matriculaOwners = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, IndexedDocuments> bySourceId = new ConcurrentHashMap<>();
+
+    @Value("${app.validation.uniqueness-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.validation.uniqueness-index.refresh-lag-seconds:60}")
+    private long refreshLagSeconds;
+
+    private volatile boolean ready;
+    private volatile LocalDateTime refreshWatermark;
+
+    public DocumentUniquenessIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        Gauge.builder("validation.uniqueness.index.size", bySourceId, ConcurrentHashMap::size)
+                .description("Colaboradores carregados no índice de unicidade")
+                .tag("service", "consumer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carga inicial a partir da tabela employees
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!enabled) {
+            log.info("Índice de unicidade desabilitado; regras VI-* consultarão o banco");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        LocalDateTime loadStartedAt = LocalDateTime.now();
+        try {
+            int loaded = load(SELECT_COLUMNS, null);
+            refreshWatermark = loadStartedAt.minusSeconds(refreshLagSeconds);
+            ready = true;
+            log.info("Índice de unicidade carregado: {} colaboradores em {}ms",
+                    loaded, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Erro ao carregar índice de unicidade, regras VI-* usarão o banco: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Refresh incremental: reaplica colaboradores alterados desde o último ciclo
+     * (com uma margem para transações longas). Reaplicar é idempotente.
+     */
+    @Scheduled(fixedDelayString = "${app.validation.uniqueness-index.refresh-interval:30000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+
+        LocalDateTime refreshStartedAt = LocalDateTime.now();
+        try {
+            int refreshed = load(SELECT_COLUMNS + " WHERE updated_at >= ?", refreshWatermark);
+            refreshWatermark = refreshStartedAt.minusSeconds(refreshLagSeconds);
+            log.debug("Índice de unicidade atualizado: {} colaboradores", refreshed);
+        } catch (Exception e) {
+            log.warn("Erro no refresh do índice de unicidade: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Verifica se o documento pertence a outro colaborador que não o sourceId informado.
+     */
+    public UniquenessCheck check(DocumentType type, String value, String sourceId) {
+        if (!ready || value == null || value.isEmpty()) {
+            return UniquenessCheck.UNKNOWN;
+        }
+
+        String owner;
+        switch (type) {
+            case CPF, PIS -> {
+                long key = digitsKey(value);
+                if (key < 0) {
+                    return UniquenessCheck.UNKNOWN;
+                }
+                owner = (type == DocumentType.CPF ? cpfOwners : pisOwners).get(key);
+            }
+            case EMAIL -> owner = emailOwners.get(value);
+            case CTPS -> owner = ctpsOwners.get(value);
+            case MATRICULA -> owner = matriculaOwners.get(value);
+            default -> {
+                return UniquenessCheck.UNKNOWN;
+            }
+        }
+
+        if (owner == null) {
+            return UniquenessCheck.UNIQUE;
+        }
+        if (SHARED.equals(owner)) {
+            return UniquenessCheck.UNKNOWN;
+        }
+        return owner.equals(sourceId) ? UniquenessCheck.UNIQUE : UniquenessCheck.CONFLICT;
+    }
+
+    /**
+     * Registra o estado persistido de um colaborador após o commit da transação corrente.
+     * cpf, pis e status são considerados autoritativos; email, ctps e matrícula nulos
+     * preservam o valor já indexado (o caminho de persistência não grava esses campos).
+     */
+    public void recordAfterCommit(Employee employee) {
+        if (!enabled || employee == null || employee.getSourceId() == null) {
+            return;
+        }
+
+        IndexedDocuments documents = new IndexedDocuments(
+                digitsKey(employee.getCpf()),
+                digitsKey(employee.getPis()),
+                employee.getEmail(),
+                employee.getCtps(),
+                employee.getMatricula(),
+                employee.getStatus() == null || "ACTIVE".equals(employee.getStatus()));
+
+        AfterCommitActions.register(() -> apply(employee.getSourceId(), documents, true));
+    }
+
+    /**
+     * Registra o soft delete (status INACTIVE) de um colaborador após o commit.
+     */
+    public void recordInactiveAfterCommit(String sourceId) {
+        if (!enabled || sourceId == null) {
+            return;
+        }
+
+        AfterCommitActions.register(() -> {
+            IndexedDocuments current = bySourceId.get(sourceId);
+            if (current != null) {
+                apply(sourceId, current.withActive(false), false);
+            }
+        });
+    }
+
+    private int load(String sql, LocalDateTime since) {
+        int[] count = {0};
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(5000);
+            if (since != null) {
+                ps.setTimestamp(1, Timestamp.valueOf(since));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            apply(rs.getString("source_id"), fromRow(rs), false);
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    private IndexedDocuments fromRow(ResultSet rs) throws SQLException {
+        return new IndexedDocuments(
+                digitsKey(rs.getString("cpf")),
+                digitsKey(rs.getString("pis")),
+                rs.getString("email"),
+                rs.getString("ctps"),
+                rs.getString("matricula"),
+                "ACTIVE".equals(rs.getString("status")));
+    }
+
+    /**
+     * Substitui os documentos indexados de um colaborador de forma atômica por sourceId.
+     */
+    private void apply(String sourceId, IndexedDocuments incoming, boolean keepMissingStrings) {
+        bySourceId.compute(sourceId, (id, previous) -> {
+            IndexedDocuments next = keepMissingStrings && previous != null
+                    ? incoming.mergeMissingFrom(previous)
+                    : incoming;
+            IndexedDocuments old = previous != null ? previous : IndexedDocuments.EMPTY;
+
+            move(cpfOwners, numericKey(old.cpf()), numericKey(next.cpf()), id);
+            move(pisOwners, numericKey(old.pis()), numericKey(next.pis()), id);
+            // Email só é único entre colaboradores ativos (countByEmailAndSourceIdNot)
+            move(emailOwners, old.active() ? old.email() : null, next.active() ? next.email() : null, id);
+            move(ctpsOwners, old.ctps(), next.ctps(), id);
+            move(matriculaOwners, old.matricula(), next.matricula(), id);
+
+            return next;
+        });
+    }
+
+    /**
+     * Move a posse de um documento: registra o novo valor antes de liberar o antigo,
+     * para que leitores concorrentes nunca vejam um intervalo sem dono.
+     */
+    private static <K> void move(ConcurrentHashMap<K, String> owners, K oldKey, K newKey, String sourceId) {
+        if (Objects.equals(oldKey, newKey)) {
+            return;
+        }
+        if (newKey != null) {
+            owners.merge(newKey, sourceId, (current, candidate) -> current.equals(candidate) ? current : SHARED);
+        }
+        if (oldKey != null) {
+            // Valores SHARED permanecem marcados: a regra continua consultando o banco
+            owners.computeIfPresent(oldKey, (k, current) -> current.equals(sourceId) ? null : current);
+        }
+    }
+
+    private static Long numericKey(long key) {
+        return key >= 0 ? key : null;
+    }
+
+    /**
+     * Converte um documento numérico (até 15 dígitos) em long; -1 se não for numérico.
+     * O comprimento entra na chave para não colidir "0123" com "123".
+     */
+    static long digitsKey(String value) {
+        if (value == null || value.isEmpty() || value.length() > 15) {
+            return -1;
+        }
+        long key = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            key = key * 10 + (c - '0');
+        }
+        return value.length() * 1_000_000_000_000_000L + key;
+    }
+
+    private record IndexedDocuments(long cpf, long pis, String email, String ctps, String matricula, boolean active) {
+
+        static final IndexedDocuments EMPTY = new IndexedDocuments(-1, -1, null, null, null, false);
+
+        IndexedDocuments withActive(boolean newActive) {
+            return new IndexedDocuments(cpf, pis, email, ctps, matricula, newActive);
+        }
+
+        IndexedDocuments mergeMissingFrom(IndexedDocuments previous) {
+            return new IndexedDocuments(cpf, pis,
+                    email != null ? email : previous.email,
+                    ctps != null ? ctps : previous.ctps,
+                    matricula != null ? matricula : previous.matricula,
+                    active);
+        }
+    }
+}
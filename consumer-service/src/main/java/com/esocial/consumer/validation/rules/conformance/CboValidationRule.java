@@ -6,6 +6,7 @@ import com.esocial.consumer.model.dto.EmployeeEventDTO;
 import com.esocial.consumer.validation.ValidationResult;
 import com.esocial.consumer.validation.ValidationRule;
 import com.esocial.consumer.validation.ValidationSeverity;
+import com.esocial.consumer.validation.format.DocumentFormats;
 
 @Component
 public class CboValidationRule implements ValidationRule {
@@ -21,7 +22,7 @@ public class CboValidationRule implements ValidationRule {
         
         if (cbo != null && !cbo.isEmpty()) {
             // CBO deve ter 6 dígitos numéricos (CBO 2002)
-            if (!cbo.matches("\\d{6}")) {
+            if (!DocumentFormats.isValidCbo(cbo)) {
                 result.addError(getRuleId(), ValidationSeverity.WARNING, 
                     "CBO deve conter 6 dígitos conforme tabela CBO 2002", 
                     "cbo", cbo);
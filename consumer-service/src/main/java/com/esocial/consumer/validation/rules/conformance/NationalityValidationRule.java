@@ -23,7 +23,7 @@ public class NationalityValidationRule implements ValidationRule {
         
         if (nationality != null && !nationality.isEmpty()) {
             // Brasileiro = "B", Estrangeiro = "E"
-            if (!nationality.matches("[BE]")) {
+            if (!("B".equals(nationality) || "E".equals(nationality))) {
                 result.addError(getRuleId(), ValidationSeverity.ERROR, 
                     "Nacionalidade deve ser 'B' (Brasileiro) ou 'E' (Estrangeiro)", 
                     "nationality", nationality);
@@ -4,6 +4,9 @@ import org.springframework.stereotype.Component;
 
 import com.esocial.consumer.model.dto.EmployeeEventDTO;
 import com.esocial.consumer.repository.EmployeeRepository;
+import com.esocial.consumer.validation.index.DocumentUniquenessIndex;
+import com.esocial.consumer.validation.index.DocumentUniquenessIndex.DocumentType;
+import com.esocial.consumer.validation.index.DocumentUniquenessIndex.UniquenessCheck;
 import com.esocial.consumer.validation.ValidationResult;
 import com.esocial.consumer.validation.ValidationRule;
 import com.esocial.consumer.validation.ValidationSeverity;
@@ -11,9 +14,12 @@ import com.esocial.consumer.validation.ValidationSeverity;
 @Component
 public class CpfUniquenessValidationRule implements ValidationRule {
     private final EmployeeRepository employeeRepository;
+    private final DocumentUniquenessIndex uniquenessIndex;
 
-    public CpfUniquenessValidationRule(EmployeeRepository employeeRepository) {
+    public CpfUniquenessValidationRule(EmployeeRepository employeeRepository,
+                                       DocumentUniquenessIndex uniquenessIndex) {
         this.employeeRepository = employeeRepository;
+        this.uniquenessIndex = uniquenessIndex;
     }
 
     @Override
@@ -27,8 +33,11 @@ public class CpfUniquenessValidationRule implements ValidationRule {
         String sourceId = event.getSourceId(); 
         
         if (cpf != null && !cpf.isEmpty()) {
-            long count = employeeRepository.countByCpfAndSourceIdNot(cpf, sourceId);
-            if (count > 0) {
+            UniquenessCheck check = uniquenessIndex.check(DocumentType.CPF, cpf, sourceId);
+            boolean duplicated = check == UniquenessCheck.UNKNOWN
+                    ? employeeRepository.countByCpfAndSourceIdNot(cpf, sourceId) > 0
+                    : check == UniquenessCheck.CONFLICT;
+            if (duplicated) {
                 result.addError(getRuleId(), ValidationSeverity.ERROR, 
                     "CPF já cadastrado na base", 
                     "cpf", cpf);
@@ -1,5 +1,47 @@
 package com.esocial.consumer.validation.rules.integrity;
 
-public class EmailUniquenessValidationRule {
-    
+import org.springframework.stereotype.Component;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.repository.EmployeeRepository;
+import com.esocial.consumer.validation.ValidationResult;
+import com.esocial.consumer.validation.ValidationRule;
+import com.esocial.consumer.validation.ValidationSeverity;
+import com.esocial.consumer.validation.index.DocumentUniquenessIndex;
+import com.esocial.consumer.validation.index.DocumentUniquenessIndex.DocumentType;
+import com.esocial.consumer.validation.index.DocumentUniquenessIndex.UniquenessCheck;
+
+@Component
+public class EmailUniquenessValidationRule implements ValidationRule {
+    private final EmployeeRepository employeeRepository;
+    private final DocumentUniquenessIndex uniquenessIndex;
+
+    public EmailUniquenessValidationRule(EmployeeRepository employeeRepository,
+                                         DocumentUniquenessIndex uniquenessIndex) {
+        this.employeeRepository = employeeRepository;
+        this.uniquenessIndex = uniquenessIndex;
+    }
+
+    @Override
+    public String getRuleId() {
+        return "VI-003";
+    }
+
+    @Override
+    public void validate(EmployeeEventDTO event, ValidationResult result) {
+        String email = event.getEmail();
+        String sourceId = event.getSourceId();
+
+        if (email != null && !email.isEmpty()) {
+            UniquenessCheck check = uniquenessIndex.check(DocumentType.EMAIL, email, sourceId);
+            boolean duplicated = check == UniquenessCheck.UNKNOWN
+                    ? employeeRepository.countByEmailAndSourceIdNot(email, sourceId) > 0
+                    : check == UniquenessCheck.CONFLICT;
+            if (duplicated) {
+                result.addError(getRuleId(), ValidationSeverity.WARNING,
+                    "Email já cadastrado para outro colaborador",
+                    "email", email);
+            }
+        }
+    }
 }
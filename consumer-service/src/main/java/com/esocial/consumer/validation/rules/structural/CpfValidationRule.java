@@ -4,6 +4,7 @@ import com.esocial.consumer.model.dto.EmployeeEventDTO;
 import com.esocial.consumer.validation.ValidationRule;
 import com.esocial.consumer.validation.ValidationResult;
 import com.esocial.consumer.validation.ValidationSeverity;
+import com.esocial.consumer.validation.format.DocumentFormats;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -24,19 +25,15 @@ public class CpfValidationRule implements ValidationRule {
             return;
         }
         
-        if (!cpf.matches("\\d{11}")) {
+        if (!DocumentFormats.isDigits(cpf, 11)) {
             result.addError(getRuleId(), ValidationSeverity.ERROR, "CPF deve conter 11 dígitos numéricos", 
                 "cpf", cpf);
             return;
         }
         
-        if (!isValidCpf(cpf)) {
+        if (!DocumentFormats.hasValidCpfCheckDigits(cpf)) {
             result.addError(getRuleId(), ValidationSeverity.ERROR, "CPF com dígito verificador inválido", 
                 "cpf", cpf);
         }
     }
-
-    private boolean isValidCpf(String cpf) {
-        return !cpf.matches("(\\d)\\1{10}");
-    }
 }
@@ -0,0 +1,24 @@
+package com.esocial.consumer.validation.rules.structural;
+
+import org.springframework.stereotype.Component;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.validation.ValidationResult;
+import com.esocial.consumer.validation.ValidationRule;
+import com.esocial.consumer.validation.ValidationSeverity;
+import com.esocial.consumer.validation.format.DocumentFormats;
+
+@Component
+public class CtpsValidationRule implements ValidationRule {
+    @Override
+    public String getRuleId() { return "VE-011"; }
+    
+    @Override
+    public void validate(EmployeeEventDTO event, ValidationResult result) {
+        String ctps = event.getCtps();
+        if (ctps != null && !ctps.isEmpty() && !DocumentFormats.isValidCtps(ctps)) {
+            result.addError(getRuleId(), ValidationSeverity.WARNING, "CTPS deve conter número (7 dígitos) e série (até 4 dígitos)", 
+                "ctps", ctps);
+        }
+    }
+}
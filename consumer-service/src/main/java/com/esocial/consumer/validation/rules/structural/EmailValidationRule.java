@@ -6,18 +6,17 @@ import com.esocial.consumer.model.dto.EmployeeEventDTO;
 import com.esocial.consumer.validation.ValidationResult;
 import com.esocial.consumer.validation.ValidationRule;
 import com.esocial.consumer.validation.ValidationSeverity;
+import com.esocial.consumer.validation.format.DocumentFormats;
 
 @Component
 public class EmailValidationRule implements ValidationRule {
-    private static final String EMAIL_PATTERN = "^[A-Za-z0-9+_.-]+@(.+)$";
-    
     @Override
     public String getRuleId() { return "VE-007"; }
     
     @Override
     public void validate(EmployeeEventDTO event, ValidationResult result) {
         String email = event.getEmail();
-        if (email != null && !email.isEmpty() && !email.matches(EMAIL_PATTERN)) {
+        if (email != null && !email.isEmpty() && !DocumentFormats.isValidEmail(email)) {
             result.addError(getRuleId(), ValidationSeverity.WARNING, "Email em formato inválido", 
                 "email", email);
         }
@@ -15,7 +15,7 @@ public class FullNameValidationRule implements ValidationRule {
     @Override
     public void validate(EmployeeEventDTO event, ValidationResult result) {
         String name = event.getFullName();
-        if (name == null || name.trim().isEmpty()) {
+        if (name == null || name.isBlank()) {
             result.addError(getRuleId(), ValidationSeverity.ERROR, "Nome é obrigatório", 
                 "fullName", name);
             return;
@@ -23,11 +23,6 @@ public class FullNameValidationRule implements ValidationRule {
         if (name.length() < 3 || name.length() > 200) {
             result.addError(getRuleId(), ValidationSeverity.ERROR, "Nome deve ter entre 3 e 200 caracteres", 
                 "fullName", name);
-            return;
-        }
-        if (name.matches("\\s+")) {
-            result.addError(getRuleId(), ValidationSeverity.ERROR, "Nome não pode conter apenas espaços", 
-                "fullName", name);
         }
     }
 }
@@ -6,6 +6,7 @@ import com.esocial.consumer.model.dto.EmployeeEventDTO;
 import com.esocial.consumer.validation.ValidationResult;
 import com.esocial.consumer.validation.ValidationRule;
 import com.esocial.consumer.validation.ValidationSeverity;
+import com.esocial.consumer.validation.format.DocumentFormats;
 
 @Component
 public class PhoneValidationRule implements ValidationRule {
@@ -16,8 +17,7 @@ public class PhoneValidationRule implements ValidationRule {
     public void validate(EmployeeEventDTO event, ValidationResult result) {
         String phone = event.getPhone();
         if (phone != null && !phone.isEmpty()) {
-            String digitsOnly = phone.replaceAll("\\D", "");
-            if (digitsOnly.length() < 10 || digitsOnly.length() > 11) {
+            if (!DocumentFormats.isValidPhone(phone)) {
                 result.addError(getRuleId(), ValidationSeverity.WARNING, "Telefone deve conter 10 ou 11 dígitos", 
                     "phone", phone);
             }
@@ -6,6 +6,7 @@ import com.esocial.consumer.model.dto.EmployeeEventDTO;
 import com.esocial.consumer.validation.ValidationResult;
 import com.esocial.consumer.validation.ValidationRule;
 import com.esocial.consumer.validation.ValidationSeverity;
+import com.esocial.consumer.validation.format.DocumentFormats;
 
 @Component
 public class PisValidationRule implements ValidationRule {
@@ -15,9 +16,18 @@ public class PisValidationRule implements ValidationRule {
     @Override
     public void validate(EmployeeEventDTO event, ValidationResult result) {
         String pis = event.getPis();
-        if (pis != null && !pis.matches("\\d{11}")) {
+        if (pis == null) {
+            return;
+        }
+        if (!DocumentFormats.isDigits(pis, 11)) {
             result.addError(getRuleId(), ValidationSeverity.ERROR, "PIS deve conter 11 dígitos numéricos", 
                 "pis", pis);
+            return;
+        }
+        // Dígito verificador como WARNING: a base de origem ainda possui PIS sem DV válido
+        if (!DocumentFormats.hasValidPisCheckDigit(pis)) {
+            result.addError(getRuleId(), ValidationSeverity.WARNING, "PIS com dígito verificador inválido", 
+                "pis", pis);
         }
     }
 }
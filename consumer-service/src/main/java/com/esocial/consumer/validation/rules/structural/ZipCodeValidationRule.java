@@ -0,0 +1,24 @@
+package com.esocial.consumer.validation.rules.structural;
+
+import org.springframework.stereotype.Component;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.validation.ValidationResult;
+import com.esocial.consumer.validation.ValidationRule;
+import com.esocial.consumer.validation.ValidationSeverity;
+import com.esocial.consumer.validation.format.DocumentFormats;
+
+@Component
+public class ZipCodeValidationRule implements ValidationRule {
+    @Override
+    public String getRuleId() { return "VE-009"; }
+    
+    @Override
+    public void validate(EmployeeEventDTO event, ValidationResult result) {
+        String zipCode = event.getZipCode();
+        if (zipCode != null && !zipCode.isEmpty() && !DocumentFormats.isValidCep(zipCode)) {
+            result.addError(getRuleId(), ValidationSeverity.WARNING, "CEP deve conter 8 dígitos numéricos", 
+                "zipCode", zipCode);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.esocial.consumer.controller;
+
+import com.esocial.consumer.model.entity.DlqEvent;
+import com.esocial.consumer.model.entity.ValidationError;
+import com.esocial.consumer.repository.ValidationErrorRepository;
+import com.esocial.consumer.repository.ValidationReportRepository;
+import com.esocial.consumer.repository.ValidationReportRepository.DlqFilter;
+import com.esocial.consumer.repository.ValidationReportRepository.ErrorFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ValidationReportControllerTest {
+
+    private ValidationReportRepository reportRepository;
+    private ValidationReportController controller;
+
+    @BeforeEach
+    void setup() {
+        reportRepository = mock(ValidationReportRepository.class);
+        controller = new ValidationReportController(
+                mock(ValidationErrorRepository.class), reportRepository, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    @DisplayName("Página cheia deve informar o cursor da próxima página")
+    void shouldReturnNextCursorWhenPageIsFull() {
+        List<ValidationError> page = LongStream.of(50, 40, 30)
+                .mapToObj(id -> ValidationError.builder().id(id).validationRule("VF-001").severity("ERROR").build())
+                .toList();
+        ErrorFilter filter = new ErrorFilter(null, null, "VF-001", "ERROR");
+        when(reportRepository.findErrors(filter, 60L, 3)).thenReturn(page);
+
+        ResponseEntity<List<ValidationError>> response =
+                controller.getAllErrors(null, null, "VF-001", "ERROR", 60L, 3);
+
+        assertThat(response.getBody()).hasSize(3);
+        assertThat(response.getHeaders().getFirst(ValidationReportController.NEXT_CURSOR_HEADER)).isEqualTo("30");
+    }
+
+    @Test
+    @DisplayName("Última página não deve ter cursor e o limite deve ser limitado a 1000")
+    void shouldCapPageSizeAndOmitCursorOnLastPage() {
+        when(reportRepository.findDlqEvents(any(), any(), eq(1000)))
+                .thenReturn(List.of(DlqEvent.builder().id(1L).status("PENDING").build()));
+
+        ResponseEntity<List<DlqEvent>> response = controller.getDlqEvents(null, null, "PENDING", null, 50_000);
+
+        verify(reportRepository).findDlqEvents(new DlqFilter(null, null, "PENDING"), null, 1000);
+        assertThat(response.getHeaders().containsKey(ValidationReportController.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Exportação deve escrever um objeto JSON por linha")
+    @SuppressWarnings("unchecked")
+    void shouldStreamNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Object> sink = invocation.getArgument(1);
+            sink.accept(DlqEvent.builder().id(2L).eventId("evt-2").build());
+            sink.accept(DlqEvent.builder().id(1L).eventId("evt-1").build());
+            return null;
+        }).when(reportRepository).streamDlqEvents(any(), any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = controller.streamDlqEvents(null, null, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(response.getHeaders().getContentType()).isEqualTo(ValidationReportController.NDJSON);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"eventId\":\"evt-2\"");
+        assertThat(lines[1]).contains("\"eventId\":\"evt-1\"");
+    }
+
+    @Test
+    @DisplayName("Dashboard deve usar as contagens agregadas")
+    @SuppressWarnings("unchecked")
+    void shouldBuildDashboardFromAggregates() {
+        when(reportRepository.countErrorsBySeverity()).thenReturn(Map.of("ERROR", 7L, "WARNING", 3L));
+        when(reportRepository.countDlqEventsByStatus()).thenReturn(Map.of("PENDING", 2L, "FAILED", 1L));
+
+        Map<String, Object> dashboard = controller.getDashboard().getBody();
+
+        assertThat((Map<String, Object>) dashboard.get("validation"))
+                .containsEntry("totalErrors", 10L)
+                .containsEntry("errors", 7L)
+                .containsEntry("warnings", 3L);
+        assertThat((Map<String, Object>) dashboard.get("dlq"))
+                .containsEntry("total", 3L)
+                .containsEntry("pending", 2L);
+    }
+}
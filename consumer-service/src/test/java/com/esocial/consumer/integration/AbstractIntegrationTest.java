@@ -318,7 +318,7 @@ public abstract class AbstractIntegrationTest {
                 .eventTimestamp(LocalDateTime.now())
                 .correlationId(correlationId)
                 .sourceId(sourceId)
-                .cpf("12345678901")  // Mesmo CPF
+                .cpf("12345678909")  // Mesmo CPF
                 .pis("10011223344")
                 .fullName("Colaborador Teste " + sourceId)
                 .birthDate(LocalDate.of(1990, 1, 15))
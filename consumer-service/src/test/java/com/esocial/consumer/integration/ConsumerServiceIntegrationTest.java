@@ -73,7 +73,7 @@ public class ConsumerServiceIntegrationTest {
                 .eventId(UUID.randomUUID().toString())
                 .eventType("S-2300")
                 .fullName("Test User Integration")
-                .cpf("12345678901")
+                .cpf("12345678909")
                 .pis("10011223344")
                 .correlationId(correlationId)
                 .build();
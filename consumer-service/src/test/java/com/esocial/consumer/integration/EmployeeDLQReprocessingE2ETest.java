@@ -95,7 +95,7 @@ class EmployeeDLQReprocessingE2ETest extends AbstractIntegrationTest {
                     "eventId": "%s",
                     "eventType": "CREATE",
                     "sourceId": "%s",
-                    "cpf": "11122233344",
+                    "cpf": "11122233396",
                     "fullName": "Reprocess Test",
                     "birthDate": "1990-01-15",
                     "admissionDate": "2024-01-10",
@@ -128,7 +128,7 @@ class EmployeeDLQReprocessingE2ETest extends AbstractIntegrationTest {
                     // 1. Colaborador foi persistido
                     var employee = employeeRepository.findBySourceId(sourceId);
                     assertThat(employee).isPresent();
-                    assertThat(employee.get().getCpf()).isEqualTo("11122233344");
+                    assertThat(employee.get().getCpf()).isEqualTo("11122233396");
 
                     // 2. Status DLQ atualizado para REPROCESSED
                     Map<String, Object> dlqEvent = jdbcTemplate.queryForMap(
@@ -222,6 +222,7 @@ class EmployeeDLQReprocessingE2ETest extends AbstractIntegrationTest {
     @DisplayName("Deve reprocessar múltiplos eventos em lote")
     void shouldReprocessMultipleEventsInBatch() {
         // GIVEN: 3 eventos corrigidos na DLQ
+        String[] cpfs = {"44455566104", "44455566295", "44455566376"};
         for (int i = 1; i <= 3; i++) {
             String sourceId = "EMP_BATCH_REPROCESS_" + i;
             String correctedPayload = """
@@ -229,7 +230,7 @@ class EmployeeDLQReprocessingE2ETest extends AbstractIntegrationTest {
                         "eventId": "%s",
                         "eventType": "CREATE",
                         "sourceId": "%s",
-                        "cpf": "4445556667%d",
+                        "cpf": "%s",
                         "fullName": "Batch Reprocess %d",
                         "birthDate": "1990-01-15",
                         "admissionDate": "2024-01-01",
@@ -238,7 +239,7 @@ class EmployeeDLQReprocessingE2ETest extends AbstractIntegrationTest {
                         "salary": 5000.00,
                         "status": "ACTIVE"
                     }
-                    """.formatted(UUID.randomUUID().toString(), sourceId, i, i);
+                    """.formatted(UUID.randomUUID().toString(), sourceId, cpfs[i - 1], i);
 
             jdbcTemplate.update(
                     "INSERT INTO public.dlq_events " +
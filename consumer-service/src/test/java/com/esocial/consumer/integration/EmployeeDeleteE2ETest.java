@@ -54,7 +54,7 @@ class EmployeeDeleteE2ETest extends AbstractIntegrationTest {
         // Criar colaborador ativo para ser deletado
         Employee employee = Employee.builder()
                 .sourceId(existingSourceId)
-                .cpf("88877766655")
+                .cpf("88877766603")
                 .pis("10088877766")
                 .fullName("Pedro Delete Teste")
                 .birthDate(LocalDate.of(1988, 8, 10))
@@ -81,7 +81,7 @@ class EmployeeDeleteE2ETest extends AbstractIntegrationTest {
                 .eventTimestamp(LocalDateTime.now())
                 .correlationId(correlationId)
                 .sourceId(existingSourceId)
-                .cpf("88877766655")
+                .cpf("88877766603")
                 .pis("10088877766")
                 .fullName("Pedro Delete Teste")
                 .birthDate(LocalDate.of(1988, 8, 10))
@@ -197,7 +197,7 @@ class EmployeeDeleteE2ETest extends AbstractIntegrationTest {
         // Criar colaborador
         Employee employee = Employee.builder()
                 .sourceId(sourceId)
-                .cpf("77766655544")
+                .cpf("77766655500")
                 .pis("10077766655")
                 .fullName("Ana Auditoria")
                 .birthDate(LocalDate.of(1992, 5, 20))
@@ -223,7 +223,7 @@ class EmployeeDeleteE2ETest extends AbstractIntegrationTest {
                 .eventTimestamp(LocalDateTime.now())
                 .correlationId(correlationId)
                 .sourceId(sourceId)
-                .cpf("77766655544")
+                .cpf("77766655500")
                 .fullName("Ana Auditoria")
                 .birthDate(LocalDate.of(1992, 5, 20))
                 .admissionDate(LocalDate.of(2020, 1, 1))
@@ -246,7 +246,7 @@ class EmployeeDeleteE2ETest extends AbstractIntegrationTest {
                     assertThat(emp.get().getStatus()).isEqualTo("TERMINATED");
                     
                     // Todos os campos preservados
-                    assertThat(emp.get().getCpf()).isEqualTo("77766655544");
+                    assertThat(emp.get().getCpf()).isEqualTo("77766655500");
                     assertThat(emp.get().getFullName()).isEqualTo("Ana Auditoria");
                     assertThat(emp.get().getSalary())
                             .isEqualByComparingTo(new BigDecimal("6000.00"));
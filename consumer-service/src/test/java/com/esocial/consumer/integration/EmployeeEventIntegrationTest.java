@@ -36,7 +36,7 @@ public class EmployeeEventIntegrationTest {
             + "\"event_id\": \"evt-20251110-98765\","
             + "\"event_type\": \"S-2300\","
             + "\"correlation_id\": \"550e8400-e29b-41d4-a716-446655440000\","
-            + "\"cpf\": \"12345678901\","
+            + "\"cpf\": \"12345678909\","
             + "\"pis\": \"17033259504\","
             + "\"ctps\": \"1234567/SP\","
             + "\"matricula\": \"EMP-001\","
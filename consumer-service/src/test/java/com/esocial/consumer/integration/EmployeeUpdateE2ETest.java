@@ -41,7 +41,7 @@ class EmployeeUpdateE2ETest extends AbstractIntegrationTest {
         // Criar colaborador inicial        
         Employee employee = Employee.builder()
                 .sourceId(existingSourceId)
-                .cpf("99988877766")
+                .cpf("99988877714")
                 .pis("10099887766")
                 .fullName("Maria Atualização")
                 .birthDate(LocalDate.of(1985, 5, 20))
@@ -67,7 +67,7 @@ class EmployeeUpdateE2ETest extends AbstractIntegrationTest {
                 .eventTimestamp(LocalDateTime.now())
                 .correlationId(correlationId)
                 .sourceId(existingSourceId)
-                .cpf("99988877766")
+                .cpf("99988877714")
                 .pis("10099887766")
                 .fullName("Maria Atualização")
                 .birthDate(LocalDate.of(1985, 5, 20))
@@ -130,7 +130,7 @@ class EmployeeUpdateE2ETest extends AbstractIntegrationTest {
                     .eventTimestamp(LocalDateTime.now())
                     .correlationId(correlationId)
                     .sourceId(existingSourceId)
-                    .cpf("99988877766")
+                    .cpf("99988877714")
                     .fullName("Maria Atualização")
                     .birthDate(LocalDate.of(1985, 5, 20))
                     .admissionDate(LocalDate.of(2020, 1, 1))
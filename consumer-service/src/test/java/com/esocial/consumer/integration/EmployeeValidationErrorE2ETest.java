@@ -115,7 +115,7 @@ class EmployeeValidationErrorE2ETest extends AbstractIntegrationTest {
                 .eventTimestamp(LocalDateTime.now())
                 .correlationId(correlationId)
                 .sourceId(sourceId)
-                .cpf("11122233344")
+                .cpf("11122233396")
                 .pis("10011223344")
                 .fullName("Maria Futuro")
                 .birthDate(LocalDate.now().plusYears(1))  // ❌ Data futura
@@ -164,7 +164,7 @@ class EmployeeValidationErrorE2ETest extends AbstractIntegrationTest {
                 .eventTimestamp(LocalDateTime.now())
                 .correlationId(correlationId)
                 .sourceId(sourceId)
-                .cpf("22233344455")
+                .cpf("22233344405")
                 .pis("10011223344")
                 .fullName("José Salário Baixo")
                 .birthDate(LocalDate.of(1990, 1, 15))
@@ -277,7 +277,7 @@ class EmployeeValidationErrorE2ETest extends AbstractIntegrationTest {
                 .eventTimestamp(LocalDateTime.now())
                 .correlationId(correlationId)
                 .sourceId(sourceId)
-                .cpf("33344455566")  // ✅ Válido
+                .cpf("33344455508")  // ✅ Válido
                 .pis("10011223344")
                 .fullName("Pedro Warning")
                 .birthDate(LocalDate.of(1960, 1, 15))  // ⚠️ WARNING: > 60 anos
@@ -0,0 +1,55 @@
+package com.esocial.consumer.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CounterCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Mesma combinação de tags deve reutilizar o mesmo Counter")
+    void shouldReuseCounterForSameTags() {
+        CounterCache cache = new CounterCache(registry, "events.consumed.total", "Total de eventos consumidos",
+                "consumer", "event_type", "topic");
+
+        Counter first = cache.get("CREATE", "employee-create");
+        first.increment();
+        cache.get("CREATE", "employee-create").increment();
+        cache.get("UPDATE", "employee-update").increment();
+
+        assertThat(cache.get("CREATE", "employee-create")).isSameAs(first);
+        assertThat(registry.get("events.consumed.total")
+                .tags("service", "consumer", "event_type", "CREATE", "topic", "employee-create")
+                .counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("events.consumed.total").counters()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Tag nula deve ser registrada como unknown")
+    void shouldMapNullTagToUnknown() {
+        CounterCache cache = new CounterCache(registry, "validation.failure.total", "Total de falhas",
+                "consumer", "event_type", "severity");
+
+        cache.get(null, "ERROR").increment();
+
+        assertThat(registry.get("validation.failure.total")
+                .tags("event_type", "unknown", "severity", "ERROR")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Quantidade de tags diferente da declarada deve falhar")
+    void shouldRejectWrongArity() {
+        CounterCache cache = new CounterCache(registry, "validation.success.total", "Total de sucessos",
+                "consumer", "event_type");
+
+        assertThatThrownBy(() -> cache.get("CREATE", "extra"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.esocial.consumer.metrics;
+
+import com.esocial.consumer.repository.MetricsSnapshotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class DatabaseMetricsSnapshotTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private MetricsSnapshotRepository repository;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(MetricsSnapshotRepository.class);
+        when(repository.countDlqEventsByStatus()).thenReturn(Map.of("PENDING", 4L, "FAILED", 1L));
+        when(repository.countEmployeesByEsocialStatus()).thenReturn(Map.of("SENT", 10L));
+        when(repository.countEmployeeEventsByStatus()).thenReturn(Map.of("PROCESSED", 7L));
+    }
+
+    @Test
+    @DisplayName("Scrape deve ler os valores do último refresh sem consultar o banco")
+    void shouldServeCachedValuesOnScrape() {
+        DatabaseMetricsSnapshot snapshot = new DatabaseMetricsSnapshot(repository, registry, 60000);
+        snapshot.refresh();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(gauge("dlq.events.pending")).isEqualTo(4.0);
+        }
+        assertThat(gauge("dlq.events.failed")).isEqualTo(1.0);
+        assertThat(registry.get("employees.esocial.status").tag("status", "SENT").gauge().value()).isEqualTo(10.0);
+        assertThat(registry.get("employee.events.status").tag("status", "PROCESSED").gauge().value()).isEqualTo(7.0);
+        assertThat(registry.get("employee.events.status").tag("status", "ERROR").gauge().value()).isZero();
+
+        verify(repository, times(1)).countDlqEventsByStatus();
+    }
+
+    @Test
+    @DisplayName("Status ausente no novo refresh deve voltar a zero")
+    void shouldResetMissingStatuses() {
+        DatabaseMetricsSnapshot snapshot = new DatabaseMetricsSnapshot(repository, registry, 60000);
+        snapshot.refresh();
+
+        when(repository.countDlqEventsByStatus()).thenReturn(Map.of("FAILED", 2L));
+        snapshot.refresh();
+
+        assertThat(gauge("dlq.events.pending")).isZero();
+        assertThat(gauge("dlq.events.failed")).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Sem refresh recente os gauges devem expor NaN")
+    void shouldExposeNaNWhenStale() {
+        DatabaseMetricsSnapshot snapshot = new DatabaseMetricsSnapshot(repository, registry, -1);
+        assertThat(gauge("dlq.events.pending")).isNaN();
+
+        snapshot.refresh();
+        assertThat(gauge("dlq.events.pending")).isNaN();
+    }
+
+    @Test
+    @DisplayName("Falha na consulta deve manter os valores anteriores")
+    void shouldKeepPreviousValuesOnFailure() {
+        DatabaseMetricsSnapshot snapshot = new DatabaseMetricsSnapshot(repository, registry, 60000);
+        snapshot.refresh();
+
+        when(repository.countDlqEventsByStatus()).thenThrow(new RuntimeException("connection refused"));
+        snapshot.refresh();
+
+        assertThat(gauge("dlq.events.pending")).isEqualTo(4.0);
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+}
@@ -0,0 +1,121 @@
+package com.esocial.consumer.processing;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventCoalescerTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventCoalescer coalescer;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new EventCoalescer(meterRegistry, true, 5000, 3);
+    }
+
+    @Test
+    @DisplayName("UPDATEs consecutivos do mesmo colaborador devem virar o último, com os eventIds absorvidos")
+    void shouldKeepLastUpdateOfBurst() {
+        var first = record(0, 1, "EMP001", "S-2400", "evt-1", T0);
+        var second = record(0, 2, "EMP001", "S-2410", "evt-2", T0 + 100);
+        var other = record(0, 3, "EMP002", "S-2400", "evt-3", T0 + 150);
+        var third = record(0, 4, "EMP001", "S-2405", "evt-4", T0 + 200);
+
+        List<ConsumerRecord<String, EmployeeEventDTO>> result = coalescer.coalesce(List.of(first, second, other, third)).records();
+
+        assertThat(result).containsExactly(other, third);
+        assertThat(third.value().getCoalescedEventIds()).containsExactly("evt-1", "evt-2");
+        assertThat(other.value().getCoalescedEventIds()).isNull();
+        assertThat(meterRegistry.get("events.coalesced").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Admissão e desligamento devem encerrar o grupo")
+    void shouldPreserveCreateAndDeleteBoundaries() {
+        var update1 = record(0, 1, "EMP001", "S-2400", "evt-1", T0);
+        var delete = record(0, 2, "EMP001", "S-2420", "evt-2", T0 + 100);
+        var create = record(0, 3, "EMP001", "S-2300", "evt-3", T0 + 200);
+        var update2 = record(0, 4, "EMP001", "S-2400", "evt-4", T0 + 300);
+        var update3 = record(0, 5, "EMP001", "S-2400", "evt-5", T0 + 400);
+
+        List<ConsumerRecord<String, EmployeeEventDTO>> result =
+                coalescer.coalesce(List.of(update1, delete, create, update2, update3)).records();
+
+        assertThat(result).containsExactly(update1, delete, create, update3);
+        assertThat(update3.value().getCoalescedEventIds()).containsExactly("evt-4");
+    }
+
+    @Test
+    @DisplayName("Janela de tempo, limite de eventos e partição diferente devem abrir um novo grupo")
+    void shouldRespectWindowCountAndPartition() {
+        var a = record(0, 1, "EMP001", "S-2400", "evt-1", T0);
+        var b = record(0, 2, "EMP001", "S-2400", "evt-2", T0 + 6000);
+        var c = record(1, 1, "EMP001", "S-2400", "evt-3", T0 + 6001);
+        var d = record(1, 2, "EMP001", "S-2400", "evt-4", T0 + 6002);
+        var e = record(1, 3, "EMP001", "S-2400", "evt-5", T0 + 6003);
+        var f = record(1, 4, "EMP001", "S-2400", "evt-6", T0 + 6004);
+
+        List<ConsumerRecord<String, EmployeeEventDTO>> result = coalescer.coalesce(List.of(a, b, c, d, e, f)).records();
+
+        // a: fora da janela de b; b: outra partição; c-e: limite de 3 eventos
+        assertThat(result).containsExactly(a, b, e, f);
+        assertThat(e.value().getCoalescedEventIds()).containsExactly("evt-3", "evt-4");
+    }
+
+    @Test
+    @DisplayName("Sobrevivente reprovado deve devolver os absorvidos e voltar aos próprios eventIds")
+    void shouldFallBackToAbsorbedWhenSurvivorIsRejected() {
+        var first = record(0, 1, "EMP001", "S-2400", "evt-1", T0);
+        var second = record(0, 2, "EMP001", "S-2410", "evt-2", T0 + 100);
+        var other = record(0, 3, "EMP002", "S-2400", "evt-3", T0 + 150);
+        var third = record(0, 4, "EMP001", "S-2405", "evt-4", T0 + 200);
+        third.value().setCoalescedEventIds(List.of("evt-0"));
+
+        EventCoalescer.Coalesced coalesced = coalescer.coalesce(List.of(first, second, other, third));
+        assertThat(third.value().getCoalescedEventIds()).containsExactly("evt-1", "evt-2", "evt-0");
+
+        List<ConsumerRecord<String, EmployeeEventDTO>> absorbed = coalesced.fallback(third);
+
+        assertThat(absorbed).containsExactly(first, second);
+        assertThat(third.value().getCoalescedEventIds()).containsExactly("evt-0");
+        assertThat(coalesced.fallback(third)).isEmpty();
+        assertThat(coalesced.fallback(other)).isEmpty();
+        assertThat(coalesced.inOriginalOrder(List.of(other, second, first))).containsExactly(first, second, other);
+    }
+
+    @Test
+    @DisplayName("Desabilitado, o lote deve seguir inalterado")
+    void shouldPassThroughWhenDisabled() {
+        EventCoalescer disabled = new EventCoalescer(meterRegistry, false, 5000, 3);
+        List<ConsumerRecord<String, EmployeeEventDTO>> records = List.of(
+                record(0, 1, "EMP001", "S-2400", "evt-1", T0),
+                record(0, 2, "EMP001", "S-2400", "evt-2", T0 + 1));
+
+        assertThat(disabled.coalesce(records).records()).isSameAs(records);
+    }
+
+    private static ConsumerRecord<String, EmployeeEventDTO> record(int partition, long offset, String sourceId,
+                                                                    String eventType, String eventId, long timestamp) {
+        EmployeeEventDTO event = EmployeeEventDTO.builder()
+                .eventId(eventId)
+                .eventType(eventType)
+                .sourceId(sourceId)
+                .build();
+        return new ConsumerRecord<>("employee-update", partition, offset, timestamp, TimestampType.CREATE_TIME,
+                -1, -1, sourceId, event, new RecordHeaders(), Optional.empty());
+    }
+}
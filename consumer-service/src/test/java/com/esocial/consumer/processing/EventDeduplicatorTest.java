@@ -0,0 +1,137 @@
+package com.esocial.consumer.processing;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class EventDeduplicatorTest {
+
+    private ProcessedEventRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private EventDeduplicator deduplicator;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(ProcessedEventRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        deduplicator = new EventDeduplicator(repository, meterRegistry, true, 2, 30);
+    }
+
+    @Test
+    @DisplayName("Evento confirmado recentemente deve ser descartado sem consultar o banco")
+    void shouldDetectCachedDuplicateWithoutDatabase() {
+        deduplicator.recordAfterCommit("evt-1");
+
+        assertThat(deduplicator.isDuplicate(event("evt-1"))).isTrue();
+        verifyNoInteractions(repository);
+        assertThat(meterRegistry.get("events.duplicates").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Sem acerto no cache não deve consultar o banco; o conflito na gravação detecta a duplicata")
+    void shouldLeaveCacheMissesToProcessedEventsConflict() {
+        assertThat(deduplicator.isDuplicate(event("evt-2"))).isFalse();
+        verifyNoInteractions(repository);
+
+        // Conflito em processed_events durante a persistência: evt-2 passa a estar no cache
+        deduplicator.recordDuplicate("evt-2");
+
+        assertThat(deduplicator.isDuplicate(event("evt-2"))).isTrue();
+        assertThat(meterRegistry.get("events.duplicates").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Cache deve ser limitado e descartar o eventId mais antigo")
+    void shouldEvictOldestEntry() {
+        deduplicator.recordAfterCommit("evt-1");
+        deduplicator.recordAfterCommit("evt-2");
+        deduplicator.recordAfterCommit("evt-3");
+
+        assertThat(deduplicator.isDuplicate(event("evt-1"))).isFalse();
+        assertThat(deduplicator.isDuplicate(event("evt-2"))).isTrue();
+        assertThat(deduplicator.isDuplicate(event("evt-3"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Gravações concorrentes no cache devem respeitar o limite")
+    void shouldStayBoundedUnderConcurrentWrites() throws Exception {
+        EventDeduplicator bounded = new EventDeduplicator(repository, new SimpleMeterRegistry(), true, 100, 30);
+        int threads = 8;
+        int perThread = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        bounded.recordDuplicate("evt-" + thread + "-" + i);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long cached = IntStream.range(0, threads).boxed()
+                .flatMap(t -> IntStream.range(0, perThread).mapToObj(i -> "evt-" + t + "-" + i))
+                .filter(eventId -> bounded.isDuplicate(event(eventId)))
+                .count();
+        assertThat(cached).isPositive().isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Lote deve descartar processados e eventIds repetidos com uma única consulta")
+    void shouldFilterBatchWithSingleQuery() {
+        deduplicator.recordAfterCommit("evt-1");
+        when(repository.findExisting(anyCollection())).thenReturn(Set.of("evt-2"));
+
+        List<ConsumerRecord<String, EmployeeEventDTO>> unique = deduplicator.filterDuplicates(List.of(
+                record(0, "evt-1"), record(1, "evt-2"), record(2, "evt-3"), record(3, "evt-3")));
+
+        assertThat(unique).extracting(ConsumerRecord::offset).containsExactly(2L);
+        verify(repository, times(1)).findExisting(Set.of("evt-2", "evt-3"));
+        assertThat(meterRegistry.get("events.duplicates").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Desabilitado não deve filtrar nem consultar o banco")
+    void shouldBypassWhenDisabled() {
+        EventDeduplicator disabled = new EventDeduplicator(repository, new SimpleMeterRegistry(), false, 10, 30);
+
+        assertThat(disabled.isDuplicate(event("evt-1"))).isFalse();
+        verifyNoInteractions(repository);
+    }
+
+    private static EmployeeEventDTO event(String eventId) {
+        return EmployeeEventDTO.builder()
+                .eventId(eventId)
+                .sourceId("EMP001")
+                .eventType("S-2300")
+                .build();
+    }
+
+    private static ConsumerRecord<String, EmployeeEventDTO> record(long offset, String eventId) {
+        return new ConsumerRecord<>("employee-create", 0, offset, "EMP001", event(eventId));
+    }
+}
@@ -0,0 +1,78 @@
+package com.esocial.consumer.processing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeyOrderedExecutorTest {
+
+    private KeyOrderedExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Eventos da mesma chave devem ser processados na ordem de chegada")
+    void shouldPreserveOrderPerKey() throws InterruptedException {
+        executor = new KeyOrderedExecutor(true, 4);
+        List<Integer> processed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(200);
+
+        for (int i = 0; i < 200; i++) {
+            int sequence = i;
+            executor.execute("EMP001", () -> {
+                processed.add(sequence);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(processed).isSorted().hasSize(200);
+    }
+
+    @Test
+    @DisplayName("Chaves em workers diferentes devem ser processadas em paralelo")
+    void shouldProcessDifferentKeysConcurrently() throws InterruptedException {
+        executor = new KeyOrderedExecutor(true, 2);
+        assertThat(executor.laneOf("a")).isNotEqualTo(executor.laneOf("b"));
+
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        CountDownLatch firstFinished = new CountDownLatch(1);
+
+        // A primeira tarefa só termina se a segunda (outra chave) começar enquanto ela executa
+        executor.execute("a", () -> {
+            try {
+                if (secondStarted.await(5, TimeUnit.SECONDS)) {
+                    firstFinished.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute("b", secondStarted::countDown);
+
+        assertThat(firstFinished.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Pool desabilitado não deve aceitar tarefas")
+    void shouldRejectWhenDisabled() {
+        executor = new KeyOrderedExecutor(false, 4);
+
+        assertThat(executor.workers()).isZero();
+        assertThatThrownBy(() -> executor.execute("EMP001", () -> { }))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
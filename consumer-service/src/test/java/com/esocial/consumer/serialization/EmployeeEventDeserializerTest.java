@@ -0,0 +1,111 @@
+package com.esocial.consumer.serialization;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmployeeEventDeserializerTest {
+
+    private static final String TOPIC = "employee-create";
+
+    private EventSchemaRegistry registry;
+    private EmployeeEventDeserializer deserializer;
+
+    @BeforeEach
+    void setup() {
+        registry = new EventSchemaRegistry("schemas/employee-event");
+        deserializer = new EmployeeEventDeserializer(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deserializer.close();
+    }
+
+    @Test
+    @DisplayName("Mensagem sem header de formato deve ser lida como JSON")
+    void shouldReadJsonWithoutFormatHeader() {
+        byte[] json = "{\"source_id\":\"EMP001\",\"event_type\":\"CREATE\",\"cpf\":\"12345678909\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        EmployeeEventDTO event = deserializer.deserialize(TOPIC, new RecordHeaders(), json);
+
+        assertThat(event.getSourceId()).isEqualTo("EMP001");
+        assertThat(event.getCpf()).isEqualTo("12345678909");
+    }
+
+    @Test
+    @DisplayName("Mensagem Avro deve ser decodificada com o schema do header")
+    void shouldDecodeAvroPayload() throws IOException {
+        Schema schema = registry.get(1);
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("event_id", "evt-1");
+        record.put("event_type", "UPDATE");
+        record.put("source_id", "EMP002");
+        record.put("cpf", "12345678909");
+        record.put("admission_date", (int) LocalDate.of(2024, 1, 10).toEpochDay());
+        record.put("salary", ByteBuffer.wrap(new BigDecimal("5500.50").unscaledValue().toByteArray()));
+
+        EmployeeEventDTO event = deserializer.deserialize(TOPIC, avroHeaders("1"), encode(schema, record));
+
+        assertThat(event.getEventId()).isEqualTo("evt-1");
+        assertThat(event.getEventType()).isEqualTo("UPDATE");
+        assertThat(event.getSourceId()).isEqualTo("EMP002");
+        assertThat(event.getAdmissionDate()).isEqualTo(LocalDate.of(2024, 1, 10));
+        assertThat(event.getSalary()).isEqualByComparingTo("5500.50");
+        assertThat(event.getPis()).isNull();
+    }
+
+    @Test
+    @DisplayName("Versão de schema desconhecida deve falhar a desserialização")
+    void shouldRejectUnknownSchemaVersion() {
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, avroHeaders("99"), new byte[]{0}))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    @DisplayName("Registro deve aceitar nova versão com campo opcional e rejeitar campo obrigatório")
+    void shouldEnforceBackwardCompatibility() {
+        EventSchemaRegistry evolved = new EventSchemaRegistry("schemas/evolution-compatible");
+        assertThat(evolved.latestVersion()).isEqualTo(2);
+
+        assertThatThrownBy(() -> new EventSchemaRegistry("schemas/evolution-incompatible"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("v2");
+    }
+
+    private static RecordHeaders avroHeaders(String version) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(PayloadFormat.HEADER, "avro".getBytes(StandardCharsets.UTF_8));
+        headers.add(PayloadFormat.SCHEMA_VERSION_HEADER, version.getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+
+    private static byte[] encode(Schema schema, GenericRecord record) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,101 @@
+package com.esocial.consumer.service;
+
+import com.esocial.consumer.model.dto.DlqMessageDTO;
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.repository.DlqBatchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DlqPublisherTest {
+
+    private static final String DLQ_TOPIC = "esocial-dlq";
+
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private DlqBatchRepository repository;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private DlqPublisher publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        repository = mock(DlqBatchRepository.class);
+        publisher = new DlqPublisher(kafkaTemplate, repository, objectMapper, new SimpleMeterRegistry(), DLQ_TOPIC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve publicar no tópico de DLQ sem gravar no banco na thread do listener")
+    void shouldPublishToDlqTopic() throws Exception {
+        when(kafkaTemplate.send(eq(DLQ_TOPIC), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        publisher.publish(event(), "employee-create", 42L, 1, new IllegalStateException("CPF inválido"));
+
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate).send(eq(DLQ_TOPIC), eq("EMP001"), json.capture());
+        verifyNoInteractions(repository);
+
+        DlqMessageDTO message = objectMapper.readValue(json.getValue(), DlqMessageDTO.class);
+        assertThat(message.getEventId()).isEqualTo("evt-1");
+        assertThat(message.getErrorMessage()).isEqualTo("CPF inválido");
+        assertThat(message.getKafkaOffset()).isEqualTo(42L);
+        assertThat(message.getStackTraceFingerprint()).hasSize(64);
+        assertThat(message.getEventPayload()).contains("\"source_id\":\"EMP001\"");
+    }
+
+    @Test
+    @DisplayName("Falha na publicação deve gravar a mensagem direto no banco")
+    void shouldFallBackToDatabase() {
+        when(kafkaTemplate.send(eq(DLQ_TOPIC), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker indisponível")));
+
+        publisher.publish(event(), "employee-create", 42L, 1, new IllegalStateException("CPF inválido"));
+
+        verify(repository, timeout(2000)).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Mesma origem de erro com mensagens diferentes deve gerar o mesmo fingerprint")
+    void shouldFingerprintIgnoringMessage() {
+        List<Exception> errors = List.of(failure("CPF 111"), failure("CPF 222"));
+
+        String first = DlqPublisher.fingerprint(DlqPublisher.stackTraceText(errors.get(0)));
+        String second = DlqPublisher.fingerprint(DlqPublisher.stackTraceText(errors.get(1)));
+        String other = DlqPublisher.fingerprint(DlqPublisher.stackTraceText(new IllegalArgumentException("x")));
+
+        assertThat(first).isEqualTo(second).isNotEqualTo(other);
+    }
+
+    private static Exception failure(String message) {
+        return new IllegalStateException(message);
+    }
+
+    private static EmployeeEventDTO event() {
+        return EmployeeEventDTO.builder()
+                .eventId("evt-1")
+                .sourceId("EMP001")
+                .eventType("S-2300")
+                .build();
+    }
+}
@@ -1,75 +1,132 @@
 package com.esocial.consumer.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
-import java.util.Arrays;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
 
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 
-import com.esocial.consumer.model.entity.DlqEvent;
-import com.esocial.consumer.repository.DlqEventRepository;
+import com.esocial.consumer.repository.DlqReplayRepository;
+import com.esocial.consumer.repository.DlqReplayRepository.ClaimedDlqEvent;
+import com.esocial.consumer.repository.DlqReplayRepository.RetrySchedule;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class DlqRetryServiceUnitTest {
 
     @Mock
-    private DlqEventRepository dlqEventRepository;
+    private DlqReplayRepository replayRepository;
 
     @Mock
     private KafkaTemplate<String, String> kafkaTemplate;
 
-    @InjectMocks
+    @Captor
+    private ArgumentCaptor<ProducerRecord<String, String>> recordCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<RetrySchedule>> schedulesCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
     private DlqRetryService dlqRetryService;
 
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        dlqRetryService = new DlqRetryService(replayRepository, kafkaTemplate, meterRegistry);
     }
 
     @Test
-    public void testProcessDlqEventsSuccess() throws Exception {
-        DlqEvent event = new DlqEvent();
-        event.setId(1L);
-        event.setEventPayload("payload");
-        event.setStatus("PENDING");
-        event.setRetryCount(0);
-
-        when(dlqEventRepository.findByStatusAndRetryCountLessThan("PENDING", 5))
-            .thenReturn(List.of(event));
+    public void testProcessDlqEventsSuccess() {
+        UUID correlationId = UUID.randomUUID();
+        ClaimedDlqEvent event = new ClaimedDlqEvent(1L, "evt-1", "EMP001", "payload", "employee-create", 0, correlationId);
+        when(replayRepository.claimDue(eq(5), eq(200), anyLong())).thenReturn(List.of(event));
 
         SendResult<String, String> sendResult = mock(SendResult.class);
-
-        when(kafkaTemplate.send("employee.events", "payload").get())
-            .thenReturn(sendResult);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(sendResult));
 
         dlqRetryService.processDlqEvents();
 
-        verify(dlqEventRepository, times(1)).save(argThat(savedEvent -> savedEvent.getStatus().equals("RETRIED")));
+        verify(kafkaTemplate).send(recordCaptor.capture());
+        ProducerRecord<String, String> record = recordCaptor.getValue();
+        assertThat(record.topic()).isEqualTo("employee-create");
+        assertThat(record.key()).isEqualTo("EMP001");
+        assertThat(new String(record.headers().lastHeader("X-Correlation-Id").value())).isEqualTo(correlationId.toString());
+
+        // Linha republicada fica RETRIED com a próxima tentativa já agendada, caso o evento volte à DLQ
+        verify(replayRepository).markRetried(schedulesCaptor.capture());
+        assertThat(schedulesCaptor.getValue()).singleElement()
+            .satisfies(schedule -> {
+                assertThat(schedule.id()).isEqualTo(1L);
+                assertThat(schedule.nextRetryAt()).isAfter(LocalDateTime.now());
+            });
+        verify(replayRepository).scheduleRetries(List.of(), 5);
+        assertThat(meterRegistry.counter("dlq.replay.success", "service", "consumer").count()).isEqualTo(1.0);
     }
 
     @Test
-    public void testProcessDlqEventsFailureMaxRetry() throws Exception {
-        DlqEvent event = new DlqEvent();
-        event.setId(1L);
-        event.setEventPayload("payload");
-        event.setStatus("PENDING");
-        event.setRetryCount(4);
+    public void testProcessDlqEventsFailureMaxRetry() {
+        ClaimedDlqEvent event = new ClaimedDlqEvent(1L, "evt-1", "EMP001", "payload", null, 4, null);
+        when(replayRepository.claimDue(eq(5), eq(200), anyLong())).thenReturn(List.of(event));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Kafka error")));
+
+        LocalDateTime before = LocalDateTime.now();
+        dlqRetryService.processDlqEvents();
+
+        verify(kafkaTemplate).send(recordCaptor.capture());
+        assertThat(recordCaptor.getValue().topic()).isEqualTo("employee-update");
+
+        verify(replayRepository).markRetried(List.of());
+        verify(replayRepository).scheduleRetries(schedulesCaptor.capture(), eq(5));
+        assertThat(schedulesCaptor.getValue()).singleElement()
+            .satisfies(schedule -> {
+                assertThat(schedule.id()).isEqualTo(1L);
+                assertThat(schedule.nextRetryAt()).isAfter(before);
+            });
+        assertThat(meterRegistry.counter("dlq.replay.exhausted", "service", "consumer").count()).isEqualTo(1.0);
+    }
 
-        when(dlqEventRepository.findByStatusAndRetryCountLessThan("PENDING", 5))
-            .thenReturn(List.of(event));
+    @Test
+    public void testClaimsNextPageWhenPageIsFull() {
+        List<ClaimedDlqEvent> fullPage = LongStream.rangeClosed(1, 200)
+            .mapToObj(id -> new ClaimedDlqEvent(id, "evt-" + id, "EMP" + id, "payload", "employee-update", 0, null))
+            .toList();
+        when(replayRepository.claimDue(eq(5), eq(200), anyLong())).thenReturn(fullPage, List.of());
 
-        when(kafkaTemplate.send("employee.events", "payload").get())
-            .thenThrow(new ExecutionException(new RuntimeException("Kafka error")));
+        SendResult<String, String> sendResult = mock(SendResult.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(sendResult));
 
         dlqRetryService.processDlqEvents();
 
-        verify(dlqEventRepository, times(1)).save(argThat(savedEvent -> 
-            savedEvent.getStatus().equals("FAILED") && savedEvent.getRetryCount() == 5
-        ));
+        verify(replayRepository, times(2)).claimDue(eq(5), eq(200), anyLong());
+        verify(kafkaTemplate, times(200)).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    public void testBackoffGrowsExponentiallyWithJitterAndCap() {
+        Random random = new Random(42);
+
+        for (int attempt = 1; attempt <= 4; attempt++) {
+            long expected = 1000L << (attempt - 1);
+            Duration delay = DlqRetryService.backoffDelay(attempt, 1000, 60000, random);
+            assertThat(delay.toMillis()).isBetween(expected / 2, expected);
+        }
+
+        Duration capped = DlqRetryService.backoffDelay(20, 1000, 60000, random);
+        assertThat(capped.toMillis()).isBetween(30000L, 60000L);
     }
 }
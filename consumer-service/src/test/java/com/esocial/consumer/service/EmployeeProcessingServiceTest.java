@@ -42,7 +42,7 @@ public class EmployeeProcessingServiceTest {
             .sourceId("HR-SYSTEM-001-12345")
             .eventId("evt-20251110-001")
             .eventType("S-2300")
-            .cpf("12345678901")
+            .cpf("12345678909")
             .fullName("João Silva")
             .birthDate(LocalDate.of(1990, 5, 15))
             .admissionDate(LocalDate.of(2020, 1, 10))
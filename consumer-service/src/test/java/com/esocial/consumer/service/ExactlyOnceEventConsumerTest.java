@@ -0,0 +1,221 @@
+package com.esocial.consumer.service;
+
+import com.esocial.consumer.metrics.ConsumerMetrics;
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.processing.AfterCommitActions;
+import com.esocial.consumer.processing.EventCoalescer;
+import com.esocial.consumer.repository.ConsumerOffsetRepository;
+import com.esocial.consumer.validation.ValidationResult;
+import com.esocial.consumer.validation.ValidationSeverity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExactlyOnceEventConsumerTest {
+
+    private static final String GROUP_ID = "esocial-consumer-group";
+
+    private ValidationService validationService;
+    private PersistenceService persistenceService;
+    private DlqPublisher dlqPublisher;
+    private ConsumerOffsetRepository offsetRepository;
+    private KafkaTemplate<String, String> transactionalTemplate;
+    private Acknowledgment acknowledgment;
+    private ExactlyOnceEventConsumer consumer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        validationService = mock(ValidationService.class);
+        persistenceService = mock(PersistenceService.class);
+        dlqPublisher = mock(DlqPublisher.class);
+        offsetRepository = mock(ConsumerOffsetRepository.class);
+        transactionalTemplate = mock(KafkaTemplate.class);
+        acknowledgment = mock(Acknowledgment.class);
+
+        KafkaOperations<String, String> operations = mock(KafkaOperations.class);
+        when(transactionalTemplate.executeInTransaction(any())).thenAnswer(invocation ->
+                invocation.<KafkaOperations.OperationsCallback<String, String, Object>>getArgument(0)
+                        .doInOperations(operations));
+        when(dlqPublisher.publishTransactional(any(), any(), anyString(), anyLong(), anyInt(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        consumer = new ExactlyOnceEventConsumer(validationService, persistenceService, dlqPublisher,
+                offsetRepository, new EventCoalescer(new SimpleMeterRegistry(), false, 5000, 50),
+                mock(ConsumerMetrics.class), transactionalTemplate,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), GROUP_ID, 1000);
+    }
+
+    @Test
+    @DisplayName("Atribuição deve fazer seek apenas para as partições com offset gravado no banco")
+    void shouldSeekToStoredOffsetsOnAssignment() {
+        TopicPartition stored = new TopicPartition("employee-create", 0);
+        TopicPartition fresh = new TopicPartition("employee-create", 1);
+        when(offsetRepository.findOffsets(eq(GROUP_ID), eq(Set.of(stored, fresh))))
+                .thenReturn(Map.of(stored, 42L));
+        ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+
+        consumer.onPartitionsAssigned(Map.of(stored, 10L, fresh, 5L), callback);
+
+        verify(callback).seek("employee-create", 0, 42L);
+        verify(callback, never()).seek(eq("employee-create"), eq(1), anyLong());
+    }
+
+    @Test
+    @DisplayName("Lote deve gravar aprovados, enviar reprovados para a DLQ e salvar o próximo offset")
+    void shouldPersistBatchAndSaveOffsets() {
+        ConsumerRecord<String, EmployeeEventDTO> valid = record(0, 7, "EMP001");
+        ConsumerRecord<String, EmployeeEventDTO> invalid = record(0, 8, "EMP002");
+        ConsumerRecord<String, EmployeeEventDTO> other = record(1, 3, "EMP003");
+        when(validationService.validateBatchAndWriteErrors(anyList()))
+                .thenReturn(List.of(new ValidationResult(), invalidResult(), new ValidationResult()));
+
+        consumer.consumeEmployeeEventBatch(List.of(valid, invalid, other), acknowledgment);
+
+        verify(persistenceService).persistBatch(List.of(valid, other));
+        verify(dlqPublisher).publishTransactional(any(), eq(invalid.value()), eq("employee-create"),
+                eq(8L), eq(0), any());
+        verify(offsetRepository).saveOffsets(GROUP_ID, Map.of(
+                new TopicPartition("employee-create", 0), 9L,
+                new TopicPartition("employee-create", 1), 4L));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Falha no lote deve isolar o registro problemático na DLQ")
+    void shouldIsolateFailingRecord() {
+        ConsumerRecord<String, EmployeeEventDTO> ok = record(0, 1, "EMP001");
+        ConsumerRecord<String, EmployeeEventDTO> broken = record(0, 2, "EMP002");
+        when(validationService.validateBatchAndWriteErrors(anyList()))
+                .thenReturn(List.of(new ValidationResult(), new ValidationResult()));
+        doThrow(new RuntimeException("violação de constraint")).when(persistenceService).persistBatch(anyList());
+        doThrow(new RuntimeException("violação de constraint")).when(persistenceService)
+                .persistEvent(eq(broken.value()), anyLong(), anyInt(), anyString());
+
+        consumer.consumeEmployeeEventBatch(List.of(ok, broken), acknowledgment);
+
+        verify(persistenceService).persistEvent(ok.value(), 1L, 0, "employee-create");
+        verify(dlqPublisher).publishTransactional(any(), eq(broken.value()), anyString(), eq(2L), eq(0), any());
+        verify(offsetRepository).saveOffsets(GROUP_ID, Map.of(new TopicPartition("employee-create", 0), 3L));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Savepoint desfeito não deve aplicar as atualizações pós-commit registradas nele")
+    void shouldDiscardAfterCommitActionsOfRolledBackSavepoints() {
+        ConsumerRecord<String, EmployeeEventDTO> ok = record(0, 1, "EMP001");
+        ConsumerRecord<String, EmployeeEventDTO> broken = record(0, 2, "EMP002");
+        List<String> applied = new ArrayList<>();
+        when(validationService.validateBatchAndWriteErrors(anyList()))
+                .thenReturn(List.of(new ValidationResult(), new ValidationResult()));
+        doAnswer(invocation -> {
+            AfterCommitActions.register(() -> applied.add("lote"));
+            throw new RuntimeException("violação de constraint");
+        }).when(persistenceService).persistBatch(anyList());
+        doAnswer(invocation -> {
+            EmployeeEventDTO event = invocation.getArgument(0);
+            AfterCommitActions.register(() -> applied.add(event.getSourceId()));
+            if (event == broken.value()) {
+                throw new RuntimeException("violação de constraint");
+            }
+            return null;
+        }).when(persistenceService).persistEvent(any(), anyLong(), anyInt(), anyString());
+
+        consumer.consumeEmployeeEventBatch(List.of(ok, broken), acknowledgment);
+
+        assertThat(applied).containsExactly("EMP001");
+    }
+
+    @Test
+    @DisplayName("UPDATE sobrevivente reprovado deve devolver os absorvidos para validação e gravação")
+    void shouldFallBackToAbsorbedUpdatesWhenSurvivorIsRejected() {
+        ExactlyOnceEventConsumer coalescing = new ExactlyOnceEventConsumer(validationService, persistenceService,
+                dlqPublisher, offsetRepository, new EventCoalescer(new SimpleMeterRegistry(), true, 5000, 50),
+                mock(ConsumerMetrics.class), transactionalTemplate,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), GROUP_ID, 1000);
+        ConsumerRecord<String, EmployeeEventDTO> earlier = record(0, 1, "EMP001");
+        earlier.value().setEventId("evt-EMP001-1");
+        ConsumerRecord<String, EmployeeEventDTO> survivor = record(0, 2, "EMP001");
+        when(validationService.validateBatchAndWriteErrors(List.of(survivor))).thenReturn(List.of(invalidResult()));
+        when(validationService.validateBatchAndWriteErrors(List.of(earlier))).thenReturn(List.of(new ValidationResult()));
+
+        coalescing.consumeEmployeeEventBatch(List.of(earlier, survivor), acknowledgment);
+
+        verify(persistenceService).persistBatch(List.of(earlier));
+        verify(dlqPublisher).publishTransactional(any(), eq(survivor.value()), anyString(), eq(2L), eq(0), any());
+        assertThat(survivor.value().getCoalescedEventIds()).isNull();
+        verify(offsetRepository).saveOffsets(GROUP_ID, Map.of(new TopicPartition("employee-create", 0), 3L));
+    }
+
+    @Test
+    @DisplayName("Falha ao gravar os offsets não deve confirmar o lote")
+    void shouldNotAcknowledgeWhenOffsetsFail() {
+        when(validationService.validateBatchAndWriteErrors(anyList())).thenReturn(List.of(new ValidationResult()));
+        doThrow(new RuntimeException("conexão perdida")).when(offsetRepository).saveOffsets(anyString(), anyMap());
+
+        assertThatThrownBy(() -> consumer.consumeEmployeeEventBatch(List.of(record(0, 1, "EMP001")), acknowledgment))
+                .hasMessageContaining("conexão perdida");
+
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Falha na publicação da DLQ deve desfazer o lote")
+    void shouldFailBatchWhenDlqPublishFails() {
+        when(validationService.validateBatchAndWriteErrors(anyList())).thenReturn(List.of(invalidResult()));
+        when(dlqPublisher.publishTransactional(any(), any(), anyString(), anyLong(), anyInt(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker indisponível")));
+
+        assertThatThrownBy(() -> consumer.consumeEmployeeEventBatch(List.of(record(0, 1, "EMP001")), acknowledgment))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(offsetRepository, never()).saveOffsets(anyString(), anyMap());
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Recoverer deve enviar o registro à DLQ e avançar o offset gravado no banco")
+    void shouldPublishToDlqAndAdvanceOffsetOnRecovery() {
+        ConsumerRecord<String, EmployeeEventDTO> exhausted = record(2, 15, "EMP001");
+
+        consumer.recover(exhausted, new RuntimeException("conexão perdida"));
+
+        verify(dlqPublisher).publishTransactional(any(), eq(exhausted.value()), eq("employee-create"),
+                eq(15L), eq(2), any());
+        verify(offsetRepository).saveOffsets(GROUP_ID, Map.of(new TopicPartition("employee-create", 2), 16L));
+    }
+
+    private ConsumerRecord<String, EmployeeEventDTO> record(int partition, long offset, String sourceId) {
+        EmployeeEventDTO event = new EmployeeEventDTO();
+        event.setEventId("evt-" + sourceId);
+        event.setSourceId(sourceId);
+        event.setEventType("S-2400");
+        return new ConsumerRecord<>("employee-create", partition, offset, sourceId, event);
+    }
+
+    private ValidationResult invalidResult() {
+        ValidationResult result = new ValidationResult();
+        result.addError("VS-001", ValidationSeverity.ERROR, "CPF inválido", "cpf", "123");
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+package com.esocial.consumer.service;
+
+import com.esocial.consumer.repository.PartitionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PartitionMaintenanceServiceTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2026, 10);
+
+    private SimpleMeterRegistry meterRegistry;
+    private PartitionRepository repository;
+    private PartitionMaintenanceService service;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        repository = mock(PartitionRepository.class);
+        service = new PartitionMaintenanceService(repository, meterRegistry, true, 2, 24, 6, 0);
+        when(repository.isPartitioned(anyString())).thenReturn(false);
+        when(repository.isPartitioned("public.validation_errors")).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Deve criar apenas as partições futuras que ainda não existem")
+    void shouldCreateMissingFuturePartitions() {
+        when(repository.findPartitions("public.validation_errors"))
+                .thenReturn(List.of("validation_errors_default", "validation_errors_p202610"));
+        when(repository.createMonthlyPartition(eq("public.validation_errors"), any()))
+                .thenReturn("public.validation_errors_p2026xx");
+
+        service.maintain(CURRENT);
+
+        verify(repository).createMonthlyPartition("public.validation_errors", LocalDate.of(2026, 11, 1));
+        verify(repository).createMonthlyPartition("public.validation_errors", LocalDate.of(2026, 12, 1));
+        verify(repository, never()).createMonthlyPartition("public.validation_errors", LocalDate.of(2026, 10, 1));
+        assertThat(meterRegistry.get("partitions.created").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Deve arquivar apenas as partições anteriores à retenção, nunca a DEFAULT")
+    void shouldArchiveOnlyExpiredPartitions() {
+        when(repository.findPartitions("public.validation_errors")).thenReturn(List.of(
+                "validation_errors_default",
+                "validation_errors_p202603",
+                "validation_errors_p202604",
+                "validation_errors_p202610",
+                "validation_errors_p202611",
+                "validation_errors_p202612"));
+        when(repository.archivePartition(anyString())).thenReturn("archive.validation_errors_p202603");
+
+        service.maintain(CURRENT);
+
+        // Retenção de 6 meses em outubro: abril em diante permanece anexado
+        verify(repository).archivePartition("public.validation_errors_p202603");
+        verify(repository, times(1)).archivePartition(anyString());
+        assertThat(meterRegistry.get("partitions.archived").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Tabelas não particionadas e retenção zero não devem sofrer DDL")
+    void shouldSkipUnpartitionedTablesAndZeroRetention() {
+        when(repository.isPartitioned("audit.employees_history")).thenReturn(true);
+        when(repository.findPartitions("audit.employees_history"))
+                .thenReturn(List.of("employees_history_p200001", "employees_history_p202610",
+                        "employees_history_p202611", "employees_history_p202612"));
+
+        service.maintain(CURRENT);
+
+        verify(repository, never()).findPartitions("public.employee_events");
+        verify(repository, never()).archivePartition(startsWith("audit."));
+    }
+
+    @Test
+    @DisplayName("Falha em uma tabela não deve impedir a manutenção das demais")
+    void shouldContinueAfterFailure() {
+        when(repository.isPartitioned("public.employee_events")).thenReturn(true);
+        when(repository.findPartitions("public.employee_events"))
+                .thenThrow(new RuntimeException("canceling statement due to lock timeout"));
+        when(repository.findPartitions("public.validation_errors")).thenReturn(List.of("validation_errors_p202601"));
+        when(repository.createMonthlyPartition(anyString(), any())).thenReturn("public.validation_errors_p2026xx");
+
+        service.maintain(CURRENT);
+
+        verify(repository).archivePartition("public.validation_errors_p202601");
+        verify(repository, times(3)).createMonthlyPartition(eq("public.validation_errors"), any());
+    }
+}
@@ -0,0 +1,152 @@
+package com.esocial.consumer.service;
+
+import com.esocial.consumer.model.dto.EmployeeEventDTO;
+import com.esocial.consumer.model.entity.ValidationError;
+import com.esocial.consumer.repository.ValidationErrorBatchRepository;
+import com.esocial.consumer.validation.ValidationErrorDTO;
+import com.esocial.consumer.validation.ValidationSeverity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ValidationErrorSinkTest {
+
+    private ValidationErrorBatchRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(ValidationErrorBatchRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Submit só deve enfileirar; o flush grava um payload por evento e todas as linhas em lote")
+    @SuppressWarnings("unchecked")
+    void shouldStorePayloadOncePerEvent() {
+        ValidationErrorSink sink = newSink(100);
+
+        sink.submit(event("evt-1"), List.of(finding("VE-001"), finding("VE-002"), finding("VC-001")), 10L, 0, "employee-create");
+        sink.submit(event("evt-2"), List.of(finding("VE-001")), 11L, 0, "employee-create");
+
+        verifyNoInteractions(repository);
+        assertThat(meterRegistry.get("validation.errors.sink.queue.depth").gauge().value()).isEqualTo(2.0);
+
+        sink.flush();
+
+        ArgumentCaptor<Map<String, String>> payloads = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<List<ValidationError>> rows = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).insertPayloads(payloads.capture());
+        verify(repository, times(1)).insertErrors(rows.capture());
+
+        assertThat(payloads.getValue()).containsOnlyKeys("evt-1", "evt-2");
+        assertThat(rows.getValue()).hasSize(4).allMatch(row -> row.getEventPayload() == null);
+        assertThat(sink.queueDepth()).isZero();
+    }
+
+    @Test
+    @DisplayName("Fila cheia deve gravar na própria thread sem perder o evento")
+    void shouldWriteSynchronouslyWhenQueueIsFull() {
+        ValidationErrorSink sink = newSink(1);
+
+        sink.submit(event("evt-1"), List.of(finding("VE-001")), 10L, 0, "employee-create");
+        sink.submit(event("evt-2"), List.of(finding("VE-001")), 11L, 0, "employee-create");
+
+        verify(repository, times(1)).insertErrors(anyList());
+        assertThat(meterRegistry.get("validation.errors.sink.overflow").counter().count()).isEqualTo(1.0);
+        assertThat(sink.queueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Shutdown deve esvaziar a fila")
+    void shouldFlushOnShutdown() {
+        ValidationErrorSink sink = newSink(100);
+        sink.submit(event("evt-1"), List.of(finding("VE-001")), 10L, 0, "employee-create");
+
+        sink.shutdown();
+
+        verify(repository).insertErrors(anyList());
+        assertThat(sink.queueDepth()).isZero();
+    }
+
+    @Test
+    @DisplayName("Falha na gravação não deve propagar para o consumer")
+    void shouldSwallowWriteFailures() {
+        ValidationErrorSink sink = newSink(100);
+        doThrow(new RuntimeException("db down")).when(repository).insertPayloads(any());
+        sink.submit(event("evt-1"), List.of(finding("VE-001")), 10L, 0, "employee-create");
+
+        sink.flush();
+
+        assertThat(meterRegistry.get("validation.errors.sink.flush.failures").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Lote com falha deve ser gravado um a um e o evento problemático voltar para a fila")
+    void shouldFallBackToPerEventWritesAndRequeue() {
+        ValidationErrorSink sink = newSink(100);
+        doThrow(new RuntimeException("value too long")).when(repository)
+                .insertPayloads(argThat(payloads -> payloads.containsKey("evt-2")));
+        sink.submit(event("evt-1"), List.of(finding("VE-001")), 10L, 0, "employee-create");
+        sink.submit(event("evt-2"), List.of(finding("VE-001")), 11L, 0, "employee-create");
+
+        sink.flush();
+
+        verify(repository, times(1)).insertErrors(argThat(rows -> rows.size() == 1
+                && rows.get(0).getEventId().equals("evt-1")));
+        assertThat(sink.queueDepth()).isEqualTo(1);
+
+        sink.flush();
+
+        assertThat(sink.queueDepth()).isZero();
+        assertThat(meterRegistry.get("validation.errors.sink.dropped").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("writeNow deve gravar sem passar pela fila e propagar a falha")
+    void shouldWriteNowAndPropagateFailures() {
+        ValidationErrorSink sink = newSink(100);
+
+        sink.writeNow(List.of(ValidationErrorSink.pending(event("evt-1"), List.of(finding("VE-001")),
+                10L, 0, "employee-create")));
+
+        verify(repository).insertErrors(anyList());
+        assertThat(sink.queueDepth()).isZero();
+
+        doThrow(new RuntimeException("deadlock detected")).when(repository).insertErrors(anyList());
+
+        assertThatThrownBy(() -> sink.writeNow(List.of(ValidationErrorSink.pending(event("evt-2"),
+                List.of(finding("VE-001")), 11L, 0, "employee-create"))))
+                .hasMessageContaining("deadlock detected");
+        assertThat(sink.queueDepth()).isZero();
+    }
+
+    private ValidationErrorSink newSink(int capacity) {
+        return new ValidationErrorSink(repository, new ObjectMapper().findAndRegisterModules(), meterRegistry, capacity, 500, 500, 2);
+    }
+
+    private static EmployeeEventDTO event(String eventId) {
+        return EmployeeEventDTO.builder()
+                .eventId(eventId)
+                .sourceId("EMP001")
+                .eventType("S-2300")
+                .cpf("00000000000")
+                .build();
+    }
+
+    private static ValidationErrorDTO finding(String ruleId) {
+        return new ValidationErrorDTO(ruleId, ValidationSeverity.ERROR, "Campo inválido", "cpf", "00000000000");
+    }
+}
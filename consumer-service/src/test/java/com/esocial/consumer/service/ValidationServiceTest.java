@@ -4,10 +4,10 @@ import com.esocial.consumer.model.dto.EmployeeEventDTO;
 import com.esocial.consumer.validation.ValidationResult;
 import com.esocial.consumer.validation.ValidationRule;
 import com.esocial.consumer.validation.ValidationEngine;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -20,8 +20,7 @@ public class ValidationServiceTest {
     public void setup() {
         ValidationRule mockRule = Mockito.mock(ValidationRule.class);
         ValidationEngine engine = new ValidationEngine(List.of(mockRule));
-        ObjectMapper mapper = new ObjectMapper();
-        service = new ValidationService(engine, null, mapper, new SimpleMeterRegistry());
+        service = new ValidationService(engine, null, new SimpleMeterRegistry());
     }
 
     @Test
@@ -30,4 +29,16 @@ public class ValidationServiceTest {
         ValidationResult result = service.validateAndPersistErrors(dto, 0L, 0, "topic");
         assertThat(result).isNotNull();
     }
+
+    @Test
+    public void testValidateBatch_shouldReturnOneResultPerRecordInOrder() {
+        List<ConsumerRecord<String, EmployeeEventDTO>> records = List.of(
+                new ConsumerRecord<>("topic", 0, 10L, "k1", EmployeeEventDTO.builder().eventId("evt-1").build()),
+                new ConsumerRecord<>("topic", 0, 11L, "k2", EmployeeEventDTO.builder().eventId("evt-2").build()));
+
+        List<ValidationResult> results = service.validateBatch(records);
+
+        assertThat(results).hasSize(2);
+        assertThat(results).allMatch(ValidationResult::isValid);
+    }
 }
@@ -3,6 +3,8 @@ package com.esocial.consumer.validation;
 import com.esocial.consumer.model.dto.EmployeeEventDTO;
 import com.esocial.consumer.validation.rules.BusinessValidationRule;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -24,4 +26,81 @@ public class ValidationEngineTest {
         assertThat(result.getErrors()).isEmpty();
         assertThat(result.getWarnings()).isEmpty();
     }
+
+    @Test
+    public void validateEngineShouldSkipIntegrityTierAfterStructuralError() {
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        ValidationEngine engine = new ValidationEngine(List.of(
+                rule("VI-001", ValidationSeverity.ERROR, executed),
+                rule("VE-001", ValidationSeverity.ERROR, executed),
+                rule("VC-001", null, executed)));
+
+        ValidationResult result = engine.validate(EmployeeEventDTO.builder().eventId("evt2").build());
+
+        assertThat(executed).containsExactly("VE-001");
+        assertThat(result.getErrors()).extracting(ValidationErrorDTO::getRuleId).containsExactly("VE-001");
+    }
+
+    @Test
+    public void validateEngineShouldRunAllTiersWhenShortCircuitDisabled() {
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        ValidationEngine engine = new ValidationEngine(List.of(
+                rule("VI-001", ValidationSeverity.ERROR, executed),
+                rule("VE-001", ValidationSeverity.ERROR, executed)), false, false);
+
+        ValidationResult result = engine.validate(EmployeeEventDTO.builder().eventId("evt3").build());
+
+        assertThat(executed).containsExactly("VE-001", "VI-001");
+        assertThat(result.getErrors()).hasSize(2);
+    }
+
+    @Test
+    public void validateEngineShouldKeepRuleOrderWhenRunningInParallel() {
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        List<ValidationRule> rules = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            rules.add(rule(String.format("VI-%03d", i), ValidationSeverity.WARNING, executed));
+        }
+        rules.add(failingRule("VI-999"));
+        ValidationEngine engine = new ValidationEngine(rules, true, true);
+
+        ValidationResult result = engine.validate(EmployeeEventDTO.builder().eventId("evt4").build());
+        engine.shutdown();
+
+        assertThat(result.getWarnings()).extracting(ValidationErrorDTO::getRuleId)
+                .containsExactlyElementsOf(rules.subList(0, 20).stream().map(ValidationRule::getRuleId).toList());
+        assertThat(result.getErrors()).extracting(ValidationErrorDTO::getRuleId).containsExactly("VI-999");
+        assertThat(result.isValid()).isFalse();
+    }
+
+    private ValidationRule rule(String ruleId, ValidationSeverity severity, List<String> executed) {
+        return new ValidationRule() {
+            @Override
+            public String getRuleId() {
+                return ruleId;
+            }
+
+            @Override
+            public void validate(EmployeeEventDTO event, ValidationResult result) {
+                executed.add(ruleId);
+                if (severity != null) {
+                    result.addError(ruleId, severity, "falha " + ruleId, null, null);
+                }
+            }
+        };
+    }
+
+    private ValidationRule failingRule(String ruleId) {
+        return new ValidationRule() {
+            @Override
+            public String getRuleId() {
+                return ruleId;
+            }
+
+            @Override
+            public void validate(EmployeeEventDTO event, ValidationResult result) {
+                throw new IllegalStateException("banco indisponível");
+            }
+        };
+    }
 }
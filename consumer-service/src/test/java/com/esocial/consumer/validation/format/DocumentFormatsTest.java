@@ -0,0 +1,69 @@
+package com.esocial.consumer.validation.format;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DocumentFormatsTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12345678909", "52998224725", "11144477735", "01234567890"})
+    public void shouldAcceptCpfWithValidCheckDigits(String cpf) {
+        assertThat(DocumentFormats.isValidCpf(cpf)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12345678901", "11111111111", "1234567890", "123456789090", "1234567890a", ""})
+    public void shouldRejectInvalidCpf(String cpf) {
+        assertThat(DocumentFormats.isValidCpf(cpf)).isFalse();
+    }
+
+    @Test
+    public void shouldValidatePisCheckDigit() {
+        assertThat(DocumentFormats.isValidPis("17033259504")).isTrue();
+        assertThat(DocumentFormats.isValidPis("10011223348")).isTrue();
+        assertThat(DocumentFormats.isValidPis("10011223344")).isFalse();
+        assertThat(DocumentFormats.isValidPis("11111111111")).isFalse();
+        assertThat(DocumentFormats.isValidPis("1001122334")).isFalse();
+    }
+
+    @Test
+    public void shouldValidateCepWithOrWithoutMask() {
+        assertThat(DocumentFormats.isValidCep("13500111")).isTrue();
+        assertThat(DocumentFormats.isValidCep("13500-111")).isTrue();
+        assertThat(DocumentFormats.isValidCep("1350-0111")).isFalse();
+        assertThat(DocumentFormats.isValidCep("222")).isFalse();
+        assertThat(DocumentFormats.isValidCep(null)).isFalse();
+    }
+
+    @Test
+    public void shouldValidateCboAndCtps() {
+        assertThat(DocumentFormats.isValidCbo("212205")).isTrue();
+        assertThat(DocumentFormats.isValidCbo("21220")).isFalse();
+        assertThat(DocumentFormats.isValidCtps("12345670001")).isTrue();
+        assertThat(DocumentFormats.isValidCtps("1234567")).isTrue();
+        assertThat(DocumentFormats.isValidCtps("123456")).isFalse();
+        assertThat(DocumentFormats.isValidCtps("123456-0001")).isFalse();
+    }
+
+    @Test
+    public void shouldCountPhoneDigitsIgnoringMask() {
+        assertThat(DocumentFormats.isValidPhone("(11) 98765-4321")).isTrue();
+        assertThat(DocumentFormats.isValidPhone("1133334444")).isTrue();
+        assertThat(DocumentFormats.isValidPhone("876543")).isFalse();
+        assertThat(DocumentFormats.isValidPhone(null)).isFalse();
+    }
+
+    @Test
+    public void shouldMatchLegacyEmailPattern() {
+        String[] samples = {"joao@email.com", "joao.silva+rh@empresa.com.br", "joao@", "@email.com",
+                "joao silva@email.com", "joao@.com", "joao@email\ncom", "a@b", "a@@b", ""};
+        for (String email : samples) {
+            assertThat(DocumentFormats.isValidEmail(email))
+                    .as(email)
+                    .isEqualTo(email.matches("^[A-Za-z0-9+_.-]+@(.+)$"));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.esocial.consumer.validation.index;
+
+import com.esocial.consumer.model.entity.Employee;
+import com.esocial.consumer.validation.index.DocumentUniquenessIndex.DocumentType;
+import com.esocial.consumer.validation.index.DocumentUniquenessIndex.UniquenessCheck;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class DocumentUniquenessIndexTest {
+
+    private DocumentUniquenessIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new DocumentUniquenessIndex(mock(JdbcTemplate.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "ready", true);
+    }
+
+    @Test
+    public void shouldDetectCpfHeldByAnotherEmployee() {
+        index.recordAfterCommit(employee("EMP-1", "52998224725", "ana@empresa.com", "ACTIVE"));
+
+        assertThat(index.check(DocumentType.CPF, "52998224725", "EMP-2")).isEqualTo(UniquenessCheck.CONFLICT);
+        assertThat(index.check(DocumentType.CPF, "52998224725", "EMP-1")).isEqualTo(UniquenessCheck.UNIQUE);
+        assertThat(index.check(DocumentType.CPF, "11144477735", "EMP-2")).isEqualTo(UniquenessCheck.UNIQUE);
+    }
+
+    @Test
+    public void shouldReleaseOldCpfWhenEmployeeChangesDocument() {
+        index.recordAfterCommit(employee("EMP-1", "52998224725", null, "ACTIVE"));
+        index.recordAfterCommit(employee("EMP-1", "11144477735", null, "ACTIVE"));
+
+        assertThat(index.check(DocumentType.CPF, "52998224725", "EMP-2")).isEqualTo(UniquenessCheck.UNIQUE);
+        assertThat(index.check(DocumentType.CPF, "11144477735", "EMP-2")).isEqualTo(UniquenessCheck.CONFLICT);
+    }
+
+    @Test
+    public void shouldIgnoreEmailOfInactiveEmployees() {
+        index.recordAfterCommit(employee("EMP-1", "52998224725", "ana@empresa.com", "ACTIVE"));
+        assertThat(index.check(DocumentType.EMAIL, "ana@empresa.com", "EMP-2")).isEqualTo(UniquenessCheck.CONFLICT);
+
+        index.recordInactiveAfterCommit("EMP-1");
+        assertThat(index.check(DocumentType.EMAIL, "ana@empresa.com", "EMP-2")).isEqualTo(UniquenessCheck.UNIQUE);
+    }
+
+    @Test
+    public void shouldAnswerUnknownForSharedValues() {
+        index.recordAfterCommit(employee("EMP-1", "52998224725", null, "ACTIVE"));
+        index.recordAfterCommit(employee("EMP-2", "52998224725", null, "ACTIVE"));
+
+        assertThat(index.check(DocumentType.CPF, "52998224725", "EMP-1")).isEqualTo(UniquenessCheck.UNKNOWN);
+    }
+
+    @Test
+    public void shouldAnswerUnknownWhileNotReady() {
+        ReflectionTestUtils.setField(index, "ready", false);
+
+        assertThat(index.check(DocumentType.CPF, "52998224725", "EMP-1")).isEqualTo(UniquenessCheck.UNKNOWN);
+    }
+
+    @Test
+    public void shouldNotCollideNumericKeysWithLeadingZeros() {
+        assertThat(DocumentUniquenessIndex.digitsKey("0123"))
+                .isNotEqualTo(DocumentUniquenessIndex.digitsKey("123"));
+        assertThat(DocumentUniquenessIndex.digitsKey("12A")).isEqualTo(-1);
+    }
+
+    private Employee employee(String sourceId, String cpf, String email, String status) {
+        return Employee.builder()
+                .sourceId(sourceId)
+                .cpf(cpf)
+                .email(email)
+                .status(status)
+                .build();
+    }
+}
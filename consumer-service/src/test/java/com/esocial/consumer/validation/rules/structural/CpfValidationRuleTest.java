@@ -52,9 +52,18 @@ public class CpfValidationRuleTest {
         assertThat(result.hasErrors()).isTrue();
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"12345678901", "12345678919", "52998224724"})
+    public void shouldRejectCpfWithInvalidCheckDigits(String cpf) {
+        EmployeeEventDTO dto = EmployeeEventDTO.builder().cpf(cpf).build();
+        ValidationResult result = new ValidationResult();
+        rule.validate(dto, result);
+        assertThat(result.getErrors()).anyMatch(e -> "CPF com dígito verificador inválido".equals(e.getMessage()));
+    }
+
     @Test
     public void shouldAcceptValidCpf() {
-        EmployeeEventDTO dto = EmployeeEventDTO.builder().cpf("12345678901").build();
+        EmployeeEventDTO dto = EmployeeEventDTO.builder().cpf("12345678909").build();
         ValidationResult result = new ValidationResult();
         rule.validate(dto, result);
         assertThat(result.getErrors()).isEmpty();
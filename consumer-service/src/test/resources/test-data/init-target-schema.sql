@@ -52,3 +52,50 @@ CREATE TABLE public.dlq_events (
     status VARCHAR(20) DEFAULT 'PENDING',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
+
+CREATE TABLE public.processed_events (
+    event_id VARCHAR(50) PRIMARY KEY,
+    source_id VARCHAR(20),
+    kafka_topic VARCHAR(100),
+    kafka_partition INTEGER,
+    kafka_offset BIGINT,
+    processed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE public.validation_error_payloads (
+    event_id VARCHAR(50) PRIMARY KEY,
+    event_payload JSONB NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE public.dlq_stack_traces (
+    fingerprint VARCHAR(64) PRIMARY KEY,
+    exception_class VARCHAR(255),
+    stack_trace TEXT NOT NULL,
+    occurrences BIGINT NOT NULL DEFAULT 0,
+    first_seen_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_seen_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE public.dlq_events ADD COLUMN stack_trace_fingerprint VARCHAR(64);
+
+ALTER TABLE public.dlq_events ADD COLUMN next_retry_at TIMESTAMP;
+ALTER TABLE public.dlq_events ADD COLUMN last_retry_at TIMESTAMP;
+ALTER TABLE public.dlq_events ADD COLUMN kafka_topic VARCHAR(100);
+ALTER TABLE public.dlq_events ADD COLUMN source_id VARCHAR(50);
+ALTER TABLE public.dlq_events ADD COLUMN correlation_id UUID;
+
+CREATE TABLE public.consumer_offsets (
+    group_id VARCHAR(100) NOT NULL,
+    topic VARCHAR(100) NOT NULL,
+    kafka_partition INTEGER NOT NULL,
+    next_offset BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (group_id, topic, kafka_partition)
+);
+
+-- Colunas da DLQ usadas pelo replay (reabertura da linha quando o evento volta a falhar)
+ALTER TABLE public.dlq_events ADD COLUMN IF NOT EXISTS source_table VARCHAR(50);
+ALTER TABLE public.dlq_events ADD COLUMN IF NOT EXISTS max_retries INTEGER DEFAULT 3;
+ALTER TABLE public.dlq_events ADD COLUMN IF NOT EXISTS kafka_offset BIGINT;
+ALTER TABLE public.dlq_events ADD COLUMN IF NOT EXISTS kafka_partition INTEGER;
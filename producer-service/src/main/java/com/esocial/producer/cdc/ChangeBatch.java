@@ -0,0 +1,22 @@
+package com.esocial.producer.cdc;
+
+import java.util.List;
+
+/**
+ * Lote de mudanças e o checkpoint a ser gravado quando o lote for confirmado.
+ * {@code hasMore} indica que a origem já tem o lote seguinte disponível.
+ */
+public record ChangeBatch<P>(List<EmployeeChange> changes, P checkpoint, boolean hasMore) {
+
+    public ChangeBatch(List<EmployeeChange> changes, P checkpoint) {
+        this(changes, checkpoint, false);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public int size() {
+        return changes.size();
+    }
+}
@@ -0,0 +1,119 @@
+package com.esocial.producer.cdc;
+
+import com.esocial.producer.model.dto.EventType;
+import com.esocial.producer.model.entity.Employee;
+import com.esocial.producer.repository.PublishedStateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detecção de mudanças do CDC: descarta UPDATEs cujo estado de negócio é igual ao último
+ * publicado. CREATE e DELETE são sempre publicados (um desligamento ou readmissão pode não
+ * alterar nenhum campo do hash), mas também atualizam o hash de referência.
+ *
+ * Cada colaborador publicado tem um hash de 64 bits dos campos do evento (sem created_at e
+ * updated_at) em public.cdc_published_state. Uma página custa uma consulta; os hashes das
+ * mudanças publicadas são gravados por {@link #record(Detection, Set)} junto com o checkpoint.
+ */
+@Component
+public class ChangeDetector {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final PublishedStateRepository publishedStateRepository;
+    private final boolean enabled;
+
+    /**
+     * Mudanças que devem ser publicadas e os hashes a gravar quando a página for confirmada
+     */
+    public record Detection(List<EmployeeChange> changed, Map<String, Long> hashes, int unchanged) {
+    }
+
+    public ChangeDetector(PublishedStateRepository publishedStateRepository,
+                          @Value("${app.cdc.change-detection.enabled:true}") boolean enabled) {
+        this.publishedStateRepository = publishedStateRepository;
+        this.enabled = enabled;
+    }
+
+    public Detection detect(List<EmployeeChange> changes) {
+        if (!enabled || changes.isEmpty()) {
+            return new Detection(changes, Map.of(), 0);
+        }
+
+        Set<String> employeeIds = new LinkedHashSet<>();
+        changes.forEach(change -> employeeIds.add(change.employee().getEmployeeId()));
+        Map<String, Long> published = publishedStateRepository.findHashes(employeeIds);
+
+        List<EmployeeChange> changed = new ArrayList<>(changes.size());
+        Map<String, Long> hashes = new HashMap<>();
+        for (EmployeeChange change : changes) {
+            String employeeId = change.employee().getEmployeeId();
+            long hash = stateHash(change.employee());
+
+            // Mudanças repetidas do mesmo colaborador na página comparam com a anterior
+            Long previous = hashes.containsKey(employeeId) ? hashes.get(employeeId) : published.get(employeeId);
+            if (change.eventType() == EventType.UPDATE && previous != null && previous == hash) {
+                continue;
+            }
+            changed.add(change);
+            hashes.put(employeeId, hash);
+        }
+        return new Detection(changed, hashes, changes.size() - changed.size());
+    }
+
+    /**
+     * Grava os hashes apenas dos colaboradores cujo evento foi de fato gerado
+     */
+    public void record(Detection detection, Set<String> publishedEmployeeIds) {
+        Map<String, Long> hashes = new HashMap<>(detection.hashes());
+        hashes.keySet().retainAll(publishedEmployeeIds);
+        publishedStateRepository.saveHashes(hashes);
+    }
+
+    /**
+     * FNV-1a de 64 bits dos campos de negócio publicados no evento
+     */
+    static long stateHash(Employee employee) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, employee.getCpf());
+        hash = mix(hash, employee.getPis());
+        hash = mix(hash, employee.getFullName());
+        hash = mix(hash, employee.getBirthDate());
+        hash = mix(hash, employee.getAdmissionDate());
+        hash = mix(hash, employee.getTerminationDate());
+        hash = mix(hash, employee.getJobTitle());
+        hash = mix(hash, employee.getDepartment());
+        hash = mix(hash, normalize(employee.getSalary()));
+        hash = mix(hash, employee.getStatus());
+        return hash;
+    }
+
+    private static long mix(long hash, Object value) {
+        if (value == null) {
+            // 0xFF não ocorre em UTF-8: nulo nunca colide com um valor
+            return (hash ^ 0xFF) * FNV_PRIME;
+        }
+        for (byte b : value.toString().getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        // Separador de campos (unit separator), evita que "AB" + "C" colida com "A" + "BC"
+        return (hash ^ 0x1F) * FNV_PRIME;
+    }
+
+    /**
+     * 5000.0 e 5000.00 são o mesmo salário
+     */
+    private static String normalize(BigDecimal salary) {
+        return salary != null ? salary.stripTrailingZeros().toPlainString() : null;
+    }
+}
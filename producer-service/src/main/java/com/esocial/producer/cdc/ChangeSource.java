@@ -0,0 +1,39 @@
+package com.esocial.producer.cdc;
+
+import com.esocial.producer.model.dto.EventType;
+import com.esocial.producer.model.entity.Employee;
+
+/**
+ * Origem das mudanças de colaboradores capturadas pelo CDC.
+ *
+ * O ChangeDataCaptureService busca um lote, publica cada mudança e só então
+ * confirma o lote com {@link #commit(ChangeBatch)}, que avança o checkpoint
+ * da origem (P: timestamp no polling, SCN no log de redo).
+ */
+public interface ChangeSource<P> {
+
+    /**
+     * Nome da origem (logs e chave do checkpoint persistido).
+     */
+    String getName();
+
+    /**
+     * Mudanças a partir do último checkpoint confirmado.
+     */
+    ChangeBatch<P> fetchChanges();
+
+    /**
+     * Confirma que o lote foi publicado e avança o checkpoint.
+     */
+    void commit(ChangeBatch<P> batch);
+
+    /**
+     * Alterações que inativam o colaborador são publicadas como DELETE (soft delete).
+     */
+    static EventType classifyUpdate(Employee employee) {
+        if ("INACTIVE".equals(employee.getStatus()) || employee.getTerminationDate() != null) {
+            return EventType.DELETE;
+        }
+        return EventType.UPDATE;
+    }
+}
@@ -0,0 +1,10 @@
+package com.esocial.producer.cdc;
+
+import com.esocial.producer.model.dto.EventType;
+import com.esocial.producer.model.entity.Employee;
+
+/**
+ * Estado do colaborador e o tipo de evento a publicar.
+ */
+public record EmployeeChange(Employee employee, EventType eventType) {
+}
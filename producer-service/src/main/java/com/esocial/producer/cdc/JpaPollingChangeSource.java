@@ -0,0 +1,103 @@
+package com.esocial.producer.cdc;
+
+import com.esocial.producer.model.dto.EventType;
+import com.esocial.producer.model.entity.Employee;
+import com.esocial.producer.repository.CdcCheckpointRepository;
+import com.esocial.producer.repository.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CDC por polling: lê colaboradores alterados em páginas de {@code app.cdc.batch-size}
+ * linhas, por chave (updated_at, employee_id) a partir da última linha publicada.
+ *
+ * O watermark é persistido em public.cdc_checkpoints somente no commit do lote
+ * (após a confirmação do Kafka), então um restart continua da última página publicada.
+ * Sem watermark gravado, começa em now() - 1 hora (comportamento original).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cdc.source", havingValue = "polling", matchIfMissing = true)
+public class JpaPollingChangeSource implements ChangeSource<PollingWatermark> {
+
+    private final EmployeeRepository employeeRepository;
+    private final CdcCheckpointRepository checkpointRepository;
+
+    @Value("${app.cdc.batch-size:100}")
+    private int batchSize;
+
+    private PollingWatermark watermark;
+
+    public JpaPollingChangeSource(EmployeeRepository employeeRepository,
+                                  CdcCheckpointRepository checkpointRepository) {
+        this.employeeRepository = employeeRepository;
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    @Override
+    public String getName() {
+        return "polling";
+    }
+
+    @Override
+    public ChangeBatch<PollingWatermark> fetchChanges() {
+        PollingWatermark from = currentWatermark();
+        log.debug("Iniciando captura de mudanças a partir de {}", from);
+
+        List<Employee> page = employeeRepository.findModifiedAfterKey(
+                from.updatedAt(), from.employeeId(), Limit.of(batchSize));
+        if (page.isEmpty()) {
+            return new ChangeBatch<>(List.of(), from);
+        }
+
+        List<EmployeeChange> changes = new ArrayList<>(page.size());
+        for (Employee employee : page) {
+            changes.add(new EmployeeChange(employee, determineEventType(employee)));
+        }
+
+        Employee last = page.get(page.size() - 1);
+        PollingWatermark next = new PollingWatermark(last.getUpdatedAt(), last.getEmployeeId());
+        return new ChangeBatch<>(changes, next, page.size() == batchSize);
+    }
+
+    @Override
+    public void commit(ChangeBatch<PollingWatermark> batch) {
+        // Avança o watermark apenas quando houve mudanças publicadas
+        if (!batch.isEmpty()) {
+            checkpointRepository.saveWatermark(getName(), batch.checkpoint());
+            watermark = batch.checkpoint();
+        }
+    }
+
+    private PollingWatermark currentWatermark() {
+        if (watermark == null) {
+            watermark = checkpointRepository.findWatermark(getName())
+                    .orElseGet(() -> new PollingWatermark(LocalDateTime.now().minusHours(1), ""));
+            log.info("CDC por polling inicializado. Watermark: {}", watermark);
+        }
+        return watermark;
+    }
+
+    /**
+     * Determina o tipo de evento baseado em regras de negócio
+     */
+    private EventType determineEventType(Employee employee) {
+        // Simplificado: verifica se é criação recente ou atualização
+        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
+
+        if (employee.getCreatedAt() != null &&
+                employee.getCreatedAt().isAfter(oneHourAgo) &&
+                employee.getCreatedAt().equals(employee.getUpdatedAt())) {
+            return EventType.CREATE;
+        }
+
+        return ChangeSource.classifyUpdate(employee);
+    }
+}
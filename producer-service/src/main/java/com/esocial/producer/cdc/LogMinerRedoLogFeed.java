@@ -0,0 +1,254 @@
+package com.esocial.producer.cdc;
+
+import com.esocial.producer.model.entity.Employee;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Feed de redo do Oracle HR via LogMiner (habilitado por scripts/oracle/setup/03_enable_cdc.sql).
+ *
+ * Cada leitura abre uma sessão LogMiner na faixa de SCN pedida com COMMITTED_DATA_ONLY e
+ * extrai apenas a chave (employee_id) de cada alteração com MINE_VALUE. O estado atual das
+ * linhas inseridas/alteradas é lido em seguida por chave primária; para DELETE usa-se a
+ * imagem anterior (UNDO). Assim não é preciso interpretar o SQL_REDO.
+ *
+ * Usa um pool próprio: registrar um segundo DataSource como bean desligaria o
+ * DataSource PostgreSQL auto-configurado.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cdc.source", havingValue = "logminer")
+public class LogMinerRedoLogFeed implements RedoLogFeed {
+
+    private static final int LOOKUP_CHUNK = 500;
+
+    private static final String REGISTER_LOGS =
+            "SELECT MIN(f.member) AS name, l.sequence# AS seq FROM v$log l " +
+            "JOIN v$logfile f ON f.group# = l.group# WHERE l.next_change# > ? GROUP BY l.sequence# " +
+            "UNION ALL " +
+            "SELECT MIN(a.name), a.sequence# FROM v$archived_log a " +
+            "WHERE a.next_change# > ? AND a.first_change# <= ? AND a.name IS NOT NULL AND a.deleted = 'NO' " +
+            "AND a.sequence# NOT IN (SELECT sequence# FROM v$log) GROUP BY a.sequence# " +
+            "ORDER BY 2";
+
+    private static final RowMapper<Employee> EMPLOYEE_ROW_MAPPER = (rs, rowNum) -> Employee.builder()
+            .employeeId(rs.getString("employee_id"))
+            .cpf(rs.getString("cpf"))
+            .pis(rs.getString("pis"))
+            .fullName(rs.getString("full_name"))
+            .birthDate(rs.getDate("birth_date") != null ? rs.getDate("birth_date").toLocalDate() : null)
+            .admissionDate(rs.getDate("admission_date") != null ? rs.getDate("admission_date").toLocalDate() : null)
+            .terminationDate(rs.getDate("termination_date") != null ? rs.getDate("termination_date").toLocalDate() : null)
+            .jobTitle(rs.getString("job_title"))
+            .department(rs.getString("department"))
+            .salary(rs.getBigDecimal("salary"))
+            .status(rs.getString("status"))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HikariDataSource dataSource;
+    private final String owner;
+    private final String table;
+    private final String qualifiedColumnPrefix;
+
+    public LogMinerRedoLogFeed(
+            @Value("${app.cdc.logminer.url}") String url,
+            @Value("${app.cdc.logminer.username}") String username,
+            @Value("${app.cdc.logminer.password}") String password,
+            @Value("${app.cdc.logminer.schema:HR_APP}") String schema,
+            @Value("${app.cdc.logminer.table:EMPLOYEES}") String table) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("oracle-logminer");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(2);
+        config.setMinimumIdle(1);
+
+        this.dataSource = new HikariDataSource(config);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.owner = schema.toUpperCase();
+        this.table = table.toUpperCase();
+        this.qualifiedColumnPrefix = owner + "." + this.table + ".";
+    }
+
+    @Override
+    public long currentScn() {
+        Long scn = jdbcTemplate.queryForObject("SELECT current_scn FROM v$database", Long.class);
+        return scn != null ? scn : 0L;
+    }
+
+    @Override
+    public List<RowChange> readChanges(long fromScnExclusive, long toScnInclusive) {
+        List<MinedChange> mined = jdbcTemplate.execute((Connection con) -> mine(con, fromScnExclusive + 1, toScnInclusive));
+        if (mined == null || mined.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> upsertedIds = new LinkedHashSet<>();
+        for (MinedChange change : mined) {
+            if (change.operation() != Operation.DELETE) {
+                upsertedIds.add(change.employeeId());
+            }
+        }
+        Map<String, Employee> currentRows = findRows(upsertedIds);
+
+        List<RowChange> changes = new ArrayList<>(mined.size());
+        for (MinedChange change : mined) {
+            Employee row = change.operation() == Operation.DELETE
+                    ? change.undoImage()
+                    : currentRows.get(change.employeeId());
+            changes.add(new RowChange(change.scn(), change.operation(), change.employeeId(), row));
+        }
+        return changes;
+    }
+
+    private List<MinedChange> mine(Connection con, long startScn, long endScn) throws SQLException {
+        registerLogFiles(con, startScn, endScn);
+
+        try (CallableStatement start = con.prepareCall(
+                "BEGIN DBMS_LOGMNR.START_LOGMNR(STARTSCN => ?, ENDSCN => ?, OPTIONS => " +
+                "DBMS_LOGMNR.DICT_FROM_ONLINE_CATALOG + DBMS_LOGMNR.COMMITTED_DATA_ONLY); END;")) {
+            start.setLong(1, startScn);
+            start.setLong(2, endScn);
+            start.execute();
+        }
+
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT scn, operation, " +
+                "DBMS_LOGMNR.MINE_VALUE(redo_value, ?) AS redo_id, " +
+                "DBMS_LOGMNR.MINE_VALUE(undo_value, ?) AS undo_id, " +
+                "DBMS_LOGMNR.MINE_VALUE(undo_value, ?) AS undo_cpf, " +
+                "DBMS_LOGMNR.MINE_VALUE(undo_value, ?) AS undo_pis, " +
+                "DBMS_LOGMNR.MINE_VALUE(undo_value, ?) AS undo_full_name " +
+                "FROM v$logmnr_contents " +
+                "WHERE seg_owner = ? AND table_name = ? AND operation IN ('INSERT', 'UPDATE', 'DELETE') " +
+                "ORDER BY scn")) {
+            ps.setString(1, qualifiedColumnPrefix + "EMPLOYEE_ID");
+            ps.setString(2, qualifiedColumnPrefix + "EMPLOYEE_ID");
+            ps.setString(3, qualifiedColumnPrefix + "CPF");
+            ps.setString(4, qualifiedColumnPrefix + "PIS");
+            ps.setString(5, qualifiedColumnPrefix + "FULL_NAME");
+            ps.setString(6, owner);
+            ps.setString(7, table);
+            ps.setFetchSize(1000);
+
+            List<MinedChange> changes = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    MinedChange change = toMinedChange(rs);
+                    if (change != null) {
+                        changes.add(change);
+                    }
+                }
+            }
+            return changes;
+        } finally {
+            try (CallableStatement end = con.prepareCall("BEGIN DBMS_LOGMNR.END_LOGMNR; END;")) {
+                end.execute();
+            } catch (SQLException e) {
+                log.warn("Erro ao encerrar sessão LogMiner: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void registerLogFiles(Connection con, long startScn, long endScn) throws SQLException {
+        List<String> logFiles = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement(REGISTER_LOGS)) {
+            ps.setLong(1, startScn);
+            ps.setLong(2, startScn);
+            ps.setLong(3, endScn);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    logFiles.add(rs.getString("name"));
+                }
+            }
+        }
+
+        try (CallableStatement add = con.prepareCall(
+                "BEGIN DBMS_LOGMNR.ADD_LOGFILE(LOGFILENAME => ?, OPTIONS => DBMS_LOGMNR.ADDFILE); END;")) {
+            for (String logFile : logFiles) {
+                add.setString(1, logFile);
+                add.execute();
+            }
+        }
+        log.debug("LogMiner: {} arquivos de redo registrados para SCN {} → {}", logFiles.size(), startScn, endScn);
+    }
+
+    private MinedChange toMinedChange(ResultSet rs) throws SQLException {
+        Operation operation = Operation.valueOf(rs.getString("operation"));
+        String employeeId = rs.getString("redo_id") != null ? rs.getString("redo_id") : rs.getString("undo_id");
+        if (employeeId == null) {
+            // Sem supplemental logging de PK não há como identificar a linha
+            log.warn("Alteração sem employee_id no SCN {} ignorada (verifique o supplemental logging)", rs.getLong("scn"));
+            return null;
+        }
+
+        Employee undoImage = null;
+        if (operation == Operation.DELETE) {
+            undoImage = Employee.builder()
+                    .employeeId(employeeId)
+                    .cpf(rs.getString("undo_cpf"))
+                    .pis(rs.getString("undo_pis"))
+                    .fullName(rs.getString("undo_full_name"))
+                    .status("INACTIVE")
+                    .build();
+        }
+        return new MinedChange(rs.getLong("scn"), operation, employeeId, undoImage);
+    }
+
+    private Map<String, Employee> findRows(Set<String> employeeIds) {
+        Map<String, Employee> rows = new HashMap<>();
+        List<String> ids = new ArrayList<>(employeeIds);
+
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK) {
+            List<String> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK, ids.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            List<Employee> found = jdbcTemplate.query(
+                    "SELECT employee_id, cpf, pis, full_name, birth_date, admission_date, termination_date, " +
+                    "job_title, department, salary, status, created_at, updated_at " +
+                    "FROM " + owner + "." + table + " WHERE employee_id IN (" + placeholders + ")",
+                    EMPLOYEE_ROW_MAPPER, chunk.toArray());
+            for (Employee employee : found) {
+                rows.put(employee.getEmployeeId(), employee);
+            }
+        }
+        return rows;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    @PreDestroy
+    public void close() {
+        dataSource.close();
+    }
+
+    private record MinedChange(long scn, Operation operation, String employeeId, Employee undoImage) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.esocial.producer.cdc;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posição do CDC por polling: chave (updated_at, employee_id) da última linha publicada.
+ * O employee_id desempata linhas com o mesmo updated_at (ex.: carga em massa).
+ */
+public record PollingWatermark(LocalDateTime updatedAt, String employeeId) {
+}
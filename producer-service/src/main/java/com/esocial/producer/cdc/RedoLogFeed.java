@@ -0,0 +1,30 @@
+package com.esocial.producer.cdc;
+
+import com.esocial.producer.model.entity.Employee;
+
+import java.util.List;
+
+/**
+ * Leitura do log de redo da origem (ex.: Oracle LogMiner) por faixa de SCN.
+ */
+public interface RedoLogFeed {
+
+    enum Operation { INSERT, UPDATE, DELETE }
+
+    /**
+     * Alteração de linha confirmada na origem. Em INSERT/UPDATE, {@code row} é o estado atual
+     * da linha (null se ela não existir mais); em DELETE, a imagem anterior disponível no log.
+     */
+    record RowChange(long scn, Operation operation, String employeeId, Employee row) {
+    }
+
+    /**
+     * SCN atual da origem.
+     */
+    long currentScn();
+
+    /**
+     * Alterações confirmadas com SCN em (fromScnExclusive, toScnInclusive], em ordem de SCN.
+     */
+    List<RowChange> readChanges(long fromScnExclusive, long toScnInclusive);
+}
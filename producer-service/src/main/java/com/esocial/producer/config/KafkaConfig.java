@@ -1,8 +1,8 @@
 package com.esocial.producer.config;
 
-import com.esocial.producer.model.dto.EmployeeEventDTO;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -11,7 +11,6 @@ import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -22,23 +21,36 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // Vazio: producer idempotente sem transações; preenchido: o OutboxRelay publica cada lote em uma transação
+    @Value("${app.kafka.transaction-id-prefix:}")
+    private String transactionIdPrefix;
+
+    /**
+     * O valor já chega serializado em JSON pelo KafkaProducerService (uma única serialização)
+     */
     @Bean
-    public ProducerFactory<String, EmployeeEventDTO> producerFactory() {
+    public ProducerFactory<String, byte[]> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
         
-        return new DefaultKafkaProducerFactory<>(configProps);
+        DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(configProps);
+        if (!transactionIdPrefix.isBlank()) {
+            factory.setTransactionIdPrefix(transactionIdPrefix);
+        }
+        return factory;
     }
 
     @Bean
-    public KafkaTemplate<String, EmployeeEventDTO> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
+        KafkaTemplate<String, byte[]> template = new KafkaTemplate<>(producerFactory());
+        // Publicação direta do CDC (app.outbox.enabled=false) continua fora de transação
+        template.setAllowNonTransactional(true);
+        return template;
     }
 
     // Configuração dos tópicos (opcional se já criados manualmente)
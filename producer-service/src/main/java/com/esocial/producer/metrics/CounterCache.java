@@ -0,0 +1,94 @@
+package com.esocial.producer.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counters de um mesmo nome resolvidos uma única vez por combinação de tags.
+ *
+ * {@code Counter.builder(...).register(registry)} a cada evento aloca o builder, as Tags
+ * e o Meter.Id e faz a busca no registry. Aqui cada valor de tag leva a um nível de
+ * ConcurrentHashMap e a folha é o Counter já registrado: no caminho quente há apenas
+ * {@code get()} sem alocação. O registro acontece só na primeira ocorrência da combinação.
+ *
+ * Valores nulos viram "unknown" (Micrometer não aceita tag nula).
+ */
+public final class CounterCache {
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+    private final String name;
+    private final String description;
+    private final String service;
+    private final String[] tagKeys;
+    private final ConcurrentHashMap<String, Object> root = new ConcurrentHashMap<>();
+
+    public CounterCache(MeterRegistry registry, String name, String description, String service, String... tagKeys) {
+        if (tagKeys.length < 1 || tagKeys.length > 3) {
+            throw new IllegalArgumentException("CounterCache suporta de 1 a 3 tags: " + name);
+        }
+        this.registry = registry;
+        this.name = name;
+        this.description = description;
+        this.service = service;
+        this.tagKeys = tagKeys.clone();
+    }
+
+    public Counter get(String value1) {
+        checkArity(1);
+        String v1 = tagValue(value1);
+        Object counter = root.get(v1);
+        return counter != null ? (Counter) counter : (Counter) root.computeIfAbsent(v1, v -> register(v));
+    }
+
+    public Counter get(String value1, String value2) {
+        checkArity(2);
+        String v1 = tagValue(value1);
+        String v2 = tagValue(value2);
+        ConcurrentHashMap<String, Object> level = child(root, v1);
+        Object counter = level.get(v2);
+        return counter != null ? (Counter) counter : (Counter) level.computeIfAbsent(v2, v -> register(v1, v));
+    }
+
+    public Counter get(String value1, String value2, String value3) {
+        checkArity(3);
+        String v1 = tagValue(value1);
+        String v2 = tagValue(value2);
+        String v3 = tagValue(value3);
+        ConcurrentHashMap<String, Object> level = child(child(root, v1), v2);
+        Object counter = level.get(v3);
+        return counter != null ? (Counter) counter : (Counter) level.computeIfAbsent(v3, v -> register(v1, v2, v));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentHashMap<String, Object> child(ConcurrentHashMap<String, Object> level, String key) {
+        Object child = level.get(key);
+        if (child == null) {
+            child = level.computeIfAbsent(key, k -> new ConcurrentHashMap<String, Object>());
+        }
+        return (ConcurrentHashMap<String, Object>) child;
+    }
+
+    private Counter register(String... values) {
+        Counter.Builder builder = Counter.builder(name)
+                .description(description)
+                .tag("service", service);
+        for (int i = 0; i < values.length; i++) {
+            builder.tag(tagKeys[i], values[i]);
+        }
+        return builder.register(registry);
+    }
+
+    private void checkArity(int arity) {
+        if (arity != tagKeys.length) {
+            throw new IllegalArgumentException(name + " espera " + tagKeys.length + " tag(s), recebeu " + arity);
+        }
+    }
+
+    private static String tagValue(String value) {
+        return value != null ? value : UNKNOWN;
+    }
+}
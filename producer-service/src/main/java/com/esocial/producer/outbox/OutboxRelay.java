@@ -0,0 +1,187 @@
+package com.esocial.producer.outbox;
+
+import com.esocial.producer.model.dto.EmployeeEventDTO;
+import com.esocial.producer.repository.OutboxRepository;
+import com.esocial.producer.repository.OutboxRepository.OutboxRow;
+import com.esocial.producer.service.KafkaProducerService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publica o outbox no Kafka.
+ *
+ * Os 256 buckets (hash do employeeId) são divididos entre {@code app.outbox.relay.partitions}
+ * threads. Cada thread, em uma transação com advisory lock da sua partição, lê um lote em ordem
+ * de id, publica (idempotente; em transação Kafka quando app.kafka.transaction-id-prefix está
+ * configurado), aguarda os acks e remove as linhas. Todos os eventos de um colaborador passam pela
+ * mesma thread, em ordem. Uma queda entre o ack e o commit republica o lote com o mesmo eventId,
+ * descartado pelo consumer idempotente.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter relayedCounter;
+    private final Counter failuresCounter;
+
+    private final int partitions;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long publishTimeoutMs;
+    private final List<List<Integer>> bucketsByPartition;
+
+    private ScheduledExecutorService scheduler;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       KafkaProducerService kafkaProducerService,
+                       KafkaTemplate<String, byte[]> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.relay.partitions:4}") int partitions,
+                       @Value("${app.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${app.outbox.relay.poll-interval:200}") long pollIntervalMs,
+                       @Value("${app.cdc.publish-timeout-ms:30000}") long publishTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitions = Math.max(1, Math.min(partitions, OutboxWriter.BUCKETS));
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.publishTimeoutMs = publishTimeoutMs;
+        this.bucketsByPartition = bucketsByPartition(this.partitions);
+
+        this.relayedCounter = Counter.builder("outbox.events.relayed")
+                .description("Eventos do outbox publicados e removidos")
+                .tag("service", "producer")
+                .register(meterRegistry);
+        this.failuresCounter = Counter.builder("outbox.relay.failures")
+                .description("Lotes do outbox com falha na publicação (republicados no próximo ciclo)")
+                .tag("service", "producer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newScheduledThreadPool(partitions,
+                Thread.ofPlatform().name("outbox-relay-", 0).factory());
+        for (int partition = 0; partition < partitions; partition++) {
+            int p = partition;
+            scheduler.scheduleWithFixedDelay(() -> drain(p), pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        log.info("Relay do outbox iniciado: {} partições, lotes de {} (Kafka transacional: {})",
+                partitions, batchSize, kafkaTemplate.isTransactional());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(publishTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publica lotes da partição até esvaziá-la (ou até a primeira falha)
+     */
+    void drain(int partition) {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch(partition);
+            } while (relayed == batchSize);
+        } catch (Exception e) {
+            failuresCounter.increment();
+            log.error("Erro no relay do outbox (partição {}): {}", partition, e.getMessage(), e);
+        }
+    }
+
+    int relayBatch(int partition) {
+        Integer relayed = transactionTemplate.execute(status -> {
+            // Outra instância já está publicando esta partição
+            if (!outboxRepository.tryLockPartition(partition)) {
+                return 0;
+            }
+
+            List<OutboxRow> rows = outboxRepository.fetchBatch(bucketsByPartition.get(partition), batchSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            List<EmployeeEventDTO> events = new ArrayList<>(rows.size());
+            List<Long> ids = new ArrayList<>(rows.size());
+            for (OutboxRow row : rows) {
+                events.add(toEvent(row));
+                ids.add(row.id());
+            }
+
+            publish(events);
+            outboxRepository.deleteAll(ids);
+            return rows.size();
+        });
+
+        int count = relayed != null ? relayed : 0;
+        relayedCounter.increment(count);
+        return count;
+    }
+
+    private void publish(List<EmployeeEventDTO> events) {
+        CompletableFuture<Void> acks = kafkaTemplate.isTransactional()
+                // O commit da transação Kafka falha se algum envio do lote falhou
+                ? kafkaTemplate.executeInTransaction(operations -> kafkaProducerService.publishBatch(events))
+                : kafkaProducerService.publishBatch(events);
+        try {
+            acks.get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Relay do outbox interrompido", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Falha ao publicar lote do outbox", e);
+        }
+    }
+
+    private EmployeeEventDTO toEvent(OutboxRow row) {
+        try {
+            return objectMapper.readValue(row.payload(), EmployeeEventDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload inválido no outbox (id=" + row.id() + ")", e);
+        }
+    }
+
+    static List<List<Integer>> bucketsByPartition(int partitions) {
+        List<List<Integer>> buckets = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int bucket = 0; bucket < OutboxWriter.BUCKETS; bucket++) {
+            buckets.get(bucket % partitions).add(bucket);
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,61 @@
+package com.esocial.producer.outbox;
+
+import com.esocial.producer.model.dto.EmployeeEventDTO;
+import com.esocial.producer.repository.OutboxRepository;
+import com.esocial.producer.repository.OutboxRepository.OutboxEntry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grava os eventos do CDC em public.outbox_events.
+ *
+ * Deve ser chamado na mesma transação que confirma o checkpoint da origem: ou o lote
+ * entra no outbox junto com o novo checkpoint, ou nenhum dos dois é gravado.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxWriter {
+
+    /**
+     * Buckets fixos por hash do employeeId; o relay distribui os buckets entre as suas threads
+     */
+    public static final int BUCKETS = 256;
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void write(List<EmployeeEventDTO> events) {
+        List<OutboxEntry> entries = new ArrayList<>(events.size());
+        for (EmployeeEventDTO event : events) {
+            entries.add(new OutboxEntry(
+                    event.getEventId(),
+                    event.getEmployeeId(),
+                    event.getEventType().name(),
+                    bucketOf(event.getEmployeeId()),
+                    toJson(event)));
+        }
+        outboxRepository.insertAll(entries);
+    }
+
+    private String toJson(EmployeeEventDTO event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar evento " + event.getEventId() + " para o outbox", e);
+        }
+    }
+
+    public static int bucketOf(String employeeId) {
+        return Math.floorMod(employeeId.hashCode(), BUCKETS);
+    }
+}
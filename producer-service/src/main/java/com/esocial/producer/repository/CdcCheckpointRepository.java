@@ -0,0 +1,56 @@
+package com.esocial.producer.repository;
+
+import com.esocial.producer.cdc.PollingWatermark;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Checkpoint durável das origens de CDC (public.cdc_checkpoints).
+ */
+@Repository
+public class CdcCheckpointRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CdcCheckpointRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<Long> findScn(String sourceName) {
+        List<Long> scns = jdbcTemplate.queryForList(
+                "SELECT scn FROM public.cdc_checkpoints WHERE source_name = ? AND scn IS NOT NULL",
+                Long.class, sourceName);
+        return scns.stream().findFirst();
+    }
+
+    public void saveScn(String sourceName, long scn) {
+        jdbcTemplate.update(
+                "INSERT INTO public.cdc_checkpoints (source_name, scn, updated_at) VALUES (?, ?, CURRENT_TIMESTAMP) " +
+                "ON CONFLICT (source_name) DO UPDATE SET scn = EXCLUDED.scn, updated_at = EXCLUDED.updated_at",
+                sourceName, scn);
+    }
+
+    public Optional<PollingWatermark> findWatermark(String sourceName) {
+        List<PollingWatermark> watermarks = jdbcTemplate.query(
+                "SELECT last_updated_at, last_employee_id FROM public.cdc_checkpoints " +
+                "WHERE source_name = ? AND last_updated_at IS NOT NULL",
+                (rs, rowNum) -> new PollingWatermark(
+                        rs.getTimestamp("last_updated_at").toLocalDateTime(),
+                        rs.getString("last_employee_id")),
+                sourceName);
+        return watermarks.stream().findFirst();
+    }
+
+    public void saveWatermark(String sourceName, PollingWatermark watermark) {
+        jdbcTemplate.update(
+                "INSERT INTO public.cdc_checkpoints (source_name, last_updated_at, last_employee_id, updated_at) " +
+                "VALUES (?, ?, ?, CURRENT_TIMESTAMP) " +
+                "ON CONFLICT (source_name) DO UPDATE SET last_updated_at = EXCLUDED.last_updated_at, " +
+                "last_employee_id = EXCLUDED.last_employee_id, updated_at = EXCLUDED.updated_at",
+                sourceName, Timestamp.valueOf(watermark.updatedAt()), watermark.employeeId());
+    }
+}
@@ -1,6 +1,7 @@
 package com.esocial.producer.repository;
 
 import com.esocial.producer.model.entity.Employee;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -17,6 +18,15 @@ public interface EmployeeRepository extends JpaRepository<Employee, String> {
      */
     @Query("SELECT e FROM Employee e WHERE e.updatedAt > :lastProcessedTime ORDER BY e.updatedAt ASC")
     List<Employee> findModifiedAfter(LocalDateTime lastProcessedTime);
+
+    /**
+     * Página seguinte do CDC por chave (updated_at, employee_id), em ordem crescente.
+     * Usa o índice idx_source_employees_updated_at_id; o custo não cresce com o deslocamento.
+     */
+    @Query("SELECT e FROM Employee e WHERE e.updatedAt > :updatedAt " +
+           "OR (e.updatedAt = :updatedAt AND e.employeeId > :employeeId) " +
+           "ORDER BY e.updatedAt ASC, e.employeeId ASC")
+    List<Employee> findModifiedAfterKey(LocalDateTime updatedAt, String employeeId, Limit limit);
     
     /**
      * Busca colaboradores criados após determinada data/hora
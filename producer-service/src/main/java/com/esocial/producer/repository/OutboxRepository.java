@@ -0,0 +1,93 @@
+package com.esocial.producer.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * Acesso à public.outbox_events via JDBC.
+ *
+ * O relay lê e remove as linhas dentro de uma transação que segura um advisory lock
+ * da sua partição, então duas instâncias nunca publicam os mesmos buckets ao mesmo tempo.
+ */
+@Repository
+public class OutboxRepository {
+
+    // Classe do advisory lock (primeiro argumento); o segundo é a partição do relay
+    private static final int RELAY_LOCK_CLASS = 0x0B0C;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO public.outbox_events (event_id, employee_id, event_type, bucket, payload) " +
+            "VALUES (?, ?, ?, ?, ?::jsonb)";
+
+    private static final String FETCH_SQL =
+            "SELECT id, payload::text AS payload FROM public.outbox_events " +
+            "WHERE bucket = ANY (?) ORDER BY id LIMIT ?";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM public.outbox_events WHERE id = ANY (?)";
+
+    /**
+     * Linha a gravar no outbox
+     */
+    public record OutboxEntry(String eventId, String employeeId, String eventType, int bucket, String payload) {
+    }
+
+    /**
+     * Linha lida pelo relay
+     */
+    public record OutboxRow(long id, String payload) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<OutboxEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, entry.eventId());
+            ps.setString(2, entry.employeeId());
+            ps.setString(3, entry.eventType());
+            ps.setShort(4, (short) entry.bucket());
+            ps.setString(5, entry.payload());
+        });
+    }
+
+    /**
+     * Advisory lock da partição, liberado no fim da transação corrente
+     */
+    public boolean tryLockPartition(int partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?, ?)", Boolean.class, RELAY_LOCK_CLASS, partition));
+    }
+
+    public List<OutboxRow> fetchBatch(List<Integer> buckets, int limit) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FETCH_SQL);
+            Array array = connection.createArrayOf("integer", buckets.toArray());
+            ps.setArray(1, array);
+            ps.setInt(2, limit);
+            return ps;
+        }, (rs, rowNum) -> new OutboxRow(rs.getLong("id"), rs.getString("payload")));
+    }
+
+    public int deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(DELETE_SQL);
+            Array array = connection.createArrayOf("bigint", ids.toArray());
+            ps.setArray(1, array);
+            return ps;
+        });
+    }
+}
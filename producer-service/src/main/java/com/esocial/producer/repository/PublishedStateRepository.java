@@ -0,0 +1,62 @@
+package com.esocial.producer.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash do último estado publicado por colaborador (public.cdc_published_state).
+ *
+ * saveHashes deve rodar junto com o checkpoint da origem: o hash só muda quando
+ * o evento correspondente foi de fato publicado (ou gravado no outbox).
+ */
+@Repository
+public class PublishedStateRepository {
+
+    private static final String SELECT_SQL =
+            "SELECT employee_id, state_hash FROM public.cdc_published_state WHERE employee_id = ANY (?)";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO public.cdc_published_state (employee_id, state_hash, updated_at) " +
+            "VALUES (?, ?, CURRENT_TIMESTAMP) ON CONFLICT (employee_id) " +
+            "DO UPDATE SET state_hash = EXCLUDED.state_hash, updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PublishedStateRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Map<String, Long> findHashes(Collection<String> employeeIds) {
+        Map<String, Long> hashes = new HashMap<>();
+        if (employeeIds.isEmpty()) {
+            return hashes;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_SQL);
+            Array array = connection.createArrayOf("varchar", employeeIds.toArray());
+            ps.setArray(1, array);
+            return ps;
+        }, rs -> {
+            hashes.put(rs.getString("employee_id"), rs.getLong("state_hash"));
+        });
+        return hashes;
+    }
+
+    public void saveHashes(Map<String, Long> hashes) {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Long>> entries = List.copyOf(hashes.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, entry.getKey());
+            ps.setLong(2, entry.getValue());
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.esocial.producer.serialization;
+
+import com.esocial.producer.model.dto.EmployeeEventDTO;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Codifica o EmployeeEventDTO em Avro binário com a última versão do schema.
+ * Os nomes de campo seguem o contrato do consumer (snake_case, employeeId → source_id).
+ */
+public class AvroEmployeeEventEncoder {
+
+    private final Schema schema;
+    private final int schemaVersion;
+    private final int salaryScale;
+    private final GenericDatumWriter<GenericRecord> writer;
+    private final ThreadLocal<BinaryEncoder> encoders = new ThreadLocal<>();
+
+    public AvroEmployeeEventEncoder(EventSchemaRegistry registry) {
+        this.schema = registry.latest();
+        this.schemaVersion = registry.latestVersion();
+        this.salaryScale = ((LogicalTypes.Decimal) unionBranch(schema.getField("salary").schema()).getLogicalType()).getScale();
+        this.writer = new GenericDatumWriter<>(schema);
+    }
+
+    public int schemaVersion() {
+        return schemaVersion;
+    }
+
+    public void encode(EmployeeEventDTO event, OutputStream out) throws IOException {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("event_id", event.getEventId());
+        record.put("event_type", event.getEventType() != null ? event.getEventType().name() : null);
+        record.put("event_timestamp", toMillis(event.getEventTimestamp()));
+        record.put("source_id", event.getEmployeeId());
+        record.put("correlation_id", event.getCorrelationId() != null ? event.getCorrelationId().toString() : null);
+        record.put("cpf", event.getCpf());
+        record.put("pis", event.getPis());
+        record.put("full_name", event.getFullName());
+        record.put("birth_date", toEpochDay(event.getBirthDate()));
+        record.put("admission_date", toEpochDay(event.getAdmissionDate()));
+        record.put("termination_date", toEpochDay(event.getTerminationDate()));
+        record.put("job_title", event.getJobTitle());
+        record.put("department", event.getDepartment());
+        record.put("salary", toDecimalBytes(event.getSalary()));
+        record.put("status", event.getStatus());
+        record.put("created_at", toMillis(event.getCreatedAt()));
+        record.put("updated_at", toMillis(event.getUpdatedAt()));
+        record.put("source_system", event.getSourceSystem());
+
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, encoders.get());
+        encoders.set(encoder);
+        writer.write(record, encoder);
+        encoder.flush();
+    }
+
+    private ByteBuffer toDecimalBytes(BigDecimal value) {
+        if (value == null) {
+            return null;
+        }
+        return ByteBuffer.wrap(value.setScale(salaryScale, RoundingMode.HALF_UP).unscaledValue().toByteArray());
+    }
+
+    private static Long toMillis(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC).toEpochMilli() : null;
+    }
+
+    private static Integer toEpochDay(LocalDate value) {
+        return value != null ? (int) value.toEpochDay() : null;
+    }
+
+    private static Schema unionBranch(Schema schema) {
+        if (schema.getType() != Schema.Type.UNION) {
+            return schema;
+        }
+        for (Schema branch : schema.getTypes()) {
+            if (branch.getType() != Schema.Type.NULL) {
+                return branch;
+            }
+        }
+        return schema;
+    }
+}
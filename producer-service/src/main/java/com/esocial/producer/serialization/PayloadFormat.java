@@ -0,0 +1,34 @@
+package com.esocial.producer.serialization;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formato do valor publicado nos tópicos de colaborador, informado no header
+ * X-Payload-Format. Mensagens sem o header são JSON (formato anterior à migração).
+ */
+public enum PayloadFormat {
+    JSON("json"),
+    AVRO("avro");
+
+    public static final String HEADER = "X-Payload-Format";
+    public static final String SCHEMA_VERSION_HEADER = "X-Schema-Version";
+
+    private final String headerValue;
+
+    PayloadFormat(String headerValue) {
+        this.headerValue = headerValue;
+    }
+
+    public byte[] headerBytes() {
+        return headerValue.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static PayloadFormat fromConfig(String value) {
+        for (PayloadFormat format : values()) {
+            if (format.headerValue.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Formato de payload desconhecido: " + value);
+    }
+}
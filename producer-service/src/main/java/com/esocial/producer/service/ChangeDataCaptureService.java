@@ -1,29 +1,45 @@
 package com.esocial.producer.service;
 
+import com.esocial.producer.cdc.ChangeBatch;
+import com.esocial.producer.cdc.ChangeDetector;
+import com.esocial.producer.cdc.ChangeDetector.Detection;
+import com.esocial.producer.cdc.ChangeSource;
+import com.esocial.producer.cdc.EmployeeChange;
+import com.esocial.producer.metrics.CounterCache;
 import com.esocial.producer.model.dto.EmployeeEventDTO;
 import com.esocial.producer.model.dto.EventType;
 import com.esocial.producer.model.entity.Employee;
-import com.esocial.producer.repository.EmployeeRepository;
+import com.esocial.producer.outbox.OutboxWriter;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class ChangeDataCaptureService {
 
-    private final EmployeeRepository employeeRepository;
+    private final ChangeSource<?> changeSource;
     private final KafkaProducerService kafkaProducerService;
+    private final OutboxWriter outboxWriter;
+    private final ChangeDetector changeDetector;
+    private final TransactionTemplate transactionTemplate;
     private final MeterRegistry meterRegistry;
     
     // Counter básico da Sprint 1
@@ -32,18 +48,26 @@ public class ChangeDataCaptureService {
     // Métricas detalhadas da Sprint 3
     private final Counter recordsDetectedCounter;
     private final Timer cdcPollingTimer;
+    private final Map<EventType, Counter> processedByTypeCounters = new EnumMap<>(EventType.class);
+    private final Counter processingFailuresCounter;
+    private final Counter recordsUnchangedCounter;
+    private final CounterCache cdcErrorCounters;
 
-    @Value("${app.cdc.batch-size:100}")
-    private int batchSize;
-
-    private LocalDateTime lastProcessedTime;
+    @Value("${app.cdc.publish-timeout-ms:30000}")
+    private long publishTimeoutMs;
 
     public ChangeDataCaptureService(
-            EmployeeRepository employeeRepository,
+            ChangeSource<?> changeSource,
             KafkaProducerService kafkaProducerService,
+            Optional<OutboxWriter> outboxWriter,
+            ChangeDetector changeDetector,
+            PlatformTransactionManager transactionManager,
             MeterRegistry meterRegistry) {
-        this.employeeRepository = employeeRepository;
+        this.changeSource = changeSource;
         this.kafkaProducerService = kafkaProducerService;
+        this.outboxWriter = outboxWriter.orElse(null);
+        this.changeDetector = changeDetector;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.meterRegistry = meterRegistry;
         
         // Counter original (Sprint 1) - retrocompatibilidade
@@ -65,13 +89,28 @@ public class ChangeDataCaptureService {
                 .tag("operation", "polling")
                 .publishPercentiles(0.5, 0.95, 0.99) // P50, P95, P99
                 .register(meterRegistry);
-    }
 
-    @PostConstruct
-    public void init() {
-        // Inicializa com timestamp atual - 1 hora para capturar mudanças recentes
-        this.lastProcessedTime = LocalDateTime.now().minusHours(1);
-        log.info("CDC Service inicializado. Última data processada: {}", lastProcessedTime);
+        // Meters registrados uma única vez; no caminho quente apenas increment()
+        for (EventType eventType : EventType.values()) {
+            processedByTypeCounters.put(eventType, Counter.builder("cdc.records.processed.total")
+                    .description("Total de registros processados pelo CDC (detalhado)")
+                    .tag("service", "producer")
+                    .tag("event_type", eventType.name())
+                    .register(meterRegistry));
+        }
+
+        this.processingFailuresCounter = Counter.builder("cdc.processing.failures")
+                .description("Falhas ao processar registros individuais")
+                .tag("service", "producer")
+                .register(meterRegistry);
+
+        this.recordsUnchangedCounter = Counter.builder("cdc.records.unchanged")
+                .description("Mudanças descartadas por estado igual ao último publicado")
+                .tag("service", "producer")
+                .register(meterRegistry);
+
+        this.cdcErrorCounters = new CounterCache(meterRegistry, "cdc.errors.total",
+                "Total de erros no CDC", "producer", "error_type");
     }
 
     /**
@@ -79,117 +118,138 @@ public class ChangeDataCaptureService {
      * Executa a cada 5 segundos (configurável)
      */
     @Scheduled(fixedDelayString = "${app.cdc.polling-interval:5000}")
-    @Transactional(readOnly = true)
     public void captureChanges() {
-        log.debug("Iniciando captura de mudanças. Última data processada: {}", lastProcessedTime);
-
         // Medir tempo de execução do polling (Sprint 3)
         Timer.Sample sample = Timer.start(meterRegistry);
 
         try {
-            // Busca colaboradores modificados desde o último processamento
-            List<Employee> modifiedEmployees = employeeRepository.findModifiedAfter(lastProcessedTime);
+            int processed = captureBatch(changeSource);
 
-            if (!modifiedEmployees.isEmpty()) {
-                // Registrar quantidade detectada (Sprint 3)
-                recordsDetectedCounter.increment(modifiedEmployees.size());
-                
-                log.info("Encontrados {} colaboradores modificados", modifiedEmployees.size());
-
-                LocalDateTime currentBatchTime = LocalDateTime.now();
-
-                for (Employee employee : modifiedEmployees) {
-                    processEmployee(employee);
-                }
-
-                // Atualiza o timestamp apenas se processou com sucesso
-                lastProcessedTime = currentBatchTime;
-                
+            if (processed > 0) {
                 // Log com métricas (Sprint 3)
                 long pollingTimeMs = (long) sample.stop(cdcPollingTimer);
-                log.info("Processamento concluído. {} registros em {}ms. Nova data de referência: {}", 
-                        modifiedEmployees.size(), pollingTimeMs, lastProcessedTime);
+                log.info("Processamento concluído. {} registros em {}ms (origem: {})",
+                        processed, pollingTimeMs, changeSource.getName());
             } else {
                 sample.stop(cdcPollingTimer); // Parar timer mesmo sem mudanças
                 log.debug("Nenhuma mudança detectada");
             }
         } catch (Exception e) {
             sample.stop(cdcPollingTimer); // Parar timer em caso de erro
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.error("Erro ao capturar mudanças: {}", e.getMessage(), e);
             
             // Counter de erros (Sprint 3)
-            Counter.builder("cdc.errors.total")
-                    .description("Total de erros no CDC")
-                    .tag("service", "producer")
-                    .tag("error_type", e.getClass().getSimpleName())
-                    .register(meterRegistry)
-                    .increment();
+            cdcErrorCounters.get(e.getClass().getSimpleName()).increment();
         }
     }
 
     /**
-     * Processa um colaborador e publica evento no Kafka
+     * Lê a origem página a página.
+     *
+     * UPDATEs cujo estado de negócio não mudou desde a última publicação (ChangeDetector)
+     * não geram evento; os hashes das publicadas são gravados junto com o checkpoint.
+     * Com o outbox (app.outbox.enabled), os eventos da página e o checkpoint são gravados
+     * na mesma transação e o OutboxRelay publica no Kafka. Sem o outbox, publica a página
+     * de forma assíncrona, aguarda os acks e só então confirma o checkpoint. Uma falha
+     * interrompe o ciclo sem avançar o checkpoint; a página é relida no próximo polling.
      */
-    private void processEmployee(Employee employee) {
-        try {
-            // Determina o tipo de evento baseado em lógica de negócio
-            EventType eventType = determineEventType(employee);
+    private <P> int captureBatch(ChangeSource<P> source) throws Exception {
+        int total = 0;
+        ChangeBatch<P> batch;
+        do {
+            batch = source.fetchChanges();
+            List<EmployeeEventDTO> events = List.of();
+            Detection detection = changeDetector.detect(batch.changes());
+            Set<String> publishedIds = new HashSet<>();
+
+            if (!batch.isEmpty()) {
+                // Registrar quantidade detectada (Sprint 3)
+                recordsDetectedCounter.increment(batch.size());
+                recordsUnchangedCounter.increment(detection.unchanged());
+
+                log.info("Encontrados {} colaboradores modificados ({} sem mudança nos dados)",
+                        batch.size(), detection.unchanged());
+
+                events = new ArrayList<>(detection.changed().size());
+                for (EmployeeChange change : detection.changed()) {
+                    EmployeeEventDTO event = processEmployee(change.employee(), change.eventType());
+                    if (event != null) {
+                        events.add(event);
+                        publishedIds.add(event.getEmployeeId());
+                    }
+                }
+            }
+
+            if (outboxWriter != null) {
+                writeToOutbox(source, batch, events, detection, publishedIds);
+            } else {
+                publishAndCommit(source, batch, events, detection, publishedIds);
+            }
+            total += batch.size();
+        } while (batch.hasMore());
+
+        return total;
+    }
 
+    /**
+     * Publica a página e, confirmada pelo Kafka, grava os hashes publicados e o checkpoint
+     */
+    private <P> void publishAndCommit(ChangeSource<P> source, ChangeBatch<P> batch, List<EmployeeEventDTO> events,
+                                      Detection detection, Set<String> publishedIds) throws Exception {
+        if (!events.isEmpty()) {
+            kafkaProducerService.publishBatch(events).get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            changeDetector.record(detection, publishedIds);
+            source.commit(batch);
+        });
+    }
+
+    /**
+     * Eventos no outbox, hashes publicados e checkpoint da origem na mesma transação
+     */
+    private <P> void writeToOutbox(ChangeSource<P> source, ChangeBatch<P> batch, List<EmployeeEventDTO> events,
+                                   Detection detection, Set<String> publishedIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxWriter.write(events);
+            changeDetector.record(detection, publishedIds);
+            source.commit(batch);
+        });
+    }
+
+    /**
+     * Converte um colaborador no evento a publicar (null se a conversão falhar)
+     */
+    private EmployeeEventDTO processEmployee(Employee employee, EventType eventType) {
+        try {
             // Converte entidade para DTO
             EmployeeEventDTO event = convertToDTO(employee, eventType);
 
-            // Publica no Kafka
-            kafkaProducerService.publishEmployeeEvent(event);
-
             // Counter básico de registros processdos
             recordsProcessedCounter.increment();
             
             // Counter detalhado por tipo de evento (Sprint 3)
-            Counter.builder("cdc.records.processed.total")
-                    .description("Total de registros processados pelo CDC (detalhado)")
-                    .tag("service", "producer")
-                    .tag("event_type", eventType.name())
-                    .register(meterRegistry)
-                    .increment();
+            processedByTypeCounters.get(eventType).increment();
 
             log.debug("Colaborador processado: id={}, type={}", employee.getEmployeeId(), eventType);
+            return event;
         } catch (Exception e) {
             log.error("Erro ao processar colaborador id={}: {}",
                     employee.getEmployeeId(), e.getMessage(), e);
             
             // Counter de falhas no processamento (Sprint 3)
-            Counter.builder("cdc.processing.failures")
-                    .description("Falhas ao processar registros individuais")
-                    .tag("service", "producer")
-                    .register(meterRegistry)
-                    .increment();
-        }
-    }
-
-    /**
-     * Determina o tipo de evento baseado em regras de negócio
-     */
-    private EventType determineEventType(Employee employee) {
-        // Simplificado: verifica se é criação recente ou atualização
-        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-
-        if (employee.getCreatedAt() != null &&
-                employee.getCreatedAt().isAfter(oneHourAgo) &&
-                employee.getCreatedAt().equals(employee.getUpdatedAt())) {
-            return EventType.CREATE;
+            processingFailuresCounter.increment();
+            return null;
         }
-
-        if ("INACTIVE".equals(employee.getStatus()) || employee.getTerminationDate() != null) {
-            return EventType.DELETE; // Soft delete
-        }
-
-        return EventType.UPDATE;
     }
 
     /**
      * Converte Employee para EmployeeEventDTO
      */
-    private EmployeeEventDTO convertToDTO(Employee employee, EventType eventType) {
+    static EmployeeEventDTO convertToDTO(Employee employee, EventType eventType) {
         return EmployeeEventDTO.builder()
                 .eventId(UUID.randomUUID().toString())
                 .eventType(eventType)
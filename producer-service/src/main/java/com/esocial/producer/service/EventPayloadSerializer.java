@@ -0,0 +1,95 @@
+package com.esocial.producer.service;
+
+import com.esocial.producer.model.dto.EmployeeEventDTO;
+import com.esocial.producer.serialization.AvroEmployeeEventEncoder;
+import com.esocial.producer.serialization.EventSchemaRegistry;
+import com.esocial.producer.serialization.PayloadFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializa o evento uma única vez, em um buffer reutilizado por thread.
+ * Os bytes retornados vão direto para o ProducerRecord e o seu tamanho é o
+ * tamanho real do payload (events.payload.size).
+ *
+ * O formato vem de {@code app.kafka.payload-format}:
+ * - json: mesmo formato do JsonSerializer usado antes (datas ISO, sem headers de tipo);
+ * - avro: binário com a última versão de schema do EventSchemaRegistry.
+ * O formato e a versão do schema seguem nos headers para o consumer escolher o decoder.
+ */
+@Slf4j
+@Component
+public class EventPayloadSerializer {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final PayloadFormat format;
+    private final ObjectWriter jsonWriter;
+    private final AvroEmployeeEventEncoder avroEncoder;
+    private final byte[] schemaVersionHeader;
+    private final ThreadLocal<ByteArrayOutputStream> buffers =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(INITIAL_BUFFER_SIZE));
+
+    public EventPayloadSerializer(ObjectMapper objectMapper) {
+        this(objectMapper, PayloadFormat.JSON.name(), null);
+    }
+
+    @Autowired
+    public EventPayloadSerializer(ObjectMapper objectMapper,
+                                  @Value("${app.kafka.payload-format:json}") String format,
+                                  EventSchemaRegistry schemaRegistry) {
+        this.format = PayloadFormat.fromConfig(format);
+        this.jsonWriter = objectMapper.writerFor(EmployeeEventDTO.class)
+                .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        if (this.format == PayloadFormat.AVRO) {
+            this.avroEncoder = new AvroEmployeeEventEncoder(schemaRegistry);
+            this.schemaVersionHeader = String.valueOf(avroEncoder.schemaVersion()).getBytes(StandardCharsets.UTF_8);
+            log.info("Eventos publicados em Avro (schema v{})", avroEncoder.schemaVersion());
+        } else {
+            this.avroEncoder = null;
+            this.schemaVersionHeader = null;
+        }
+    }
+
+    public PayloadFormat format() {
+        return format;
+    }
+
+    public byte[] serialize(EmployeeEventDTO event) {
+        ByteArrayOutputStream buffer = buffers.get();
+        buffer.reset();
+        try {
+            if (avroEncoder != null) {
+                avroEncoder.encode(event, buffer);
+            } else {
+                jsonWriter.writeValue(buffer, event);
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Erro ao serializar evento " + event.getEventId(), e);
+        }
+        // Cópia única: o producer mantém o array até o envio do lote
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Headers de negociação do formato (X-Payload-Format e, em Avro, X-Schema-Version)
+     */
+    public void addFormatHeaders(Headers headers) {
+        headers.add(PayloadFormat.HEADER, format.headerBytes());
+        if (schemaVersionHeader != null) {
+            headers.add(PayloadFormat.SCHEMA_VERSION_HEADER, schemaVersionHeader);
+        }
+    }
+}
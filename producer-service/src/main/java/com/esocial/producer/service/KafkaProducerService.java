@@ -1,39 +1,52 @@
 package com.esocial.producer.service;
 
 import com.esocial.producer.model.dto.EmployeeEventDTO;
+import com.esocial.producer.metrics.CounterCache;
 import com.esocial.producer.model.dto.EventType;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.header.internals.RecordHeader;
 import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 
 @Slf4j
 @Service
 public class KafkaProducerService {
 
-    private final KafkaTemplate<String, EmployeeEventDTO> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
     private final MeterRegistry meterRegistry;
-    private final ObjectMapper objectMapper;
+    private final EventPayloadSerializer payloadSerializer;
 
     private final Counter eventsPublishedCounter;
     private final Counter eventsFailedCounter;
+    private final CounterCache publishedByTypeCounters;
+    private final CounterCache failedByTypeCounters;
     private final Timer kafkaPublishTimer;
     private final DistributionSummary payloadSizeDistribution;
+    private final Timer batchPublishTimer;
+    private final DistributionSummary batchSizeDistribution;
+
+    // Janela de envios aguardando ack do broker (backpressure do pipeline)
+    private final Semaphore inFlightWindow;
+    private final int maxInFlight;
 
     @Value("${app.kafka.topics.employee-create}")
     private String employeeCreateTopic;
@@ -45,12 +58,21 @@ public class KafkaProducerService {
     private String employeeDeleteTopic;
 
     public KafkaProducerService(
-            KafkaTemplate<String, EmployeeEventDTO> kafkaTemplate,
+            KafkaTemplate<String, byte[]> kafkaTemplate,
             MeterRegistry meterRegistry,
             ObjectMapper objectMapper) {
+        this(kafkaTemplate, meterRegistry, new EventPayloadSerializer(objectMapper), 1000);
+    }
+
+    @Autowired
+    public KafkaProducerService(
+            KafkaTemplate<String, byte[]> kafkaTemplate,
+            MeterRegistry meterRegistry,
+            EventPayloadSerializer payloadSerializer,
+            @Value("${app.kafka.max-in-flight:1000}") int maxInFlight) {
         this.kafkaTemplate = kafkaTemplate;
         this.meterRegistry = meterRegistry;
-        this.objectMapper = objectMapper;
+        this.payloadSerializer = payloadSerializer;
 
         this.eventsPublishedCounter = Counter.builder("events.published")
                 .description("Total de eventos publicados no Kafka")
@@ -62,6 +84,12 @@ public class KafkaProducerService {
                 .tag("service", "producer")
                 .register(meterRegistry);
 
+        this.publishedByTypeCounters = new CounterCache(meterRegistry, "events.published.total",
+                "Total de eventos publicados (detalhado)", "producer", "event_type", "topic");
+
+        this.failedByTypeCounters = new CounterCache(meterRegistry, "events.failed.total",
+                "Total de eventos que falharam (detalhado)", "producer", "event_type", "topic", "error_type");
+
         this.kafkaPublishTimer = Timer.builder("kafka.publish.duration")
                 .description("Tempo de publicação de evento no Kafka")
                 .tag("service", "producer")
@@ -74,12 +102,72 @@ public class KafkaProducerService {
                 .baseUnit("bytes")
                 .publishPercentiles(0.5, 0.95, 0.99)
                 .register(meterRegistry);
+
+        this.batchPublishTimer = Timer.builder("kafka.publish.batch.duration")
+                .description("Tempo entre o primeiro envio e o último ack de um lote")
+                .tag("service", "producer")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        this.batchSizeDistribution = DistributionSummary.builder("kafka.publish.batch.size")
+                .description("Eventos por lote publicado")
+                .tag("service", "producer")
+                .register(meterRegistry);
+
+        this.maxInFlight = maxInFlight;
+        this.inFlightWindow = new Semaphore(maxInFlight);
+
+        Gauge.builder("kafka.publish.inflight", this, service -> service.maxInFlight - service.inFlightWindow.availablePermits())
+                .description("Eventos enviados aguardando ack do broker")
+                .tag("service", "producer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publica um lote de eventos de forma assíncrona, com no máximo {@code app.kafka.max-in-flight}
+     * envios aguardando ack (bloqueia quando a janela está cheia).
+     *
+     * O future retornado completa quando todos os eventos foram confirmados, ou falha se
+     * algum envio falhar; só então o chamador deve avançar o checkpoint do CDC.
+     */
+    public CompletableFuture<Void> publishBatch(List<EmployeeEventDTO> events) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<CompletableFuture<?>> acks = new ArrayList<>(events.size());
+
+        for (EmployeeEventDTO event : events) {
+            try {
+                inFlightWindow.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acks.add(CompletableFuture.failedFuture(e));
+                break;
+            }
+
+            CompletableFuture<SendResult<String, byte[]>> ack;
+            try {
+                ack = publishEmployeeEvent(event);
+            } catch (RuntimeException e) {
+                inFlightWindow.release();
+                acks.add(CompletableFuture.failedFuture(e));
+                continue;
+            }
+            acks.add(ack.whenComplete((result, ex) -> inFlightWindow.release()));
+        }
+
+        return CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, ex) -> {
+                    long latencyMs = (long) sample.stop(batchPublishTimer);
+                    batchSizeDistribution.record(events.size());
+                    log.debug("Lote de {} eventos {} em {}ms", events.size(),
+                            ex == null ? "confirmado" : "com falha", latencyMs);
+                });
     }
 
     /**
      * Publica evento de colaborador no Kafka, enviando correlation ID nos headers Kafka.
+     * O future completa com a confirmação (ack) do broker.
      */
-    public void publishEmployeeEvent(EmployeeEventDTO event) {
+    public CompletableFuture<SendResult<String, byte[]>> publishEmployeeEvent(EmployeeEventDTO event) {
         String topic = determineTopicByEventType(event.getEventType());
         String key = event.getEmployeeId();
 
@@ -88,7 +176,9 @@ public class KafkaProducerService {
 
         Timer.Sample sample = Timer.start(meterRegistry);
 
-        int payloadSize = calculateActualPayloadSize(event);
+        // Serializa uma única vez; o tamanho registrado é o dos bytes enviados
+        byte[] payload = payloadSerializer.serialize(event);
+        int payloadSize = payload.length;
         payloadSizeDistribution.record(payloadSize);
 
         // Correlation ID do evento ou novo UUID
@@ -99,29 +189,24 @@ public class KafkaProducerService {
         // Montar headers Kafka com correlation ID
         RecordHeaders headers = new RecordHeaders();
         headers.add(new RecordHeader("X-Correlation-Id", correlationIdString.getBytes(StandardCharsets.UTF_8)));
+        payloadSerializer.addFormatHeaders(headers);
 
-        ProducerRecord<String, EmployeeEventDTO> record = new ProducerRecord<>(
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(
                 topic,
                 null,
                 key,
-                event,
+                payload,
                 headers
         );
 
-        CompletableFuture<SendResult<String, EmployeeEventDTO>> future = kafkaTemplate.send(record);
+        CompletableFuture<SendResult<String, byte[]>> future = kafkaTemplate.send(record);
 
-        future.whenComplete((result, ex) -> {
+        return future.whenComplete((result, ex) -> {
             long latencyMs = (long) sample.stop(kafkaPublishTimer);
 
             if (ex == null) {
                 eventsPublishedCounter.increment();
-                Counter.builder("events.published.total")
-                        .description("Total de eventos publicados (detalhado)")
-                        .tag("service", "producer")
-                        .tag("event_type", event.getEventType().name())
-                        .tag("topic", topic)
-                        .register(meterRegistry)
-                        .increment();
+                publishedByTypeCounters.get(event.getEventType().name(), topic).increment();
 
                 log.info("Evento publicado com sucesso: topic={}, partition={}, offset={}, eventId={}, latency={}ms, size={}bytes, correlationId={}",
                         result.getRecordMetadata().topic(),
@@ -133,14 +218,7 @@ public class KafkaProducerService {
                         correlationIdString);
             } else {
                 eventsFailedCounter.increment();
-                Counter.builder("events.failed.total")
-                        .description("Total de eventos que falharam (detalhado)")
-                        .tag("service", "producer")
-                        .tag("event_type", event.getEventType().name())
-                        .tag("topic", topic)
-                        .tag("error_type", ex.getClass().getSimpleName())
-                        .register(meterRegistry)
-                        .increment();
+                failedByTypeCounters.get(event.getEventType().name(), topic, ex.getClass().getSimpleName()).increment();
 
                 log.error("Erro ao publicar evento: eventId={}, error={}, correlationId={}",
                         event.getEventId(), ex.getMessage(), correlationIdString, ex);
@@ -155,29 +233,4 @@ public class KafkaProducerService {
             case DELETE -> employeeDeleteTopic;
         };
     }
-
-    private int calculateActualPayloadSize(EmployeeEventDTO event) {
-        try {
-            String json = objectMapper.writeValueAsString(event);
-            return json.getBytes().length;
-        } catch (JsonProcessingException e) {
-            log.warn("Erro ao calcular tamanho do payload, usando estimativa: {}", e.getMessage());
-            return estimatePayloadSize(event);
-        }
-    }
-
-    private int estimatePayloadSize(EmployeeEventDTO event) {
-        int baseSize = 250;
-
-        if (event.getEmployeeId() != null) baseSize += event.getEmployeeId().length() * 2;
-        if (event.getCpf() != null) baseSize += event.getCpf().length() * 2;
-        if (event.getPis() != null) baseSize += event.getPis().length() * 2;
-        if (event.getFullName() != null) baseSize += event.getFullName().length() * 2;
-        if (event.getJobTitle() != null) baseSize += event.getJobTitle().length() * 2;
-        if (event.getDepartment() != null) baseSize += event.getDepartment().length() * 2;
-        if (event.getStatus() != null) baseSize += event.getStatus().length() * 2;
-        if (event.getSourceSystem() != null) baseSize += event.getSourceSystem().length() * 2;
-
-        return baseSize;
-    }
 }
@@ -0,0 +1,116 @@
+package com.esocial.producer.cdc;
+
+import com.esocial.producer.model.dto.EventType;
+import com.esocial.producer.model.entity.Employee;
+import com.esocial.producer.repository.PublishedStateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ChangeDetectorTest {
+
+    private PublishedStateRepository repository;
+    private ChangeDetector detector;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(PublishedStateRepository.class);
+        detector = new ChangeDetector(repository, true);
+    }
+
+    @Test
+    @DisplayName("Linha tocada só no updated_at não deve gerar evento")
+    void shouldSuppressUnchangedRow() {
+        Employee published = employee("EMP001", "5000.00");
+        Employee touched = employee("EMP001", "5000.0");
+        touched.setUpdatedAt(published.getUpdatedAt().plusHours(2));
+        when(repository.findHashes(anyCollection()))
+                .thenReturn(Map.of("EMP001", ChangeDetector.stateHash(published)));
+
+        ChangeDetector.Detection detection = detector.detect(List.of(change(touched)));
+
+        assertThat(detection.changed()).isEmpty();
+        assertThat(detection.unchanged()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Mudança de campo de negócio deve ser publicada e o novo hash gravado")
+    void shouldPublishChangedRow() {
+        when(repository.findHashes(anyCollection()))
+                .thenReturn(Map.of("EMP001", ChangeDetector.stateHash(employee("EMP001", "5000.00"))));
+        Employee raised = employee("EMP001", "5500.00");
+
+        ChangeDetector.Detection detection = detector.detect(List.of(change(raised), change(employee("EMP002", "3000"))));
+        detector.record(detection, Set.of("EMP001", "EMP002"));
+
+        assertThat(detection.changed()).hasSize(2);
+        verify(repository).saveHashes(Map.of(
+                "EMP001", ChangeDetector.stateHash(raised),
+                "EMP002", ChangeDetector.stateHash(employee("EMP002", "3000"))));
+    }
+
+    @Test
+    @DisplayName("Hash de evento que não foi gerado não deve ser gravado")
+    void shouldOnlyRecordPublishedHashes() {
+        when(repository.findHashes(anyCollection())).thenReturn(Map.of());
+
+        ChangeDetector.Detection detection = detector.detect(
+                List.of(change(employee("EMP001", "1000")), change(employee("EMP002", "2000"))));
+        detector.record(detection, Set.of("EMP002"));
+
+        verify(repository).saveHashes(Map.of("EMP002", ChangeDetector.stateHash(employee("EMP002", "2000"))));
+    }
+
+    @Test
+    @DisplayName("DELETE e CREATE com o mesmo estado já publicado devem ser publicados")
+    void shouldAlwaysPublishDeleteAndCreate() {
+        Employee employee = employee("EMP001", "5000.00");
+        when(repository.findHashes(anyCollection())).thenReturn(Map.of());
+
+        ChangeDetector.Detection detection = detector.detect(List.of(
+                change(employee),
+                new EmployeeChange(employee, EventType.DELETE),
+                new EmployeeChange(employee, EventType.CREATE),
+                change(employee)));
+
+        assertThat(detection.changed()).extracting(EmployeeChange::eventType)
+                .containsExactly(EventType.UPDATE, EventType.DELETE, EventType.CREATE);
+        assertThat(detection.unchanged()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Desabilitado, todas as mudanças seguem sem consultar o banco")
+    void shouldPassThroughWhenDisabled() {
+        ChangeDetector disabled = new ChangeDetector(repository, false);
+
+        ChangeDetector.Detection detection = disabled.detect(List.of(change(employee("EMP001", "1000"))));
+
+        assertThat(detection.changed()).hasSize(1);
+        verify(repository, never()).findHashes(anyCollection());
+    }
+
+    private EmployeeChange change(Employee employee) {
+        return new EmployeeChange(employee, EventType.UPDATE);
+    }
+
+    private static Employee employee(String employeeId, String salary) {
+        return Employee.builder()
+                .employeeId(employeeId)
+                .cpf("12345678909")
+                .fullName("Colaborador " + employeeId)
+                .salary(new BigDecimal(salary))
+                .status("ACTIVE")
+                .updatedAt(LocalDateTime.of(2024, 1, 10, 8, 0))
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.esocial.producer.cdc;
+
+import com.esocial.producer.model.entity.Employee;
+import com.esocial.producer.repository.CdcCheckpointRepository;
+import com.esocial.producer.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JpaPollingChangeSourceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 10, 8, 0);
+
+    private EmployeeRepository employeeRepository;
+    private CdcCheckpointRepository checkpointRepository;
+    private JpaPollingChangeSource changeSource;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository = mock(EmployeeRepository.class);
+        checkpointRepository = mock(CdcCheckpointRepository.class);
+        changeSource = new JpaPollingChangeSource(employeeRepository, checkpointRepository);
+        ReflectionTestUtils.setField(changeSource, "batchSize", 2);
+    }
+
+    @Test
+    @DisplayName("Deve continuar do watermark persistido e paginar por (updated_at, employee_id)")
+    void shouldResumeFromPersistedWatermark() {
+        when(checkpointRepository.findWatermark("polling"))
+                .thenReturn(Optional.of(new PollingWatermark(T0, "EMP010")));
+        when(employeeRepository.findModifiedAfterKey(T0, "EMP010", Limit.of(2)))
+                .thenReturn(List.of(employee("EMP011", T0), employee("EMP002", T0.plusSeconds(1))));
+
+        ChangeBatch<PollingWatermark> batch = changeSource.fetchChanges();
+
+        assertThat(batch.size()).isEqualTo(2);
+        assertThat(batch.hasMore()).isTrue();
+        assertThat(batch.checkpoint()).isEqualTo(new PollingWatermark(T0.plusSeconds(1), "EMP002"));
+    }
+
+    @Test
+    @DisplayName("Página incompleta deve indicar que não há mais mudanças")
+    void shouldSignalLastPage() {
+        when(checkpointRepository.findWatermark("polling"))
+                .thenReturn(Optional.of(new PollingWatermark(T0, "EMP010")));
+        when(employeeRepository.findModifiedAfterKey(T0, "EMP010", Limit.of(2)))
+                .thenReturn(List.of(employee("EMP011", T0)));
+
+        ChangeBatch<PollingWatermark> batch = changeSource.fetchChanges();
+
+        assertThat(batch.hasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Watermark só deve ser persistido no commit e usado na página seguinte")
+    void shouldPersistWatermarkOnlyOnCommit() {
+        when(checkpointRepository.findWatermark("polling"))
+                .thenReturn(Optional.of(new PollingWatermark(T0, "EMP010")));
+        when(employeeRepository.findModifiedAfterKey(T0, "EMP010", Limit.of(2)))
+                .thenReturn(List.of(employee("EMP011", T0), employee("EMP012", T0)));
+
+        ChangeBatch<PollingWatermark> batch = changeSource.fetchChanges();
+        verify(checkpointRepository, never()).saveWatermark(anyString(), any());
+
+        changeSource.commit(batch);
+        changeSource.fetchChanges();
+
+        verify(checkpointRepository).saveWatermark("polling", new PollingWatermark(T0, "EMP012"));
+        verify(employeeRepository).findModifiedAfterKey(T0, "EMP012", Limit.of(2));
+    }
+
+    @Test
+    @DisplayName("Lote vazio não deve gravar watermark")
+    void shouldNotPersistEmptyBatch() {
+        when(checkpointRepository.findWatermark("polling")).thenReturn(Optional.empty());
+        when(employeeRepository.findModifiedAfterKey(any(), eq(""), any())).thenReturn(List.of());
+
+        ChangeBatch<PollingWatermark> batch = changeSource.fetchChanges();
+        changeSource.commit(batch);
+
+        assertThat(batch.isEmpty()).isTrue();
+        verify(checkpointRepository, never()).saveWatermark(anyString(), any());
+    }
+
+    private static Employee employee(String employeeId, LocalDateTime updatedAt) {
+        return Employee.builder()
+                .employeeId(employeeId)
+                .cpf("12345678909")
+                .fullName("Colaborador " + employeeId)
+                .status("ACTIVE")
+                .createdAt(updatedAt.minusDays(30))
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.esocial.producer.cdc;
+
+import com.esocial.producer.cdc.RedoLogFeed.Operation;
+import com.esocial.producer.cdc.RedoLogFeed.RowChange;
+import com.esocial.producer.model.dto.EventType;
+import com.esocial.producer.model.entity.Employee;
+import com.esocial.producer.repository.CdcCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LogBasedChangeSourceTest {
+
+    private InMemoryRedoLogFeed feed;
+    private CdcCheckpointRepository checkpointRepository;
+    private LogBasedChangeSource changeSource;
+
+    @BeforeEach
+    void setup() {
+        feed = new InMemoryRedoLogFeed();
+        checkpointRepository = mock(CdcCheckpointRepository.class);
+        changeSource = new LogBasedChangeSource(feed, checkpointRepository);
+        ReflectionTestUtils.setField(changeSource, "maxScnRange", 100_000L);
+    }
+
+    @Test
+    @DisplayName("Primeira execução deve gravar o SCN atual sem publicar mudanças")
+    void shouldInitializeCheckpointAtCurrentScn() {
+        feed.currentScn = 5000;
+        when(checkpointRepository.findScn("logminer")).thenReturn(Optional.empty());
+
+        ChangeBatch<Long> batch = changeSource.fetchChanges();
+
+        assertThat(batch.isEmpty()).isTrue();
+        assertThat(batch.checkpoint()).isEqualTo(5000L);
+        verify(checkpointRepository).saveScn("logminer", 5000L);
+    }
+
+    @Test
+    @DisplayName("Deve reduzir alterações do mesmo colaborador à última, preservando CREATE")
+    void shouldCollapseChangesPerEmployee() {
+        feed.currentScn = 200;
+        feed.add(110, Operation.INSERT, employee("EMP001", "ACTIVE"));
+        feed.add(120, Operation.UPDATE, employee("EMP002", "ACTIVE"));
+        feed.add(130, Operation.UPDATE, employee("EMP001", "ACTIVE"));
+        when(checkpointRepository.findScn("logminer")).thenReturn(Optional.of(100L));
+
+        ChangeBatch<Long> batch = changeSource.fetchChanges();
+
+        assertThat(batch.size()).isEqualTo(2);
+        assertThat(batch.changes().get(0).employee().getEmployeeId()).isEqualTo("EMP002");
+        assertThat(batch.changes().get(0).eventType()).isEqualTo(EventType.UPDATE);
+        assertThat(batch.changes().get(1).employee().getEmployeeId()).isEqualTo("EMP001");
+        assertThat(batch.changes().get(1).eventType()).isEqualTo(EventType.CREATE);
+        assertThat(batch.checkpoint()).isEqualTo(200L);
+    }
+
+    @Test
+    @DisplayName("DELETE no log e inativação devem ser publicados como DELETE")
+    void shouldMapDeletesAndInactivations() {
+        feed.currentScn = 300;
+        feed.add(210, Operation.DELETE, employee("EMP003", "INACTIVE"));
+        feed.add(220, Operation.UPDATE, employee("EMP004", "INACTIVE"));
+        when(checkpointRepository.findScn("logminer")).thenReturn(Optional.of(200L));
+
+        ChangeBatch<Long> batch = changeSource.fetchChanges();
+
+        assertThat(batch.changes()).extracting(EmployeeChange::eventType)
+                .containsExactly(EventType.DELETE, EventType.DELETE);
+    }
+
+    @Test
+    @DisplayName("Deve limitar a faixa de SCN e ler somente após o checkpoint")
+    void shouldBoundScnRange() {
+        ReflectionTestUtils.setField(changeSource, "maxScnRange", 50L);
+        feed.currentScn = 1000;
+        feed.add(100, Operation.UPDATE, employee("EMP005", "ACTIVE"));
+        feed.add(140, Operation.UPDATE, employee("EMP006", "ACTIVE"));
+        feed.add(160, Operation.UPDATE, employee("EMP007", "ACTIVE"));
+        when(checkpointRepository.findScn("logminer")).thenReturn(Optional.of(100L));
+
+        ChangeBatch<Long> batch = changeSource.fetchChanges();
+
+        assertThat(batch.changes()).extracting(change -> change.employee().getEmployeeId())
+                .containsExactly("EMP006");
+        assertThat(batch.checkpoint()).isEqualTo(150L);
+    }
+
+    @Test
+    @DisplayName("Commit deve persistir o SCN final do lote")
+    void shouldPersistScnOnCommit() {
+        feed.currentScn = 400;
+        feed.add(350, Operation.UPDATE, employee("EMP008", "ACTIVE"));
+        when(checkpointRepository.findScn("logminer")).thenReturn(Optional.of(300L));
+
+        ChangeBatch<Long> batch = changeSource.fetchChanges();
+        verify(checkpointRepository, never()).saveScn(anyString(), anyLong());
+
+        changeSource.commit(batch);
+
+        verify(checkpointRepository).saveScn("logminer", 400L);
+    }
+
+    private static Employee employee(String employeeId, String status) {
+        return Employee.builder()
+                .employeeId(employeeId)
+                .cpf("12345678909")
+                .fullName("Colaborador " + employeeId)
+                .status(status)
+                .build();
+    }
+
+    /**
+     * Feed de redo em memória no lugar do LogMiner
+     */
+    private static class InMemoryRedoLogFeed implements RedoLogFeed {
+
+        private final List<RowChange> log = new ArrayList<>();
+        private long currentScn;
+
+        void add(long scn, Operation operation, Employee row) {
+            log.add(new RowChange(scn, operation, row.getEmployeeId(), row));
+        }
+
+        @Override
+        public long currentScn() {
+            return currentScn;
+        }
+
+        @Override
+        public List<RowChange> readChanges(long fromScnExclusive, long toScnInclusive) {
+            return log.stream()
+                    .filter(change -> change.scn() > fromScnExclusive && change.scn() <= toScnInclusive)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.esocial.producer.outbox;
+
+import com.esocial.producer.model.dto.EmployeeEventDTO;
+import com.esocial.producer.model.dto.EventType;
+import com.esocial.producer.repository.OutboxRepository;
+import com.esocial.producer.repository.OutboxRepository.OutboxRow;
+import com.esocial.producer.service.KafkaProducerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRepository outboxRepository;
+    private KafkaProducerService kafkaProducerService;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        outboxRepository = mock(OutboxRepository.class);
+        kafkaProducerService = mock(KafkaProducerService.class);
+        KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+        relay = new OutboxRelay(outboxRepository, kafkaProducerService, kafkaTemplate, objectMapper,
+                mock(PlatformTransactionManager.class), meterRegistry, 4, 2, 200, 1000);
+    }
+
+    @Test
+    @DisplayName("Deve publicar o lote em ordem e remover as linhas confirmadas")
+    @SuppressWarnings("unchecked")
+    void shouldPublishInOrderAndDeleteRows() throws Exception {
+        when(outboxRepository.tryLockPartition(1)).thenReturn(true);
+        when(outboxRepository.fetchBatch(anyList(), eq(2)))
+                .thenReturn(List.of(row(10, "evt-1", "EMP001"), row(11, "evt-2", "EMP001")), List.of());
+        when(kafkaProducerService.publishBatch(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.drain(1);
+
+        ArgumentCaptor<List<EmployeeEventDTO>> events = ArgumentCaptor.forClass(List.class);
+        verify(kafkaProducerService).publishBatch(events.capture());
+        assertThat(events.getValue()).extracting(EmployeeEventDTO::getEventId).containsExactly("evt-1", "evt-2");
+        verify(outboxRepository).deleteAll(List.of(10L, 11L));
+        assertThat(meterRegistry.counter("outbox.events.relayed", "service", "producer").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Partição travada por outra instância não deve ser lida")
+    void shouldSkipPartitionLockedByAnotherInstance() {
+        when(outboxRepository.tryLockPartition(0)).thenReturn(false);
+
+        relay.drain(0);
+
+        verify(outboxRepository, never()).fetchBatch(anyList(), anyInt());
+        verifyNoInteractions(kafkaProducerService);
+    }
+
+    @Test
+    @DisplayName("Falha na publicação não deve remover as linhas do outbox")
+    void shouldKeepRowsWhenPublishFails() throws Exception {
+        when(outboxRepository.tryLockPartition(2)).thenReturn(true);
+        when(outboxRepository.fetchBatch(anyList(), eq(2))).thenReturn(List.of(row(20, "evt-3", "EMP002")));
+        when(kafkaProducerService.publishBatch(anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker indisponível")));
+
+        relay.drain(2);
+
+        verify(outboxRepository, never()).deleteAll(anyList());
+        assertThat(meterRegistry.counter("outbox.relay.failures", "service", "producer").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Buckets devem ser divididos entre as partições sem sobreposição")
+    void shouldSplitBucketsAcrossPartitions() {
+        List<List<Integer>> partitions = OutboxRelay.bucketsByPartition(3);
+
+        Set<Integer> all = new HashSet<>();
+        partitions.forEach(all::addAll);
+        assertThat(all).hasSize(OutboxWriter.BUCKETS);
+        assertThat(partitions.stream().mapToInt(List::size).sum()).isEqualTo(OutboxWriter.BUCKETS);
+        assertThat(OutboxWriter.bucketOf("EMP001")).isEqualTo(OutboxWriter.bucketOf("EMP001"))
+                .isBetween(0, OutboxWriter.BUCKETS - 1);
+    }
+
+    private OutboxRow row(long id, String eventId, String employeeId) throws Exception {
+        EmployeeEventDTO event = EmployeeEventDTO.builder()
+                .eventId(eventId)
+                .eventType(EventType.UPDATE)
+                .employeeId(employeeId)
+                .build();
+        return new OutboxRow(id, objectMapper.writeValueAsString(event));
+    }
+}
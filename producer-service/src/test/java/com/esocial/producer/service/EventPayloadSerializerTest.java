@@ -0,0 +1,86 @@
+package com.esocial.producer.service;
+
+import com.esocial.producer.model.dto.EmployeeEventDTO;
+import com.esocial.producer.model.dto.EventType;
+import com.esocial.producer.serialization.EventSchemaRegistry;
+import com.esocial.producer.serialization.PayloadFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventPayloadSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final EventSchemaRegistry registry = new EventSchemaRegistry("schemas/employee-event");
+
+    @Test
+    @DisplayName("Avro deve gerar payload menor que JSON e informar formato e versão nos headers")
+    void shouldEncodeAvroWithFormatHeaders() throws Exception {
+        EventPayloadSerializer avro = new EventPayloadSerializer(objectMapper, "avro", registry);
+        EventPayloadSerializer json = new EventPayloadSerializer(objectMapper);
+        EmployeeEventDTO event = sampleEvent();
+
+        byte[] avroPayload = avro.serialize(event);
+        byte[] jsonPayload = json.serialize(event);
+
+        assertThat(avroPayload.length).isLessThan(jsonPayload.length / 2);
+
+        RecordHeaders headers = new RecordHeaders();
+        avro.addFormatHeaders(headers);
+        assertThat(new String(headers.lastHeader(PayloadFormat.HEADER).value(), StandardCharsets.UTF_8)).isEqualTo("avro");
+        assertThat(new String(headers.lastHeader(PayloadFormat.SCHEMA_VERSION_HEADER).value(), StandardCharsets.UTF_8))
+                .isEqualTo(String.valueOf(registry.latestVersion()));
+
+        GenericRecord decoded = new GenericDatumReader<GenericRecord>(registry.latest())
+                .read(null, DecoderFactory.get().binaryDecoder(avroPayload, null));
+        assertThat(decoded.get("source_id").toString()).isEqualTo("EMP001");
+        assertThat(decoded.get("event_type").toString()).isEqualTo("UPDATE");
+        assertThat(decoded.get("admission_date")).isEqualTo((int) LocalDate.of(2024, 1, 10).toEpochDay());
+    }
+
+    @Test
+    @DisplayName("JSON deve informar apenas o formato no header")
+    void shouldTagJsonPayload() {
+        EventPayloadSerializer json = new EventPayloadSerializer(objectMapper);
+
+        RecordHeaders headers = new RecordHeaders();
+        json.addFormatHeaders(headers);
+
+        assertThat(new String(headers.lastHeader(PayloadFormat.HEADER).value(), StandardCharsets.UTF_8)).isEqualTo("json");
+        assertThat(headers.lastHeader(PayloadFormat.SCHEMA_VERSION_HEADER)).isNull();
+    }
+
+    private static EmployeeEventDTO sampleEvent() {
+        return EmployeeEventDTO.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(EventType.UPDATE)
+                .eventTimestamp(LocalDateTime.of(2025, 1, 10, 9, 30))
+                .employeeId("EMP001")
+                .cpf("12345678909")
+                .pis("17033259504")
+                .fullName("João da Silva Santos")
+                .birthDate(LocalDate.of(1985, 3, 15))
+                .admissionDate(LocalDate.of(2024, 1, 10))
+                .jobTitle("Analista de Sistemas")
+                .department("TI")
+                .salary(new BigDecimal("5500.00"))
+                .status("ACTIVE")
+                .createdAt(LocalDateTime.of(2024, 1, 10, 8, 0))
+                .updatedAt(LocalDateTime.of(2025, 1, 10, 9, 30))
+                .sourceSystem("HR_SYSTEM")
+                .correlationId(UUID.randomUUID())
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+#!/bin/bash
+# compare-jmh.sh
+# Compara dois resultados JMH (JSON) e aponta regressões acima do limite
+#
+# Uso: ./scripts/benchmark/compare-jmh.sh <base.json> <atual.json> [limite %, padrão 10]
+
+set -e
+
+BASE=$1
+CURRENT=$2
+THRESHOLD=${3:-10}
+
+if [ -z "$BASE" ] || [ -z "$CURRENT" ]; then
+    echo "Uso: $0 <base.json> <atual.json> [limite %]"
+    exit 1
+fi
+
+# Chave: benchmark + parâmetros; valor: score (AverageTime, menor é melhor)
+scores() {
+    jq -r '.[] | "\(.benchmark)\(if .params then "[" + ([.params | to_entries[] | "\(.key)=\(.value)"] | join(",")) + "]" else "" end) \(.primaryMetric.score) \(.primaryMetric.scoreUnit)"' "$1" | sort
+}
+
+echo "========================================="
+echo "  JMH: $(basename "$BASE") → $(basename "$CURRENT")"
+echo "========================================="
+
+REGRESSIONS=0
+while read -r NAME BASE_SCORE UNIT; do
+    CURRENT_SCORE=$(scores "$CURRENT" | awk -v n="$NAME" '$1 == n { print $2 }')
+    if [ -z "$CURRENT_SCORE" ]; then
+        printf "%-90s %12s\n" "$NAME" "(removido)"
+        continue
+    fi
+    DELTA=$(awk -v b="$BASE_SCORE" -v c="$CURRENT_SCORE" 'BEGIN { printf "%.1f", (c - b) / b * 100 }')
+    STATUS="✓"
+    if awk -v d="$DELTA" -v t="$THRESHOLD" 'BEGIN { exit !(d > t) }'; then
+        STATUS="❌"
+        REGRESSIONS=$((REGRESSIONS + 1))
+    fi
+    printf "%s %-88s %12.2f → %12.2f %s (%+.1f%%)\n" "$STATUS" "$NAME" "$BASE_SCORE" "$CURRENT_SCORE" "$UNIT" "$DELTA"
+done < <(scores "$BASE")
+
+echo ""
+if [ "$REGRESSIONS" -gt 0 ]; then
+    echo "❌ $REGRESSIONS benchmark(s) com regressão acima de ${THRESHOLD}%"
+    exit 2
+fi
+echo "✓ Nenhuma regressão acima de ${THRESHOLD}%"
@@ -0,0 +1,37 @@
+#!/bin/bash
+# run-jmh.sh
+# Compila o módulo benchmarks e executa os micro-benchmarks JMH,
+# gravando o resultado em JSON (benchmarks/results/<rótulo>.json)
+#
+# Uso: ./scripts/benchmark/run-jmh.sh [rótulo] [opções do JMH]
+#   ./scripts/benchmark/run-jmh.sh                       # rótulo = commit atual
+#   ./scripts/benchmark/run-jmh.sh v1.1.0 ValidationEngine -prof gc
+
+set -e  # Para em caso de erro
+
+ROOT_DIR="$(cd "$(dirname "$0")/../.." && pwd)"
+LABEL=${1:-$(git -C "$ROOT_DIR" rev-parse --short HEAD)}
+shift || true
+
+RESULTS_DIR="$ROOT_DIR/benchmarks/results"
+RESULT_FILE="$RESULTS_DIR/$LABEL.json"
+
+echo "========================================="
+echo "  Benchmarks JMH - $LABEL"
+echo "========================================="
+
+echo ""
+echo "1. Compilando módulo benchmarks..."
+mvn -B -q -f "$ROOT_DIR/benchmarks/pom.xml" clean package
+echo "✓ benchmarks.jar gerado"
+
+echo ""
+echo "2. Executando benchmarks..."
+mkdir -p "$RESULTS_DIR"
+java -jar "$ROOT_DIR/benchmarks/target/benchmarks.jar" -rf json -rff "$RESULT_FILE" "$@"
+
+echo ""
+echo "========================================="
+echo "  ✓ Resultado: $RESULT_FILE"
+echo "  Comparar: ./scripts/benchmark/compare-jmh.sh <base.json> $RESULT_FILE"
+echo "========================================="
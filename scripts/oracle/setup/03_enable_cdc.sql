@@ -28,6 +28,10 @@ GRANT EXECUTE ON DBMS_LOGMNR_D TO hr_app;
 GRANT SELECT ON V_$LOGMNR_CONTENTS TO hr_app;
 GRANT SELECT ON V_$LOGMNR_LOGS TO hr_app;
 GRANT SELECT ON V_$ARCHIVED_LOG TO hr_app;
+GRANT SELECT ON V_$DATABASE TO hr_app;
+GRANT SELECT ON V_$LOG TO hr_app;
+GRANT SELECT ON V_$LOGFILE TO hr_app;
+GRANT LOGMINING TO hr_app;
 
 -- Verificar configuração
 SELECT log_mode, supplemental_log_data_min, supplemental_log_data_pk 
@@ -0,0 +1,27 @@
+-- 04_create_cdc_checkpoints.sql
+-- Checkpoint durável do CDC do producer-service
+
+CREATE TABLE IF NOT EXISTS public.cdc_checkpoints (
+    source_name VARCHAR(50) PRIMARY KEY,   -- logminer, polling
+    scn NUMERIC(20),                       -- Último SCN publicado (CDC por log de redo)
+    last_updated_at TIMESTAMP,             -- Watermark do polling: updated_at da última linha publicada
+    last_employee_id VARCHAR(20),          -- Watermark do polling: desempate por employee_id
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE public.cdc_checkpoints IS 'Posição da última mudança publicada por origem de CDC';
+
+-- Índice para a paginação por chave (updated_at, employee_id) do polling
+DO $$
+BEGIN
+    IF to_regclass('source.employees') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_source_employees_updated_at_id
+            ON source.employees (updated_at, employee_id);
+    END IF;
+END $$;
+
+-- Mensagem de sucesso
+DO $$
+BEGIN
+    RAISE NOTICE 'Tabela de checkpoints do CDC criada com sucesso!';
+END $$;
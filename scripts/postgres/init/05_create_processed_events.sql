@@ -0,0 +1,21 @@
+-- Registro durável de eventos já processados pelo consumer-service (consumer idempotente)
+
+CREATE TABLE IF NOT EXISTS public.processed_events (
+    event_id VARCHAR(50) PRIMARY KEY,      -- eventId do evento Kafka
+    source_id VARCHAR(20),
+    kafka_topic VARCHAR(100),
+    kafka_partition INTEGER,
+    kafka_offset BIGINT,
+    processed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE public.processed_events IS 'Eventos persistidos; gravado na mesma transação da persistência do colaborador';
+
+-- Índice para a limpeza por retenção
+CREATE INDEX IF NOT EXISTS idx_processed_events_processed_at ON public.processed_events (processed_at);
+
+-- Mensagem de sucesso
+DO $$
+BEGIN
+    RAISE NOTICE 'Tabela de eventos processados criada com sucesso!';
+END $$;
@@ -0,0 +1,17 @@
+-- Payload dos eventos com erros de validação, gravado uma única vez por evento.
+-- As linhas de public.validation_errors referenciam o payload por event_id
+-- (a coluna validation_errors.event_payload fica nula nas novas linhas).
+
+CREATE TABLE IF NOT EXISTS public.validation_error_payloads (
+    event_id VARCHAR(50) PRIMARY KEY,
+    event_payload JSONB NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE public.validation_error_payloads IS 'Payload único por evento referenciado pelos erros de validação';
+
+-- Mensagem de sucesso
+DO $$
+BEGIN
+    RAISE NOTICE 'Tabela de payloads de erros de validação criada com sucesso!';
+END $$;
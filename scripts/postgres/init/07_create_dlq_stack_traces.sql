@@ -0,0 +1,25 @@
+-- Stack traces da DLQ deduplicadas por fingerprint (SHA-256 da classe da exceção + frames).
+-- As linhas de public.dlq_events referenciam a stack trace por stack_trace_fingerprint
+-- (a coluna dlq_events.stack_trace fica nula nas novas linhas).
+
+CREATE TABLE IF NOT EXISTS public.dlq_stack_traces (
+    fingerprint VARCHAR(64) PRIMARY KEY,
+    exception_class VARCHAR(255),
+    stack_trace TEXT NOT NULL,
+    occurrences BIGINT NOT NULL DEFAULT 0,
+    first_seen_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_seen_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE public.dlq_stack_traces IS 'Stack traces únicas referenciadas pelos eventos da DLQ';
+
+ALTER TABLE public.dlq_events ADD COLUMN IF NOT EXISTS stack_trace_fingerprint VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_dlq_events_stack_trace_fingerprint
+    ON public.dlq_events (stack_trace_fingerprint);
+
+-- Mensagem de sucesso
+DO $$
+BEGIN
+    RAISE NOTICE 'Tabela de stack traces da DLQ criada com sucesso!';
+END $$;
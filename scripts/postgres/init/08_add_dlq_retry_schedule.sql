@@ -0,0 +1,13 @@
+-- Agendamento do replay da DLQ: próxima tentativa (backoff exponencial com jitter)
+-- e índice para o claim por página com FOR UPDATE SKIP LOCKED
+
+ALTER TABLE public.dlq_events ADD COLUMN IF NOT EXISTS next_retry_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_dlq_events_status_next_retry
+    ON public.dlq_events (status, next_retry_at);
+
+-- Mensagem de sucesso
+DO $$
+BEGIN
+    RAISE NOTICE 'Agendamento de replay da DLQ configurado com sucesso!';
+END $$;
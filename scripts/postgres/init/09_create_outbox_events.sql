@@ -0,0 +1,24 @@
+-- 09_create_outbox_events.sql
+-- Outbox transacional do producer-service: o CDC grava os eventos e o checkpoint
+-- na mesma transação; o relay publica no Kafka e remove as linhas confirmadas
+
+CREATE TABLE IF NOT EXISTS public.outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_id VARCHAR(50) NOT NULL,
+    employee_id VARCHAR(20) NOT NULL,
+    event_type VARCHAR(10) NOT NULL,
+    bucket SMALLINT NOT NULL,              -- hash(employee_id) % 256: define a thread do relay
+    payload JSONB NOT NULL,                -- EmployeeEventDTO
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE public.outbox_events IS 'Eventos do CDC aguardando publicação no Kafka (removidos após o ack)';
+
+-- Leitura do relay: buckets da thread, em ordem de inserção
+CREATE INDEX IF NOT EXISTS idx_outbox_events_bucket_id ON public.outbox_events (bucket, id);
+
+-- Mensagem de sucesso
+DO $$
+BEGIN
+    RAISE NOTICE 'Tabela de outbox criada com sucesso!';
+END $$;
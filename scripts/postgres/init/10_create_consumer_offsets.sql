@@ -0,0 +1,20 @@
+-- 10_create_consumer_offsets.sql
+-- Offsets do consumer no modo exactly-once: gravados na mesma transação que employees,
+-- processed_events e histórico; restaurados (seek) na atribuição de partições
+
+CREATE TABLE IF NOT EXISTS public.consumer_offsets (
+    group_id VARCHAR(100) NOT NULL,
+    topic VARCHAR(100) NOT NULL,
+    kafka_partition INTEGER NOT NULL,
+    next_offset BIGINT NOT NULL,            -- Próximo offset a consumir (último processado + 1)
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (group_id, topic, kafka_partition)
+);
+
+COMMENT ON TABLE public.consumer_offsets IS 'Posição do consumer por partição no modo exactly-once (fonte da verdade no restart/rebalance)';
+
+-- Mensagem de sucesso
+DO $$
+BEGIN
+    RAISE NOTICE 'Tabela de offsets do consumer criada com sucesso!';
+END $$;
@@ -0,0 +1,17 @@
+-- 11_create_cdc_published_state.sql
+-- Hash do último estado publicado de cada colaborador pelo CDC do producer-service.
+-- Linhas tocadas sem mudança nos dados (ex.: jobs que só atualizam updated_at) não geram evento
+
+CREATE TABLE IF NOT EXISTS public.cdc_published_state (
+    employee_id VARCHAR(20) PRIMARY KEY,
+    state_hash BIGINT NOT NULL,             -- Hash de 64 bits dos campos de negócio publicados
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE public.cdc_published_state IS 'Hash do último estado publicado por colaborador (detecção de mudanças do CDC)';
+
+-- Mensagem de sucesso
+DO $$
+BEGIN
+    RAISE NOTICE 'Tabela de estado publicado do CDC criada com sucesso!';
+END $$;
@@ -0,0 +1,202 @@
+-- 12_partition_event_tables.sql
+-- Particionamento mensal (RANGE) das tabelas que só crescem: public.employee_events (created_at),
+-- public.validation_errors (created_at) e audit.employees_history (changed_at).
+-- Consultas com filtro de data leem apenas as partições do período e a retenção vira
+-- DETACH PARTITION em vez de DELETE em massa. As partições futuras são criadas e as antigas
+-- movidas para o schema archive pelo PartitionMaintenanceService do consumer-service.
+--
+-- Restrições de unicidade em tabela particionada precisam incluir a chave de partição:
+-- as PKs passam a ser (id, data) e event_id/source_id de employee_events deixam de ser UNIQUE
+-- (a unicidade de eventId é garantida por public.processed_events).
+-- As linhas existentes são copiadas para a nova estrutura (o script pode rodar em banco com dados).
+
+CREATE SCHEMA IF NOT EXISTS archive;
+COMMENT ON SCHEMA archive IS 'Partições desanexadas além da retenção (exportar e remover manualmente)';
+
+-- ============================================================================
+-- FUNÇÕES DE MANUTENÇÃO
+-- ============================================================================
+
+-- Cria (se não existir) a partição mensal <tabela>_pAAAAMM do mês que contém month_start
+CREATE OR REPLACE FUNCTION public.create_monthly_partition(parent_table regclass, month_start date)
+RETURNS text AS $$
+DECLARE
+    parent_schema text;
+    parent_name text;
+    partition_name text;
+    range_start date := date_trunc('month', month_start)::date;
+    range_end date := (date_trunc('month', month_start) + interval '1 month')::date;
+BEGIN
+    SELECT n.nspname, c.relname INTO parent_schema, parent_name
+    FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+    WHERE c.oid = parent_table;
+
+    partition_name := parent_name || '_p' || to_char(range_start, 'YYYYMM');
+    IF to_regclass(format('%I.%I', parent_schema, partition_name)) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I.%I PARTITION OF %s FOR VALUES FROM (%L) TO (%L)',
+                       parent_schema, partition_name, parent_table, range_start, range_end);
+    END IF;
+    RETURN format('%I.%I', parent_schema, partition_name);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Desanexa a partição e a move para o schema archive; lock_timeout evita que o DETACH
+-- (ACCESS EXCLUSIVE na tabela pai) fique enfileirado na frente das gravações do consumer
+CREATE OR REPLACE FUNCTION public.archive_partition(partition_table regclass)
+RETURNS text AS $$
+DECLARE
+    parent_table regclass;
+    partition_name text;
+BEGIN
+    SELECT i.inhparent::regclass, c.relname INTO parent_table, partition_name
+    FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+    WHERE i.inhrelid = partition_table;
+
+    IF parent_table IS NULL THEN
+        RAISE EXCEPTION 'Tabela % não é uma partição', partition_table;
+    END IF;
+
+    EXECUTE format('ALTER TABLE %s DETACH PARTITION %s', parent_table, partition_table);
+    EXECUTE format('ALTER TABLE %s SET SCHEMA archive', partition_table);
+    RETURN format('archive.%I', partition_name);
+END;
+$$ LANGUAGE plpgsql
+SET lock_timeout = '5s';
+
+-- ============================================================================
+-- public.employee_events
+-- ============================================================================
+
+ALTER TABLE public.employee_events RENAME TO employee_events_legacy;
+
+CREATE TABLE public.employee_events (
+    LIKE public.employee_events_legacy INCLUDING DEFAULTS INCLUDING COMMENTS
+) PARTITION BY RANGE (created_at);
+
+-- ============================================================================
+-- public.validation_errors
+-- ============================================================================
+
+ALTER TABLE public.validation_errors RENAME TO validation_errors_legacy;
+UPDATE public.validation_errors_legacy SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+
+CREATE TABLE public.validation_errors (
+    LIKE public.validation_errors_legacy INCLUDING DEFAULTS INCLUDING COMMENTS
+) PARTITION BY RANGE (created_at);
+
+-- ============================================================================
+-- audit.employees_history
+-- ============================================================================
+
+ALTER TABLE audit.employees_history RENAME TO employees_history_legacy;
+UPDATE audit.employees_history_legacy SET changed_at = CURRENT_TIMESTAMP WHERE changed_at IS NULL;
+
+CREATE TABLE audit.employees_history (
+    LIKE audit.employees_history_legacy INCLUDING DEFAULTS INCLUDING COMMENTS
+) PARTITION BY RANGE (changed_at);
+
+-- ============================================================================
+-- PARTIÇÕES INICIAIS
+-- ============================================================================
+
+-- Meses com dados existentes até 3 meses à frente, mais a partição DEFAULT
+-- (rede de segurança: só recebe linhas se a manutenção deixar de rodar)
+DO $$
+DECLARE
+    managed record;
+    parent regclass;
+    first_month date;
+    month date;
+BEGIN
+    FOR managed IN
+        SELECT * FROM (VALUES
+            ('public', 'employee_events', 'created_at'),
+            ('public', 'validation_errors', 'created_at'),
+            ('audit', 'employees_history', 'changed_at')
+        ) AS t(schema_name, table_name, key_column)
+    LOOP
+        parent := format('%I.%I', managed.schema_name, managed.table_name)::regclass;
+        EXECUTE format('SELECT date_trunc(''month'', MIN(%I))::date FROM %I.%I',
+                       managed.key_column, managed.schema_name, managed.table_name || '_legacy')
+            INTO first_month;
+
+        month := LEAST(COALESCE(first_month, CURRENT_DATE), date_trunc('month', CURRENT_DATE)::date);
+        WHILE month <= date_trunc('month', CURRENT_DATE + interval '3 months')::date LOOP
+            PERFORM public.create_monthly_partition(parent, month);
+            month := (month + interval '1 month')::date;
+        END LOOP;
+
+        EXECUTE format('CREATE TABLE %I.%I PARTITION OF %s DEFAULT',
+                       managed.schema_name, managed.table_name || '_default', parent);
+    END LOOP;
+END $$;
+
+-- ============================================================================
+-- CÓPIA DOS DADOS E REMOÇÃO DAS TABELAS ANTIGAS
+-- ============================================================================
+
+-- As sequências dos BIGSERIAL passam para as novas colunas antes do DROP
+INSERT INTO public.employee_events SELECT * FROM public.employee_events_legacy;
+ALTER SEQUENCE public.employee_events_id_seq OWNED BY public.employee_events.id;
+DROP TABLE public.employee_events_legacy;
+
+INSERT INTO public.validation_errors SELECT * FROM public.validation_errors_legacy;
+ALTER SEQUENCE public.validation_errors_id_seq OWNED BY public.validation_errors.id;
+DROP TABLE public.validation_errors_legacy;
+
+INSERT INTO audit.employees_history SELECT * FROM audit.employees_history_legacy;
+ALTER SEQUENCE audit.employees_history_history_id_seq OWNED BY audit.employees_history.history_id;
+DROP TABLE audit.employees_history_legacy;
+
+-- ============================================================================
+-- CHAVES E ÍNDICES (criados na tabela pai, propagados para cada partição)
+-- ============================================================================
+
+ALTER TABLE public.employee_events
+    ADD CONSTRAINT employee_events_pkey PRIMARY KEY (id, created_at),
+    ADD CONSTRAINT fk_employee_events_employee
+        FOREIGN KEY (employee_id) REFERENCES public.employees(id) ON DELETE SET NULL;
+
+-- Apenas os índices usados por consultas reais: cada índice extra é mantido em toda partição e
+-- encarece cada INSERT. Colunas de baixa seletividade ou sem consulta (event_type, kafka_*,
+-- validation_*, processing_*, esocial_*, created_by, updated_at, employee_id) ficam sem índice.
+CREATE INDEX IF NOT EXISTS idx_employee_events_source_id ON public.employee_events(source_id);
+CREATE INDEX IF NOT EXISTS idx_employee_events_event_id ON public.employee_events(event_id);
+CREATE INDEX IF NOT EXISTS idx_employee_events_correlation_id ON public.employee_events(correlation_id);
+CREATE INDEX IF NOT EXISTS idx_employee_events_status ON public.employee_events(status);
+CREATE INDEX IF NOT EXISTS idx_employee_events_created_at ON public.employee_events(created_at);
+CREATE INDEX IF NOT EXISTS idx_employee_events_retry_status
+    ON public.employee_events(retry_count, status, next_retry_at);
+CREATE INDEX IF NOT EXISTS idx_employee_events_unprocessed
+    ON public.employee_events(status, created_at ASC)
+    WHERE status NOT IN ('ARCHIVED', 'ESOCIAL_PROCESSED');
+
+ALTER TABLE public.validation_errors
+    ADD CONSTRAINT validation_errors_pkey PRIMARY KEY (id, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_validation_errors_event_id ON public.validation_errors(event_id);
+CREATE INDEX IF NOT EXISTS idx_validation_errors_rule ON public.validation_errors(validation_rule);
+CREATE INDEX IF NOT EXISTS idx_validation_errors_severity ON public.validation_errors(severity);
+CREATE INDEX IF NOT EXISTS idx_validation_errors_created_at ON public.validation_errors(created_at);
+
+ALTER TABLE audit.employees_history
+    ADD CONSTRAINT employees_history_pkey PRIMARY KEY (history_id, changed_at);
+
+CREATE INDEX IF NOT EXISTS idx_employees_history_employee_id ON audit.employees_history(employee_id);
+CREATE INDEX IF NOT EXISTS idx_employees_history_source_id ON audit.employees_history(source_id);
+CREATE INDEX IF NOT EXISTS idx_employees_history_changed_at ON audit.employees_history(changed_at);
+
+COMMENT ON TABLE public.employee_events IS
+'Tabela de rastreamento de eventos de colaboradores (particionada por mês em created_at).';
+COMMENT ON TABLE public.validation_errors IS 'Erros de validação identificados no processamento (particionada por mês em created_at)';
+COMMENT ON TABLE audit.employees_history IS 'Histórico completo de todas as mudanças em employees (particionada por mês em changed_at)';
+
+ANALYZE public.employee_events;
+ANALYZE public.validation_errors;
+ANALYZE audit.employees_history;
+
+-- Mensagem de sucesso
+DO $$
+BEGIN
+    RAISE NOTICE 'Tabelas de eventos, erros de validação e histórico particionadas com sucesso!';
+END $$;